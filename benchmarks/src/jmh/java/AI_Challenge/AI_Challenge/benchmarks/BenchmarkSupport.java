@@ -0,0 +1,21 @@
+package AI_Challenge.AI_Challenge.benchmarks;
+
+import AI_Challenge.AI_Challenge.domain.document.service.PoiPackageLoader;
+import AI_Challenge.AI_Challenge.domain.document.service.PoiPackageLoaderFixtures;
+import AI_Challenge.AI_Challenge.global.common.MemoryBudget;
+import java.time.Duration;
+
+/**
+ * 벤치마크 공통 준비 코드
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    // 애플리케이션 기본값과 같은 설정 (예산은 벤치마크가 막히지 않도록 넉넉하게)
+    static PoiPackageLoader poiPackageLoader() {
+        return PoiPackageLoaderFixtures.poiPackageLoader(
+            new MemoryBudget("poi-memory", Runtime.getRuntime().maxMemory() / 2, 0, Duration.ofSeconds(5)));
+    }
+}
@@ -0,0 +1,67 @@
+package AI_Challenge.AI_Challenge.benchmarks;
+
+import AI_Challenge.AI_Challenge.domain.document.service.DocxMarkdownConverter;
+import AI_Challenge.AI_Challenge.domain.document.service.DocxTextExtractor;
+import AI_Challenge.AI_Challenge.domain.document.service.LocalSchemaExtractor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 템플릿을 읽는 단계 - 업로드 시 텍스트 추출, DOCX -> Markdown 변환(POI), 로컬 스키마 추출
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DocumentReadBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String corpus;
+
+    private byte[] template;
+    private Path templateFile;
+
+    private final DocxTextExtractor textExtractor = new DocxTextExtractor(BenchmarkSupport.poiPackageLoader());
+    private final DocxMarkdownConverter markdownConverter =
+        new DocxMarkdownConverter(BenchmarkSupport.poiPackageLoader());
+    private final LocalSchemaExtractor localSchemaExtractor =
+        new LocalSchemaExtractor(new ObjectMapper(), BenchmarkSupport.poiPackageLoader());
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        template = SyntheticDocxCorpus.create(SyntheticDocxCorpus.preset(corpus));
+        templateFile = Files.createTempFile("benchmark-template-", ".docx");
+        Files.write(templateFile, template);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(templateFile);
+    }
+
+    @Benchmark
+    public String extractText() throws Exception {
+        return textExtractor.extract(templateFile);
+    }
+
+    @Benchmark
+    public String convertDocxToMarkdown() throws Exception {
+        return markdownConverter.convert(template);
+    }
+
+    @Benchmark
+    public LocalSchemaExtractor.Extraction extractSchemaLocally() throws Exception {
+        return localSchemaExtractor.extract(template);
+    }
+}
@@ -0,0 +1,68 @@
+package AI_Challenge.AI_Challenge.benchmarks;
+
+import AI_Challenge.AI_Challenge.domain.document.service.FilledJsonFlattener;
+import AI_Challenge.AI_Challenge.domain.document.service.ReceiptFieldExtractor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 채우기 데이터 처리 - GPT 결과 JSON 평탄화(FilledJsonFlattener), 규칙 기반 영수증 필드 추출
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FillDataBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String corpus;
+
+    @Param({"3", "20"})
+    public int receipts;
+
+    private String filledJson;
+    private String schemaJson;
+    private String receiptText;
+
+    private final FilledJsonFlattener filledJsonFlattener = new FilledJsonFlattener(new ObjectMapper());
+    private final ReceiptFieldExtractor receiptFieldExtractor = new ReceiptFieldExtractor(new ObjectMapper());
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticDocxCorpus.Spec spec = SyntheticDocxCorpus.preset(corpus);
+        filledJson = SyntheticDocxCorpus.sampleFilledJson(spec);
+        schemaJson = travelExpenseSchema();
+        receiptText = SyntheticDocxCorpus.sampleReceiptText(receipts);
+    }
+
+    @Benchmark
+    public Map<String, String> flattenFilledJson() {
+        return filledJsonFlattener.flatten(filledJson);
+    }
+
+    @Benchmark
+    public ReceiptFieldExtractor.Resolution resolveReceiptFields() {
+        return receiptFieldExtractor.resolve(schemaJson, receiptText);
+    }
+
+    // 여비정산서 스키마 (교통편 4칸)
+    private static String travelExpenseSchema() {
+        StringBuilder json = new StringBuilder("{\"일시\":\"\",\"출장지\":\"\",\"식비기간\":\"\",\"식사제공횟수\":\"\",")
+            .append("\"식비정산금\":\"\",\"숙박시작일자\":\"\",\"숙박종료일자\":\"\",\"숙박비금액\":\"\"");
+        for (int i = 1; i <= 4; i++) {
+            for (String field : new String[]{"일자", "교통편", "출발지", "도착지", "구분", "금액"}) {
+                json.append(",\"").append(field).append(i).append("\":\"\"");
+            }
+        }
+        return json.append(",\"출장금액\":\"\"}").toString();
+    }
+}
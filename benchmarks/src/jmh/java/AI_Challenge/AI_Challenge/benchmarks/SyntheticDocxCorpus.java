@@ -0,0 +1,193 @@
+package AI_Challenge.AI_Challenge.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
+
+/**
+ * 벤치마크용 합성 DOCX 양식 생성기
+ * - 본문 문단 수, 표 수, 표당 행 수(행마다 자리 표시자 2개), 포함 이미지 크기를 조절한다
+ * - 실제 양식처럼 첫 열은 두 행씩 세로 병합하고, 제목 행은 가로 병합하며, 자리 표시자 일부는 여러 run으로 나눈다
+ */
+public final class SyntheticDocxCorpus {
+
+    private static final int COLUMNS = 5;
+
+    private SyntheticDocxCorpus() {
+    }
+
+    /**
+     * 양식 크기 (placeholders = tables * rowsPerTable * 2)
+     */
+    public record Spec(int paragraphs, int tables, int rowsPerTable, int imageKilobytes) {
+
+        public int placeholders() {
+            return tables * rowsPerTable * 2;
+        }
+    }
+
+    // small: 여비정산서 정도, medium: 여러 쪽 양식, large: 큰 이미지가 포함된 긴 양식
+    public static Spec preset(String name) {
+        return switch (name) {
+            case "small" -> new Spec(20, 1, 16, 0);
+            case "medium" -> new Spec(200, 4, 25, 256);
+            case "large" -> new Spec(1000, 10, 40, 2048);
+            default -> throw new IllegalArgumentException("알 수 없는 양식 크기: " + name);
+        };
+    }
+
+    public static byte[] create(Spec spec) throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            document.createParagraph().createRun().setText("여 비 정 산 신 청 서");
+
+            int paragraphsPerBlock = Math.max(1, spec.paragraphs() / Math.max(1, spec.tables() + 1));
+            int placeholder = 0;
+            for (int table = 0; table < spec.tables(); table++) {
+                addParagraphs(document, paragraphsPerBlock, table);
+                placeholder = addTable(document, spec.rowsPerTable(), placeholder);
+            }
+            addParagraphs(document, paragraphsPerBlock, spec.tables());
+
+            if (spec.imageKilobytes() > 0) {
+                // 무작위 바이트 - 압축되지 않아 zip 항목 크기가 그대로 유지된다
+                byte[] image = new byte[spec.imageKilobytes() * 1024];
+                new Random(42).nextBytes(image);
+                try {
+                    document.createParagraph().createRun().addPicture(new ByteArrayInputStream(image),
+                        Document.PICTURE_TYPE_PNG, "receipt.png", 1_000_000, 1_000_000);
+                } catch (InvalidFormatException e) {
+                    throw new IOException(e);
+                }
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 렌더러 입력 데이터 - 모든 자리 표시자에 값
+     */
+    public static Map<String, String> sampleData(Spec spec) {
+        Map<String, String> data = new LinkedHashMap<>();
+        for (int i = 0; i < spec.placeholders(); i++) {
+            data.put(key(i), "값 " + i + " - 12,300원");
+        }
+        return data;
+    }
+
+    /**
+     * GPT 채우기 결과 형태의 JSON (평탄한 키 + 섹션별 label/value 객체를 섞어 FilledJsonFlattener의 두 경로를 모두 탄다)
+     */
+    public static String sampleFilledJson(Spec spec) {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < spec.placeholders(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            if (i % 4 == 3) {
+                json.append("\"섹션").append(i).append("\":{\"label\":\"").append(key(i))
+                    .append("\",\"value\":\"값 ").append(i).append("\"}");
+            } else {
+                json.append('"').append(key(i)).append("\":\"값 ").append(i).append(" - 12,300원\"");
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * OCR 결과 형태의 영수증 텍스트 (교통 영수증을 번갈아 이어 붙임)
+     */
+    public static String sampleReceiptText(int receipts) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < receipts; i++) {
+            int day = 1 + i % 28;
+            if (i % 2 == 0) {
+                text.append("## 고속버스 영수증\n\n**상호:** 금호익스프레스(주)\n**사업자 번호:** 899-87-02113\n\n---\n\n")
+                    .append("**승인번호:** ").append(14605907 + i).append("\n**결제금액:** 16,900원 (부가세포함)\n")
+                    .append("**출발일:** 2025.04.").append(String.format("%02d", day))
+                    .append("\n**출발지:** 유성\n**도착지:** 센트럴시티(서울)\n\n");
+            } else {
+                text.append("## 승차권 정보\n\n**2025년 1월 ").append(day).append("일(수)**\n\n")
+                    .append("*   **열차:** KTX 105 | 일반실 | 6호차 8D\n*   **경로:** 서울 17:13 〉 대전 18:12\n\n")
+                    .append("**결제 금액:** 22,500원\n**총 영수 금액:** 22,500원\n\n");
+            }
+        }
+        return text.toString();
+    }
+
+    static String key(int index) {
+        return "항목" + index;
+    }
+
+    private static void addParagraphs(XWPFDocument document, int count, int block) {
+        for (int i = 0; i < count; i++) {
+            document.createParagraph().createRun()
+                .setText("출장 여비 정산 규정 제" + block + "-" + i + "조 - 자리 표시자가 없는 본문 문단입니다.");
+        }
+    }
+
+    private static int addTable(XWPFDocument document, int rows, int firstPlaceholder) {
+        XWPFTable table = document.createTable(rows + 1, COLUMNS);
+
+        // 제목 행 - 전체 열 가로 병합
+        XWPFTableRow header = table.getRow(0);
+        header.getCell(0).setText("구분 " + firstPlaceholder);
+        for (int column = COLUMNS - 1; column > 0; column--) {
+            header.removeCell(column);
+        }
+        tcPr(header.getCell(0)).addNewGridSpan().setVal(BigInteger.valueOf(COLUMNS));
+
+        int placeholder = firstPlaceholder;
+        for (int rowIndex = 1; rowIndex <= rows; rowIndex++) {
+            XWPFTableRow row = table.getRow(rowIndex);
+
+            // 첫 열 - 두 행씩 세로 병합
+            XWPFTableCell group = row.getCell(0);
+            if (rowIndex % 2 == 1) {
+                group.setText("묶음 " + rowIndex / 2);
+                tcPr(group).addNewVMerge().setVal(STMerge.RESTART);
+            } else {
+                tcPr(group).addNewVMerge();
+            }
+
+            for (int pair = 0; pair < 2; pair++) {
+                row.getCell(1 + pair * 2).setText(key(placeholder));
+                writePlaceholder(row.getCell(2 + pair * 2), key(placeholder), placeholder % 3 == 0);
+                placeholder++;
+            }
+        }
+        return placeholder;
+    }
+
+    // Word에서 편집한 양식처럼 "{{", 키, "}}"가 서로 다른 run에 나뉜 경우도 만든다
+    private static void writePlaceholder(XWPFTableCell cell, String key, boolean splitRuns) {
+        XWPFParagraph paragraph = cell.getParagraphs().get(0);
+        if (splitRuns) {
+            paragraph.createRun().setText("{{");
+            paragraph.createRun().setText(key);
+            paragraph.createRun().setText("}}");
+        } else {
+            paragraph.createRun().setText("{{" + key + "}}");
+        }
+    }
+
+    private static CTTcPr tcPr(XWPFTableCell cell) {
+        CTTcPr tcPr = cell.getCTTc().getTcPr();
+        return tcPr != null ? tcPr : cell.getCTTc().addNewTcPr();
+    }
+}
@@ -0,0 +1,54 @@
+package AI_Challenge.AI_Challenge.benchmarks;
+
+import AI_Challenge.AI_Challenge.domain.document.service.DocxTemplateRenderer;
+import AI_Challenge.AI_Challenge.domain.document.service.PoiDocxTemplateRenderer;
+import AI_Challenge.AI_Challenge.domain.document.service.StaxDocxTemplateRenderer;
+import AI_Challenge.AI_Challenge.global.common.HashUtils;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * fillDocxTemplateWithJson의 자리 표시자 교체 단계 - POI 렌더러와 StAX 렌더러 비교
+ * (기존 src/test의 main 실행 DocxTemplateRendererBenchmark를 JMH로 옮긴 것)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TemplateRenderBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String corpus;
+
+    @Param({"poi", "stax"})
+    public String engine;
+
+    private byte[] template;
+    private String contentHash;
+    private Map<String, String> data;
+    private DocxTemplateRenderer renderer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        SyntheticDocxCorpus.Spec spec = SyntheticDocxCorpus.preset(corpus);
+        template = SyntheticDocxCorpus.create(spec);
+        contentHash = HashUtils.sha256Hex(template);
+        data = SyntheticDocxCorpus.sampleData(spec);
+
+        PoiDocxTemplateRenderer poiRenderer = new PoiDocxTemplateRenderer(BenchmarkSupport.poiPackageLoader());
+        renderer = "poi".equals(engine) ? poiRenderer : new StaxDocxTemplateRenderer(poiRenderer, 8);
+    }
+
+    @Benchmark
+    public byte[] render() throws Exception {
+        return renderer.render(template, contentHash, data);
+    }
+}
@@ -237,7 +237,11 @@ function MainPage() {
     try {
       setProcessingStatus('이미지에서 텍스트를 추출하고 있습니다...');
       const geminiResponse = await processImageWithGemini(uploadedImages);
-      const extractedText = geminiResponse.data.map(item => item.response).join('\n\n');
+      // 실패한 이미지는 error 항목으로 오므로 response가 있는 결과만 사용합니다.
+      const extractedText = geminiResponse.data
+          .filter(item => item.response)
+          .map(item => item.response)
+          .join('\n\n');
 
       const processedResults = [];
       for (const doc of selectedDocxDocs) {
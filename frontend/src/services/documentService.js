@@ -30,9 +30,18 @@ export const uploadDocument = async (file) => {
   });
 };
 
-// 모든 문서 조회
-export const fetchDocuments = async () => {
-  return await apiClient.get('/document/list');
+// 모든 문서 조회 (서버는 메타데이터만 페이지 단위로 응답하므로 nextCursor가 없을 때까지 이어서 조회)
+export const fetchDocuments = async (pageSize = 100) => {
+  const documents = [];
+  let afterId = null;
+  do {
+    const response = await apiClient.get('/document/list', {
+      params: { afterId, size: pageSize }
+    });
+    documents.push(...response.data.items);
+    afterId = response.data.nextCursor;
+  } while (afterId != null);
+  return { data: documents };
 };
 
 // 문서 처리 및 다운로드
@@ -104,3 +113,14 @@ export const uploadFileAndGetId = async (file) => {
   const response = await apiClient.post('/document/upload', formData); // 기존 업로드 엔드포인트
   return response.data; // { id: 456, fileName: ... } 형태의 객체를 반환
 };
+
+// 한 템플릿에 여러 영수증 텍스트를 채워 ZIP으로 받는 배치 API
+export const createBatchAndDownload = async (documentId, extractedTexts) => {
+  return await apiClient.post('/document/batch/create-and-download', {
+    documentId,
+    extractedTexts,
+  }, {
+    responseType: 'blob',
+    timeout: 0, // 건수에 비례해 오래 걸리므로 타임아웃 없음
+  });
+};
@@ -0,0 +1,43 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * key=value 형식 명령행 인자 (같은 키가 여러 번 오면 뒤의 값이 우선)
+ */
+final class Arguments {
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    Arguments(String[] args) {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("인자는 key=value 형식이어야 합니다: " + arg);
+            }
+            values.put(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+        }
+    }
+
+    // 값이 없을 때만 기본값을 넣는다 (프로필 기본값 적용용)
+    void putDefault(String key, String value) {
+        values.putIfAbsent(key, value);
+    }
+
+    String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    int getInt(String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+    }
+
+    long getLong(String key, long defaultValue) {
+        return values.containsKey(key) ? Long.parseLong(values.get(key)) : defaultValue;
+    }
+
+    double getDouble(String key, double defaultValue) {
+        return values.containsKey(key) ? Double.parseDouble(values.get(key)) : defaultValue;
+    }
+}
@@ -0,0 +1,96 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 여비정산 양식 기준 스텁 응답
+ * - OCR: 고속버스 + KTX 영수증 텍스트
+ * - 양식 분석: 프롬프트의 입력 gfm에서 {{키}}를 모아 {"키": ""} (예시 부분은 제외)
+ * - 채우기: 프롬프트의 입력 JSON 키마다 여비정산 값 (모르는 키는 "")
+ */
+final class CannedResponses {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*([^{}]+?)\\s*\\}\\}");
+    private static final String SCHEMA_INPUT_MARKER = "[입력 gfm 텍스트]";
+    private static final String FILL_INPUT_MARKER = "[입력 JSON]\n";
+    private static final String FILL_TEXT_MARKER = "\n---\n[입력 텍스트]";
+
+    private final ObjectMapper objectMapper;
+    private final String receiptText;
+    private final ObjectNode fillValues;
+
+    CannedResponses(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.receiptText = resource("stub/receipt-ocr.md");
+        try {
+            this.fillValues = (ObjectNode) objectMapper.readTree(resource("stub/fill-values.json"));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("stub/fill-values.json 파싱 실패", e);
+        }
+    }
+
+    static String resource(String path) {
+        try (InputStream in = CannedResponses.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("리소스를 찾을 수 없습니다: " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    String ocrText() {
+        return receiptText;
+    }
+
+    String schemaFor(String prompt) {
+        int marker = prompt.lastIndexOf(SCHEMA_INPUT_MARKER);
+        String input = marker < 0 ? prompt : prompt.substring(marker);
+
+        ObjectNode schema = objectMapper.createObjectNode();
+        Matcher matcher = PLACEHOLDER.matcher(input);
+        while (matcher.find()) {
+            schema.put(matcher.group(1), "");
+        }
+        if (schema.isEmpty()) {
+            // 자리 표시자를 찾지 못하면 여비정산 양식 키를 그대로 돌려준다
+            fillValues.fieldNames().forEachRemaining(key -> schema.put(key, ""));
+        }
+        return schema.toString();
+    }
+
+    // 헤징으로 다른 제공자에 같은 작업이 올 수 있으므로 제공자가 아니라 프롬프트 모양으로 고른다
+    String textFor(String prompt) {
+        return prompt.contains(FILL_INPUT_MARKER) ? fillFor(prompt) : schemaFor(prompt);
+    }
+
+    String fillFor(String prompt) {
+        int start = prompt.indexOf(FILL_INPUT_MARKER);
+        int end = prompt.indexOf(FILL_TEXT_MARKER);
+        if (start < 0 || end < start) {
+            return fillValues.toString();
+        }
+        try {
+            JsonNode schema = objectMapper.readTree(prompt.substring(start + FILL_INPUT_MARKER.length(), end));
+            ObjectNode filled = objectMapper.createObjectNode();
+            for (Iterator<String> keys = schema.fieldNames(); keys.hasNext(); ) {
+                String key = keys.next();
+                filled.put(key, fillValues.path(key).asText(""));
+            }
+            return filled.toString();
+        } catch (JsonProcessingException e) {
+            return fillValues.toString();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 스텁 오류 주입 설정
+ * - errorRate: 요청마다 이 확률로 500 응답
+ * - 429 폭주: throttlePeriodSeconds마다 처음 throttleBurstSeconds 동안 모든 요청에 429 + Retry-After
+ *   (공급자 분당 한도에 걸린 상황 재현, 주기가 0이면 사용하지 않음)
+ */
+public record FaultProfile(double errorRate, long throttlePeriodSeconds, long throttleBurstSeconds,
+                           long retryAfterSeconds) {
+
+    public static final int NONE = 0;
+
+    /**
+     * 이번 요청에 돌려줄 오류 상태 코드 (정상 응답이면 NONE)
+     */
+    public int nextFailure(long startedAtMillis) {
+        if (throttlePeriodSeconds > 0) {
+            long elapsedSeconds = (System.currentTimeMillis() - startedAtMillis) / 1000;
+            if (elapsedSeconds % throttlePeriodSeconds < throttleBurstSeconds) {
+                return 429;
+            }
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            return 500;
+        }
+        return NONE;
+    }
+}
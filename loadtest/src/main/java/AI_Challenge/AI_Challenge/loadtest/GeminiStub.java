@@ -0,0 +1,108 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gemini API 스텁 (google-genai SDK가 호출하는 경로)
+ * - POST /v1beta/models/{model}:generateContent        이미지가 있으면 OCR, 없으면 프롬프트에 따라 양식 분석 / 채우기 응답
+ * - POST /v1beta/models/{model}:streamGenerateContent  같은 응답을 SSE 조각으로
+ */
+final class GeminiStub extends LlmStub {
+
+    private static final Pattern GENERATE = Pattern.compile("/v1beta/models/([^/:]+):(generateContent|streamGenerateContent)");
+
+    GeminiStub(ObjectMapper objectMapper, CannedResponses canned, LatencyProfile latency, FaultProfile faults,
+        long streamChunkDelayMillis) {
+        super("gemini", objectMapper, canned, latency, faults, streamChunkDelayMillis);
+    }
+
+    @Override
+    protected void route(HttpExchange exchange, JsonNode request) throws IOException, InterruptedException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+
+        Matcher generate = GENERATE.matcher(path);
+        if ("POST".equals(method) && generate.matches()) {
+            String model = generate.group(1);
+            String prompt = promptText(request);
+            String text = hasImage(request) ? canned.ocrText() : canned.textFor(prompt);
+            if ("streamGenerateContent".equals(generate.group(2))) {
+                List<String> events = new ArrayList<>();
+                for (String chunk : chunks(text, 40)) {
+                    events.add(response(model, chunk, null, null).toString());
+                }
+                events.add(response(model, "", prompt, text).toString());
+                writeSse(exchange, events);
+            } else {
+                writeJson(exchange, 200, response(model, text, prompt, text));
+            }
+            return;
+        }
+
+        notFound(exchange);
+    }
+
+    @Override
+    protected Object errorBody(int status) {
+        ObjectNode body = objectMapper.createObjectNode();
+        ObjectNode error = body.putObject("error");
+        error.put("code", status);
+        error.put("message", status == 429 ? "Resource has been exhausted (stub throttle burst)." : "stub error");
+        error.put("status", switch (status) {
+            case 429 -> "RESOURCE_EXHAUSTED";
+            case 404 -> "NOT_FOUND";
+            default -> "INTERNAL";
+        });
+        return body;
+    }
+
+    // prompt가 null이면 스트리밍 중간 조각 (usageMetadata, finishReason 없음)
+    private ObjectNode response(String model, String text, String prompt, String fullText) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode candidate = response.putArray("candidates").addObject();
+        ObjectNode content = candidate.putObject("content");
+        content.put("role", "model");
+        content.putArray("parts").addObject().put("text", text);
+        candidate.put("index", 0);
+        if (prompt != null) {
+            candidate.put("finishReason", "STOP");
+            ObjectNode usage = response.putObject("usageMetadata");
+            usage.put("promptTokenCount", tokens(prompt));
+            usage.put("candidatesTokenCount", tokens(fullText));
+            usage.put("totalTokenCount", tokens(prompt) + tokens(fullText));
+        }
+        response.put("modelVersion", model);
+        return response;
+    }
+
+    private static String promptText(JsonNode request) {
+        StringBuilder text = new StringBuilder();
+        for (JsonNode content : request.path("contents")) {
+            for (JsonNode part : content.path("parts")) {
+                if (part.has("text")) {
+                    text.append(part.get("text").asText()).append('\n');
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    private static boolean hasImage(JsonNode request) {
+        for (JsonNode content : request.path("contents")) {
+            for (JsonNode part : content.path("parts")) {
+                if (part.has("inlineData")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 스텁 응답 지연 분포
+ * - fixed:800            항상 800 ms
+ * - uniform:500:1500     500 ~ 1500 ms 균등 분포
+ * - lognormal:1200:6000  중앙값 1200 ms, p99 6000 ms인 로그 정규 분포 (LLM 응답처럼 꼬리가 긴 분포)
+ */
+public record LatencyProfile(Kind kind, long first, long second) {
+
+    // 표준 정규 분포의 99번째 백분위 z 값
+    private static final double Z_99 = 2.3263;
+
+    public enum Kind {
+        FIXED, UNIFORM, LOGNORMAL
+    }
+
+    public static LatencyProfile parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        Kind kind = Kind.valueOf(parts[0].toUpperCase());
+        long first = parts.length > 1 ? Long.parseLong(parts[1]) : 0;
+        long second = parts.length > 2 ? Long.parseLong(parts[2]) : first;
+        if (first < 0 || second < first) {
+            throw new IllegalArgumentException("잘못된 지연 분포: " + spec);
+        }
+        return new LatencyProfile(kind, first, second);
+    }
+
+    public long sampleMillis() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (kind) {
+            case FIXED -> first;
+            case UNIFORM -> first == second ? first : random.nextLong(first, second + 1);
+            case LOGNORMAL -> {
+                if (first == 0) {
+                    yield 0;
+                }
+                double sigma = Math.log((double) second / first) / Z_99;
+                yield Math.round(first * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return kind.name().toLowerCase() + ":" + first + ":" + second;
+    }
+}
@@ -0,0 +1,71 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 시나리오별 응답 시간과 결과 집계
+ * - latency: 예정 전송 시각부터 응답 완료까지 (밀린 요청의 대기 시간 포함 - coordinated omission 보정)
+ * - service: 실제 전송 시각부터 응답 완료까지
+ */
+final class LatencyRecorder {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final List<Long> latencies = new ArrayList<>();
+    private final List<Long> serviceTimes = new ArrayList<>();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder succeeded = new LongAdder();
+
+    void record(String outcome, boolean success, long latencyNanos, long serviceNanos) {
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        if (success) {
+            succeeded.increment();
+        }
+        synchronized (this) {
+            latencies.add(latencyNanos);
+            serviceTimes.add(serviceNanos);
+        }
+    }
+
+    synchronized Map<String, Object> report(double measuredSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", latencies.size());
+        report.put("succeeded", succeeded.sum());
+        report.put("throughputPerSecond", round(succeeded.sum() / measuredSeconds));
+        Map<String, Long> outcomeCounts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> outcomeCounts.put(outcome, count.sum()));
+        report.put("outcomes", outcomeCounts);
+        report.put("latencyMs", percentiles(latencies));
+        report.put("serviceTimeMs", percentiles(serviceTimes));
+        return report;
+    }
+
+    private static Map<String, Double> percentiles(List<Long> samples) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        if (samples.isEmpty()) {
+            return result;
+        }
+        long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        for (double percentile : PERCENTILES) {
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            result.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                : String.valueOf(percentile)), millis(sorted[Math.max(0, index)]));
+        }
+        result.put("max", millis(sorted[sorted.length - 1]));
+        return result;
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
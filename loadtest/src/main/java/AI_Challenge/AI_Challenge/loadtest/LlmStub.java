@@ -0,0 +1,121 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * 공급자 스텁 공통 처리 - 지연 분포만큼 기다린 뒤 오류 주입 여부를 정하고, 정상이면 공급자 형식 응답을 쓴다
+ */
+abstract class LlmStub implements HttpHandler {
+
+    protected final ObjectMapper objectMapper;
+    protected final CannedResponses canned;
+    private final String name;
+    private final LatencyProfile latency;
+    private final FaultProfile faults;
+    private final long streamChunkDelayMillis;
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    // 보고용 - 상태 코드별 응답 수
+    private final Map<Integer, LongAdder> responses = new ConcurrentHashMap<>();
+
+    LlmStub(String name, ObjectMapper objectMapper, CannedResponses canned, LatencyProfile latency,
+        FaultProfile faults, long streamChunkDelayMillis) {
+        this.name = name;
+        this.objectMapper = objectMapper;
+        this.canned = canned;
+        this.latency = latency;
+        this.faults = faults;
+        this.streamChunkDelayMillis = streamChunkDelayMillis;
+    }
+
+    @Override
+    public final void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            Thread.sleep(latency.sampleMillis());
+
+            int failure = faults.nextFailure(startedAtMillis);
+            if (failure != FaultProfile.NONE) {
+                if (failure == 429) {
+                    exchange.getResponseHeaders().set("Retry-After", String.valueOf(faults.retryAfterSeconds()));
+                }
+                writeJson(exchange, failure, errorBody(failure));
+                return;
+            }
+            JsonNode request = body.length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(body);
+            route(exchange, request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            writeJson(exchange, 500, errorBody(500));
+        }
+    }
+
+    protected abstract void route(HttpExchange exchange, JsonNode request) throws IOException, InterruptedException;
+
+    protected abstract Object errorBody(int status);
+
+    protected void writeJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        count(status);
+    }
+
+    // SSE - 이벤트마다 "data: ..." 한 줄, 토큰 스트리밍처럼 이벤트 사이에 간격을 둔다
+    protected void writeSse(HttpExchange exchange, List<String> events) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (String event : events) {
+                out.write(("data: " + event + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (streamChunkDelayMillis > 0) {
+                    Thread.sleep(streamChunkDelayMillis);
+                }
+            }
+        }
+        count(200);
+    }
+
+    protected void notFound(HttpExchange exchange) throws IOException {
+        writeJson(exchange, 404, errorBody(404));
+    }
+
+    // 스트리밍 응답용으로 텍스트를 고정 길이 조각으로 나눈다
+    protected static List<String> chunks(String text, int size) {
+        return IntStream.iterate(0, i -> i < text.length(), i -> i + size)
+            .mapToObj(i -> text.substring(i, Math.min(text.length(), i + size)))
+            .toList();
+    }
+
+    // 토큰 수 대략치 (usage 필드용)
+    protected static int tokens(String text) {
+        return Math.max(1, text.length() / 2);
+    }
+
+    private void count(int status) {
+        responses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    String summary() {
+        Map<Integer, Long> snapshot = new TreeMap<>();
+        responses.forEach((status, count) -> snapshot.put(status, count.sum()));
+        return name + " " + snapshot + " (지연 " + latency + ", " + faults + ")";
+    }
+}
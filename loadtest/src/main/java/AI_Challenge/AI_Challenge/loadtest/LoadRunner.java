@@ -0,0 +1,265 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.imageio.ImageIO;
+
+/**
+ * 개방형(open-loop) 부하 발생기 - 응답을 기다리지 않고 목표 RPS 간격으로 요청을 보낸다
+ * 응답이 느려져도 전송 속도가 줄지 않으므로, 밀린 요청의 대기 시간까지 지연 시간에 포함된다.
+ *
+ * 인자 (key=value):
+ * - base-url: 애플리케이션 주소 (기본 http://localhost:8080)
+ * - scenario: upload | ocr | create-and-download | mixed (기본 mixed)
+ * - mix: mixed 비율 upload:ocr:create-and-download (기본 1:3:2)
+ * - rps(기본 2), duration-seconds(기본 60), warmup-seconds(기본 10) - 워밍업 요청은 집계하지 않음
+ * - template: 업로드할 양식 (기본 src/test/resources/docx-golden/travel-expense.docx)
+ * - document-id: create-and-download에 쓸 문서 ID (없으면 시작 전에 template을 한 번 업로드)
+ * - images-per-request(기본 2), timeout-seconds(기본 300)
+ * - report: JSON 보고서 경로 (선택)
+ */
+public final class LoadRunner {
+
+    private enum Scenario {
+        UPLOAD, OCR, CREATE_AND_DOWNLOAD
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final AtomicLong imageSequence = new AtomicLong();
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final byte[] template;
+    private final String receiptText;
+    private final int imagesPerRequest;
+    private long documentId;
+
+    private LoadRunner(Arguments arguments) throws IOException {
+        this.baseUrl = arguments.get("base-url", "http://localhost:8080").replaceAll("/+$", "");
+        this.timeout = Duration.ofSeconds(arguments.getLong("timeout-seconds", 300));
+        this.template = Files.readAllBytes(Path.of(arguments.get("template",
+            "src/test/resources/docx-golden/travel-expense.docx")));
+        this.receiptText = CannedResponses.resource("stub/receipt-ocr.md");
+        this.imagesPerRequest = arguments.getInt("images-per-request", 2);
+        this.documentId = arguments.getLong("document-id", -1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Arguments arguments = new Arguments(args);
+        LoadRunner runner = new LoadRunner(arguments);
+
+        List<Scenario> schedule = schedule(arguments.get("scenario", "mixed"), arguments.get("mix", "1:3:2"));
+        if (schedule.contains(Scenario.CREATE_AND_DOWNLOAD) && runner.documentId < 0) {
+            runner.documentId = runner.uploadTemplate();
+            System.out.println("양식 업로드 완료 - 문서 ID " + runner.documentId);
+        }
+
+        Map<String, Object> report = runner.run(schedule, arguments.getDouble("rps", 2),
+            arguments.getLong("warmup-seconds", 10), arguments.getLong("duration-seconds", 60));
+        String json = runner.objectMapper.writeValueAsString(report);
+        System.out.println(json);
+
+        String reportPath = arguments.get("report", "");
+        if (!reportPath.isBlank()) {
+            Path path = Path.of(reportPath);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, json);
+            System.out.println("보고서: " + path.toAbsolutePath());
+        }
+    }
+
+    // 요청 순서 - mixed면 비율만큼 시나리오를 반복 배열에 넣고 돌아가며 사용한다
+    private static List<Scenario> schedule(String scenario, String mix) {
+        if (!"mixed".equals(scenario)) {
+            return List.of(Scenario.valueOf(scenario.toUpperCase().replace('-', '_')));
+        }
+        String[] weights = mix.split(":");
+        List<Scenario> schedule = new ArrayList<>();
+        for (int i = 0; i < Scenario.values().length; i++) {
+            int weight = i < weights.length ? Integer.parseInt(weights[i]) : 0;
+            for (int j = 0; j < weight; j++) {
+                schedule.add(Scenario.values()[i]);
+            }
+        }
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("mix 비율이 모두 0입니다: " + mix);
+        }
+        return schedule;
+    }
+
+    private Map<String, Object> run(List<Scenario> schedule, double rps, long warmupSeconds, long durationSeconds)
+        throws InterruptedException {
+        Map<Scenario, LatencyRecorder> recorders = new EnumMap<>(Scenario.class);
+        for (Scenario scenario : schedule) {
+            recorders.putIfAbsent(scenario, new LatencyRecorder());
+        }
+
+        long intervalNanos = (long) (1_000_000_000L / rps);
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long endAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        System.out.printf("부하 시작 - %.1f RPS, 워밍업 %d초, 측정 %d초, 시나리오 %s%n",
+            rps, warmupSeconds, durationSeconds, recorders.keySet());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intendedAt = startedAt + i * intervalNanos;
+                if (intendedAt >= endAt) {
+                    break;
+                }
+                long wait = intendedAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Scenario scenario = schedule.get((int) (i % schedule.size()));
+                LatencyRecorder recorder = intendedAt >= measureFrom ? recorders.get(scenario) : null;
+                executor.submit(() -> execute(scenario, intendedAt, recorder));
+            }
+            // try-with-resources가 남은 요청이 끝날 때까지 기다린다
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", baseUrl);
+        report.put("targetRps", rps);
+        report.put("durationSeconds", durationSeconds);
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        recorders.forEach((scenario, recorder) ->
+            scenarios.put(scenario.name().toLowerCase().replace('_', '-'), recorder.report(durationSeconds)));
+        report.put("scenarios", scenarios);
+        return report;
+    }
+
+    private void execute(Scenario scenario, long intendedAt, LatencyRecorder recorder) {
+        long sentAt = System.nanoTime();
+        String outcome;
+        boolean success;
+        try {
+            int status = switch (scenario) {
+                case UPLOAD -> send(uploadRequest());
+                case OCR -> send(ocrRequest());
+                case CREATE_AND_DOWNLOAD -> send(createAndDownloadRequest());
+            };
+            outcome = String.valueOf(status);
+            success = status == 200;
+        } catch (Exception e) {
+            outcome = e.getClass().getSimpleName();
+            success = false;
+        }
+        long finishedAt = System.nanoTime();
+        if (recorder != null) {
+            recorder.record(outcome, success, finishedAt - intendedAt, finishedAt - sentAt);
+        }
+    }
+
+    // 응답 본문(ZIP 포함)을 끝까지 읽어야 전체 다운로드 시간이 측정된다
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        return response.statusCode();
+    }
+
+    private long uploadTemplate() throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(uploadRequest(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("양식 업로드 실패: " + response.statusCode() + " " + response.body());
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.path("id").asLong();
+    }
+
+    // 같은 이름의 문서는 업로드가 거절되므로 요청마다 다른 파일 이름을 쓴다
+    private HttpRequest uploadRequest() {
+        MultipartBody body = new MultipartBody()
+            .file("file", "travel-expense-" + UUID.randomUUID() + ".docx",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document", template);
+        return multipart("/api/document/upload", body);
+    }
+
+    private HttpRequest ocrRequest() {
+        MultipartBody body = new MultipartBody();
+        for (int i = 0; i < imagesPerRequest; i++) {
+            body.file("images", "receipt-" + i + ".png", "image/png", receiptImage());
+        }
+        return multipart("/api/gemini/generate/images", body);
+    }
+
+    // 작업 엔진(DocumentJobService)을 거쳐 결과 DOCX를 바로 받는 경로
+    private HttpRequest createAndDownloadRequest() {
+        MultipartBody body = new MultipartBody()
+            .field("extractedText", receiptText)
+            .field("documentId", String.valueOf(documentId));
+        return multipart("/api/document/create-and-download", body);
+    }
+
+    private HttpRequest multipart(String path, MultipartBody body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(timeout)
+            .header("Content-Type", body.contentType())
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body.build()))
+            .build();
+    }
+
+    // 요청마다 다른 영수증 이미지 - 같은 바이트면 OCR 캐시에 적중해 스텁까지 가지 않는다
+    private byte[] receiptImage() {
+        BufferedImage image = new BufferedImage(480, 640, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.setColor(Color.BLACK);
+            graphics.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 14));
+            int y = 30;
+            for (String line : receiptText.split("\n")) {
+                graphics.drawString(line, 20, y);
+                y += 18;
+            }
+            graphics.drawString("#" + imageSequence.incrementAndGet(), 20, image.getHeight() - 20);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
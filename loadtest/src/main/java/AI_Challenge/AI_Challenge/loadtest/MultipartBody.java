@@ -0,0 +1,43 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * multipart/form-data 요청 본문 (JDK HttpClient에는 multipart 지원이 없다)
+ */
+final class MultipartBody {
+
+    private final String boundary = "loadtest-" + UUID.randomUUID();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    MultipartBody field(String name, String value) {
+        write("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+            + value + "\r\n");
+        return this;
+    }
+
+    MultipartBody file(String field, String fileName, String contentType, byte[] content) {
+        write("--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + fileName + "\"\r\n"
+            + "Content-Type: " + contentType + "\r\n\r\n");
+        body.writeBytes(content);
+        write("\r\n");
+        return this;
+    }
+
+    String contentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    byte[] build() {
+        write("--" + boundary + "--\r\n");
+        return body.toByteArray();
+    }
+
+    private void write(String text) {
+        body.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,94 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * OpenAI chat completions 스텁
+ * - POST /v1/chat/completions  프롬프트의 입력 JSON 키를 여비정산 값으로 채운 JSON (양식 분석 프롬프트면 스키마)
+ * - "function_call"이 있으면 같은 JSON을 함수 호출 인자로 돌려준다 (구조화 출력)
+ * - "stream": true이면 chat.completion.chunk SSE 후 [DONE]
+ */
+final class OpenAiStub extends LlmStub {
+
+    OpenAiStub(ObjectMapper objectMapper, CannedResponses canned, LatencyProfile latency, FaultProfile faults,
+        long streamChunkDelayMillis) {
+        super("openai", objectMapper, canned, latency, faults, streamChunkDelayMillis);
+    }
+
+    @Override
+    protected void route(HttpExchange exchange, JsonNode request) throws IOException, InterruptedException {
+        if (!"POST".equals(exchange.getRequestMethod())
+            || !"/v1/chat/completions".equals(exchange.getRequestURI().getPath())) {
+            notFound(exchange);
+            return;
+        }
+
+        StringBuilder prompt = new StringBuilder();
+        for (JsonNode message : request.path("messages")) {
+            prompt.append(message.path("content").asText()).append('\n');
+        }
+        String model = request.path("model").asText("gpt-4.1");
+        String content = canned.textFor(prompt.toString());
+        String id = "chatcmpl-stub-" + UUID.randomUUID();
+
+        if (request.path("stream").asBoolean(false)) {
+            List<String> events = new ArrayList<>();
+            for (String chunk : chunks(content, 20)) {
+                events.add(completion(id, model, "chat.completion.chunk", "delta", chunk, null).toString());
+            }
+            events.add(completion(id, model, "chat.completion.chunk", "delta", "", "stop").toString());
+            events.add("[DONE]");
+            writeSse(exchange, events);
+            return;
+        }
+
+        ObjectNode response = completion(id, model, "chat.completion", "message", content, "stop");
+        if (request.hasNonNull("function_call")) {
+            ObjectNode choice = (ObjectNode) response.path("choices").get(0);
+            ObjectNode message = (ObjectNode) choice.get("message");
+            message.putNull("content");
+            ObjectNode functionCall = message.putObject("function_call");
+            functionCall.put("name", request.path("function_call").path("name").asText());
+            functionCall.put("arguments", content);
+            choice.put("finish_reason", "function_call");
+        }
+        ObjectNode usage = response.putObject("usage");
+        usage.put("prompt_tokens", tokens(prompt.toString()));
+        usage.put("completion_tokens", tokens(content));
+        usage.put("total_tokens", tokens(prompt.toString()) + tokens(content));
+        writeJson(exchange, 200, response);
+    }
+
+    @Override
+    protected Object errorBody(int status) {
+        ObjectNode body = objectMapper.createObjectNode();
+        ObjectNode error = body.putObject("error");
+        error.put("message", status == 429 ? "Rate limit reached (stub throttle burst)." : "stub error");
+        error.put("type", status == 429 ? "requests" : "server_error");
+        error.put("code", status == 429 ? "rate_limit_exceeded" : null);
+        return body;
+    }
+
+    private ObjectNode completion(String id, String model, String object, String messageField, String content,
+        String finishReason) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", id);
+        response.put("object", object);
+        response.put("created", System.currentTimeMillis() / 1000);
+        response.put("model", model);
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode message = choice.putObject(messageField);
+        message.put("role", "assistant");
+        message.put("content", content);
+        choice.put("finish_reason", finishReason);
+        return response;
+    }
+}
@@ -0,0 +1,98 @@
+package AI_Challenge.AI_Challenge.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gemini/OpenAI 스텁 서버 실행 (실제 API 할당량을 쓰지 않는 부하 테스트용)
+ * 애플리케이션은 loadtest 프로필(application-loadtest.yml)로 띄우면 스텁 주소를 사용한다.
+ *
+ * 인자 (key=value):
+ * - profile: fast | realistic(기본) | degraded - 아래 값들의 기본값 묶음
+ * - gemini.port(18081), openai.port(18082)
+ * - {gemini|openai}.latency: fixed:ms | uniform:min:max | lognormal:median:p99
+ * - {gemini|openai}.error-rate: 500 응답 비율 (0 ~ 1)
+ * - {gemini|openai}.throttle: 주기초:지속초 - 주기마다 처음 지속초 동안 429 (예: 60:10)
+ * - {gemini|openai}.retry-after-seconds: 429 응답의 Retry-After (기본 2)
+ * - stream-chunk-delay-ms: 스트리밍 조각 사이 간격 (기본 30)
+ */
+public final class StubServers {
+
+    private static final Map<String, Map<String, String>> PROFILES = Map.of(
+        "fast", Map.of(
+            "gemini.latency", "fixed:50",
+            "openai.latency", "fixed:50"),
+        "realistic", Map.of(
+            "gemini.latency", "lognormal:1200:6000",
+            "openai.latency", "lognormal:2500:12000",
+            "gemini.error-rate", "0.01",
+            "openai.error-rate", "0.01"),
+        "degraded", Map.of(
+            "gemini.latency", "lognormal:3000:20000",
+            "openai.latency", "lognormal:6000:30000",
+            "gemini.error-rate", "0.05",
+            "openai.error-rate", "0.05",
+            "gemini.throttle", "60:10",
+            "openai.throttle", "90:5"));
+
+    private StubServers() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Arguments arguments = new Arguments(args);
+        String profile = arguments.get("profile", "realistic");
+        Map<String, String> defaults = PROFILES.get(profile);
+        if (defaults == null) {
+            throw new IllegalArgumentException("알 수 없는 프로필: " + profile + " (fast | realistic | degraded)");
+        }
+        defaults.forEach(arguments::putDefault);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        CannedResponses canned = new CannedResponses(objectMapper);
+        long chunkDelay = arguments.getLong("stream-chunk-delay-ms", 30);
+
+        GeminiStub gemini = new GeminiStub(objectMapper, canned, latency(arguments, "gemini"),
+            faults(arguments, "gemini"), chunkDelay);
+        OpenAiStub openAi = new OpenAiStub(objectMapper, canned, latency(arguments, "openai"),
+            faults(arguments, "openai"), chunkDelay);
+
+        start(arguments.getInt("gemini.port", 18081), gemini);
+        start(arguments.getInt("openai.port", 18082), openAi);
+        System.out.printf("스텁 서버 시작 (프로필 %s) - gemini :%d, openai :%d%n", profile,
+            arguments.getInt("gemini.port", 18081), arguments.getInt("openai.port", 18082));
+
+        // 10초마다 상태 코드별 응답 수 출력
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> {
+            System.out.println(gemini.summary());
+            System.out.println(openAi.summary());
+        }, 10, 10, TimeUnit.SECONDS);
+    }
+
+    private static void start(int port, LlmStub stub) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 512);
+        server.createContext("/", stub);
+        // 지연 시간 동안 잠자는 요청이 많으므로 요청마다 가상 스레드
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    private static LatencyProfile latency(Arguments arguments, String provider) {
+        return LatencyProfile.parse(arguments.get(provider + ".latency", "fixed:0"));
+    }
+
+    private static FaultProfile faults(Arguments arguments, String provider) {
+        String[] throttle = arguments.get(provider + ".throttle", "0:0").split(":");
+        return new FaultProfile(
+            arguments.getDouble(provider + ".error-rate", 0.0),
+            Long.parseLong(throttle[0]),
+            throttle.length > 1 ? Long.parseLong(throttle[1]) : 0,
+            arguments.getLong(provider + ".retry-after-seconds", 2));
+    }
+}
@@ -2,8 +2,10 @@ package AI_Challenge.AI_Challenge;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AiChallengeApplication {
 
 	public static void main(String[] args) {
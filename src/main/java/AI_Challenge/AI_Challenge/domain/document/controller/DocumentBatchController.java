@@ -0,0 +1,75 @@
+package AI_Challenge.AI_Challenge.domain.document.controller;
+
+import AI_Challenge.AI_Challenge.domain.document.dto.BatchFillRequestDTO;
+import AI_Challenge.AI_Challenge.domain.document.service.DocumentBatchService;
+import AI_Challenge.AI_Challenge.domain.document.service.DocumentService.PreparedTemplate;
+import AI_Challenge.AI_Challenge.global.common.BulkheadFullException;
+import AI_Challenge.AI_Challenge.global.common.MemoryBudgetExceededException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 한 템플릿 + 여러 영수증 텍스트를 한 번에 채워 ZIP으로 내려주는 배치 API
+ */
+@RestController
+@RequestMapping("/api/document/batch")
+@Slf4j
+public class DocumentBatchController {
+
+    private final DocumentBatchService documentBatchService;
+
+    @Autowired
+    public DocumentBatchController(DocumentBatchService documentBatchService) {
+        this.documentBatchService = documentBatchService;
+    }
+
+    // 요청 본문: { "documentId": 1, "extractedTexts": ["...", "..."] }
+    @PostMapping("/create-and-download")
+    public ResponseEntity<?> createAndDownload(@RequestBody BatchFillRequestDTO request) {
+        PreparedTemplate template;
+        try {
+            // 템플릿 준비(스키마 추출)는 스트리밍 전에 끝내 오류를 JSON으로 응답
+            template = documentBatchService.prepare(request.getDocumentId(), request.getExtractedTexts());
+        } catch (IllegalArgumentException e) {
+            return errorResponse(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            MemoryBudgetExceededException.rethrowIfPresent(e);
+            BulkheadFullException.rethrowIfPresent(e);
+            log.error("배치 채우기 준비 중 오류 발생", e);
+            return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+
+        List<String> extractedTexts = request.getExtractedTexts();
+        StreamingResponseBody body = out -> documentBatchService.writeZip(template, extractedTexts, out);
+
+        String filename = "batch_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".zip";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/zip"));
+        headers.setContentDisposition(ContentDisposition.builder("attachment")
+            .filename(filename, StandardCharsets.UTF_8)
+            .build());
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(HttpStatus status, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", message);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
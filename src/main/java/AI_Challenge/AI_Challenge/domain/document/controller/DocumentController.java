@@ -1,44 +1,62 @@
 package AI_Challenge.AI_Challenge.domain.document.controller;
 
+import AI_Challenge.AI_Challenge.domain.document.dto.DocumentSummary;
 import AI_Challenge.AI_Challenge.domain.document.entity.Document;
+import AI_Challenge.AI_Challenge.domain.document.service.DocumentJobService;
 import AI_Challenge.AI_Challenge.domain.document.service.DocumentService;
-import com.theokanning.openai.service.OpenAiService;
+import AI_Challenge.AI_Challenge.domain.document.service.DocumentService.DocumentPage;
+import AI_Challenge.AI_Challenge.domain.document.service.DocumentService.FilledTemplate;
+import AI_Challenge.AI_Challenge.domain.document.service.FillProgressListener;
+import AI_Challenge.AI_Challenge.global.common.FileDownloadResponder;
+import AI_Challenge.AI_Challenge.global.common.BulkheadFullException;
+import AI_Challenge.AI_Challenge.global.common.MemoryBudgetExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/document")
 @Slf4j
 public class DocumentController {
 
+    private static final String DOCX_CONTENT_TYPE =
+        "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+    private static final String RESULT_FILE_NAME = "processed_document.docx";
+
     private final DocumentService documentService;
-    private final OpenAiService openAiService;
+    private final DocumentJobService documentJobService;
+    private final FileDownloadResponder fileDownloadResponder;
 
     @Autowired
-    public DocumentController(DocumentService documentService, @Value("${openai.api.key}") String apiKey) {
-        this.openAiService = new OpenAiService(apiKey);
+    public DocumentController(DocumentService documentService, DocumentJobService documentJobService,
+        FileDownloadResponder fileDownloadResponder) {
         this.documentService = documentService;
+        this.documentJobService = documentJobService;
+        this.fileDownloadResponder = fileDownloadResponder;
     }
 
-    // 문서 업로드 - document-upload 폴더에 저장
+    // 문서 업로드 - 내용 주소 저장소에 저장하고 DB에는 해시만 기록
     @PostMapping("/upload")
     public ResponseEntity<Map<String, Object>> uploadDocument(@RequestParam("file") MultipartFile file) {
         try {
@@ -50,9 +68,11 @@ public class DocumentController {
             response.put("uploadDateTime", document.getUploadDateTime());
             response.put("message", "업로드 성공");
 
-            log.info("문서 업로드 성공: {} -> document-upload 폴더", document.getFileName());
+            log.info("문서 업로드 성공: {} -> {}", document.getFileName(), document.getContentHash());
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            MemoryBudgetExceededException.rethrowIfPresent(e);
+            BulkheadFullException.rethrowIfPresent(e);
             log.error("문서 업로드 중 오류 발생", e);
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -60,21 +80,50 @@ public class DocumentController {
         }
     }
 
-    // 모든 문서 조회
+    // 문서 목록 조회 - 메타데이터만 키셋 페이지네이션 (다음 페이지는 nextCursor를 afterId로 전달)
     @GetMapping("/list")
-    public ResponseEntity<List<Document>> getAllDocuments() {
+    public ResponseEntity<Map<String, Object>> getDocuments(
+        @RequestParam(value = "afterId", required = false) Long afterId,
+        @RequestParam(value = "size", defaultValue = "50") int size) {
         try {
-            List<Document> documents = documentService.getAllDocuments();
-            return ResponseEntity.ok(documents);
+            DocumentPage page = documentService.getDocumentSummaries(afterId, size);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("items", page.items());
+            response.put("nextCursor", page.nextCursor());
+            return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("문서 목록 조회 중 오류 발생", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // 원본 문서 다운로드 - DB 내용을 JDBC 스트림으로 바로 응답에 복사
+    @GetMapping("/{documentId}/content")
+    public ResponseEntity<StreamingResponseBody> downloadDocument(@PathVariable("documentId") Long documentId) {
+        Optional<DocumentSummary> summary = documentService.getDocumentSummary(documentId);
+        if (summary.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDisposition(ContentDisposition.builder("attachment")
+            .filename(summary.get().fileName(), StandardCharsets.UTF_8)
+            .build());
+        if (summary.get().size() != null) {
+            headers.setContentLength(summary.get().size());
+        }
+
+        StreamingResponseBody body = out -> documentService.copyDocumentContent(documentId, out);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
     // 문서 처리 - document-result 폴더에 저장하고 다운로드 제공
     @PostMapping("/process-and-download")
-    public ResponseEntity<byte[]> processAndDownloadDocument(@RequestBody Map<String, Object> request) {
+    public void processAndDownloadDocument(@RequestBody Map<String, Object> request,
+        HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+        String resultFileName;
         try {
             Long documentId = Long.valueOf(request.get("documentId").toString());
             String originalFileName = request.get("fileName").toString();
@@ -83,31 +132,30 @@ public class DocumentController {
             log.info("문서 처리 시작: {} (ID: {})", originalFileName, documentId);
 
             // 문서 처리 및 결과 파일 저장
-            String resultFileName = documentService.processAndSaveDocument(documentId, originalFileName);
-
-            // 저장된 결과 파일 읽어서 바이트 배열로 반환
-            byte[] processedContent = documentService.getProcessedDocumentBytes(resultFileName);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDisposition(ContentDisposition.builder("attachment")
-                .filename(resultFileName)
-                .build());
-
+            resultFileName = documentService.processAndSaveDocument(documentId, originalFileName);
             log.info("문서 처리 완료: {} -> document-result/{}", originalFileName, resultFileName);
-            return new ResponseEntity<>(processedContent, headers, HttpStatus.OK);
-
         } catch (Exception e) {
+            BulkheadFullException.rethrowIfPresent(e);
             log.error("문서 처리 중 오류 발생", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            httpResponse.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return;
         }
+
+        // 저장된 결과 파일을 힙에 올리지 않고 그대로 전송
+        sendProcessedDocument(resultFileName, httpRequest, httpResponse);
     }
 
     // 처리된 문서 목록 조회 (document-result 폴더의 파일들)
+    // sort: lastModified(기본) | name | size, order: desc(기본) | asc, prefix: 파일 이름 접두사
     @GetMapping("/processed-list")
-    public ResponseEntity<List<Map<String, Object>>> getProcessedDocuments() {
+    public ResponseEntity<Map<String, Object>> getProcessedDocuments(
+        @RequestParam(value = "sort", defaultValue = "lastModified") String sort,
+        @RequestParam(value = "order", defaultValue = "desc") String order,
+        @RequestParam(value = "prefix", required = false) String prefix,
+        @RequestParam(value = "page", defaultValue = "0") int page,
+        @RequestParam(value = "size", defaultValue = "50") int size) {
         try {
-            List<Map<String, Object>> processedDocs = documentService.getProcessedDocumentsList();
+            Map<String, Object> processedDocs = documentService.getProcessedDocumentsList(sort, order, prefix, page, size);
             return ResponseEntity.ok(processedDocs);
         } catch (Exception e) {
             log.error("처리된 문서 목록 조회 중 오류 발생", e);
@@ -117,62 +165,103 @@ public class DocumentController {
 
     // 처리된 문서 다운로드 (document-result 폴더에서)
     @PostMapping("/download-processed")
-    public ResponseEntity<byte[]> downloadProcessedDocument(@RequestBody Map<String, String> request) {
-        try {
-            String fileName = request.get("fileName");
-            byte[] fileContent = documentService.getProcessedDocumentBytes(fileName);
+    public void downloadProcessedDocument(@RequestBody Map<String, String> request,
+        HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+        sendProcessedDocument(request.get("fileName"), httpRequest, httpResponse);
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDisposition(ContentDisposition.builder("attachment")
-                .filename(fileName)
-                .build());
+    // 처리된 문서 다운로드 (GET) - 브라우저 캐시(If-None-Match)와 이어받기(Range)를 그대로 사용할 수 있다
+    @GetMapping("/processed/{fileName}")
+    public void getProcessedDocument(@PathVariable("fileName") String fileName,
+        HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+        sendProcessedDocument(fileName, httpRequest, httpResponse);
+    }
 
-            log.info("처리된 문서 다운로드: {}", fileName);
-            return new ResponseEntity<>(fileContent, headers, HttpStatus.OK);
+    private void sendProcessedDocument(String fileName, HttpServletRequest httpRequest,
+        HttpServletResponse httpResponse) throws IOException {
+        Optional<Path> file = documentService.findProcessedDocument(fileName);
+        if (file.isEmpty()) {
+            log.warn("처리된 문서를 찾을 수 없습니다: {}", fileName);
+            httpResponse.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
 
-        } catch (Exception e) {
-            log.error("처리된 문서 다운로드 중 오류 발생", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        try {
+            fileDownloadResponder.write(file.get(), fileName, MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                httpRequest, httpResponse);
+            log.info("처리된 문서 다운로드: {} ({})", fileName, httpResponse.getStatus());
+        } catch (IOException e) {
+            // 대부분 클라이언트가 다운로드를 중단한 경우
+            log.warn("처리된 문서 전송 중단: {} - {}", fileName, e.getMessage());
         }
     }
 
+    // 동기 호환 엔드포인트 - 작업 엔진에 제출하고 완료될 때까지 기다린다 (비동기는 /api/document/jobs 사용)
+    // 작업이 결과 파일에 바로 쓴 DOCX를 힙에 올리지 않고 그대로 전송
     @PostMapping("/create-and-download")
-    public ResponseEntity<byte[]> makeResultDocuments(@RequestParam("extractedText") String extractedText, @RequestParam("documentId") Long documentId) {
+    public void makeResultDocuments(@RequestParam("extractedText") String extractedText,
+        @RequestParam("documentId") Long documentId,
+        HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+        Path result;
         try {
-            byte[] result = documentService.fillDocxTemplateWithJson(extractedText, documentId);
-
-            // HTTP 헤더.
-            HttpHeaders headers = new HttpHeaders();
-
-            // 2. 다운로드할 파일의 종류를 설정
-            // 일반적인 바이너리 파일의 경우 MediaType.APPLICATION_OCTET_STREAM을 사용
-            headers.setContentType(MediaType.valueOf("application/vnd.openxmlformats-officedocument.wordprocessingml.document"));
-
-            // 3. 파일 이름을 설정하고, 브라우저가 다운로드하도록 지시
-            // 파일명에 한글이 포함될 경우를 대비해 UTF-8로 인코딩
-            String filename = "processed_document.docx";
-            headers.setContentDisposition(ContentDisposition.builder("attachment")
-                .filename(filename, StandardCharsets.UTF_8)
-                .build());
+            result = documentJobService.submitAndWait(extractedText, documentId);
+        } catch (Exception e) {
+            // 작업 자리/벌크헤드가 가득 찼으면 429, 문서가 메모리 한도를 넘으면 413
+            MemoryBudgetExceededException.rethrowIfPresent(e);
+            BulkheadFullException.rethrowIfPresent(e);
+            // 서비스 로직 처리 중 에러가 발생했을 경우
+            log.error("Error creating document", e);
+            httpResponse.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            return;
+        }
 
-            // 4. 최종적으로 헤더와 데이터를 담아 ResponseEntity를 반환
-            return new ResponseEntity<>(result, headers, HttpStatus.OK);
+        try {
+            fileDownloadResponder.write(result, RESULT_FILE_NAME, DOCX_CONTENT_TYPE, httpRequest, httpResponse);
+        } catch (IOException e) {
+            log.warn("생성 문서 전송 중단: {} - {}", result.getFileName(), e.getMessage());
+        }
+    }
 
+    // 작업 엔진을 거치지 않고 채운 DOCX를 응답에 바로 렌더링 (결과를 byte[]나 파일로 모으지 않음)
+    // LLM 채우기는 응답을 시작하기 전에 끝내므로 그 단계의 실패는 오류 상태 코드로 돌려준다
+    @PostMapping("/create-and-stream")
+    public ResponseEntity<StreamingResponseBody> streamResultDocument(
+        @RequestParam("extractedText") String extractedText, @RequestParam("documentId") Long documentId) {
+        FilledTemplate filled;
+        try {
+            filled = documentService.fillTemplateJson(extractedText, documentId, FillProgressListener.NONE);
         } catch (Exception e) {
-            // 서비스 로직 처리 중 에러가 발생했을 경우
+            MemoryBudgetExceededException.rethrowIfPresent(e);
+            BulkheadFullException.rethrowIfPresent(e);
             log.error("Error creating document", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf(DOCX_CONTENT_TYPE));
+        headers.setContentDisposition(ContentDisposition.builder("attachment")
+            .filename(RESULT_FILE_NAME, StandardCharsets.UTF_8)
+            .build());
+
+        StreamingResponseBody body = out -> {
+            try {
+                documentService.streamFilledTemplate(filled, out);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("문서 렌더링이 중단되었습니다.", e);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
+
     @GetMapping("/find-by-name")
     public ResponseEntity<Map<String, Long>> findDocumentByName(@RequestParam("fileName") String fileName) {
         // 서비스 계층을 호출하여 파일 이름으로 문서를 찾습니다.
-        Optional<Document> document = documentService.findDocumentByName(fileName);
+        Optional<Long> documentId = documentService.findDocumentIdByName(fileName);
 
         Map<String, Long> response = new HashMap<>();
         // 문서가 존재할 경우에만, 그 문서의 ID를 "id"라는 키에 담아 응답합니다.
-        document.ifPresent(doc -> response.put("id", doc.getId()));
+        documentId.ifPresent(id -> response.put("id", id));
 
         // ID가 있으면 { "id": 123 }, 없으면 빈 객체 {} 를 반환합니다.
         return ResponseEntity.ok(response);
@@ -0,0 +1,112 @@
+package AI_Challenge.AI_Challenge.domain.document.controller;
+
+import AI_Challenge.AI_Challenge.domain.document.entity.DocumentJob;
+import AI_Challenge.AI_Challenge.domain.document.service.DocumentJobService;
+import AI_Challenge.AI_Challenge.global.common.BulkheadFullException;
+import AI_Challenge.AI_Challenge.global.common.FileDownloadResponder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 템플릿 채우기 비동기 작업 API (제출 / 상태 조회 / 결과 다운로드 / 진행 상황 SSE)
+ */
+@RestController
+@RequestMapping("/api/document/jobs")
+@Slf4j
+public class DocumentJobController {
+
+    private static final String DOCX_CONTENT_TYPE =
+        "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    private final DocumentJobService documentJobService;
+    private final FileDownloadResponder fileDownloadResponder;
+
+    @Autowired
+    public DocumentJobController(DocumentJobService documentJobService, FileDownloadResponder fileDownloadResponder) {
+        this.documentJobService = documentJobService;
+        this.fileDownloadResponder = fileDownloadResponder;
+    }
+
+    // 작업 제출 - create-and-download와 같은 파라미터를 받고 즉시 작업 ID를 반환
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submitJob(@RequestParam("extractedText") String extractedText,
+        @RequestParam("documentId") Long documentId) {
+        try {
+            DocumentJob job = documentJobService.submit(extractedText, documentId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
+            response.put("statusUrl", "/api/document/jobs/" + job.getId());
+            response.put("resultUrl", "/api/document/jobs/" + job.getId() + "/result");
+            response.put("eventsUrl", "/api/document/jobs/" + job.getId() + "/events");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (Exception e) {
+            BulkheadFullException.rethrowIfPresent(e);
+            log.error("문서 생성 작업 제출 중 오류 발생", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    // 작업 상태 및 단계별 소요 시간 조회
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJobStatus(@PathVariable("jobId") Long jobId) {
+        try {
+            return ResponseEntity.ok(documentJobService.getJobStatus(jobId));
+        } catch (Exception e) {
+            log.error("작업 상태 조회 중 오류 발생: {}", jobId, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    // 완료된 작업 결과 다운로드 (완료 전에는 409)
+    // 결과 파일은 Range/ETag를 지원하는 파일 응답기로 힙에 올리지 않고 전송
+    @GetMapping("/{jobId}/result")
+    public void getJobResult(@PathVariable("jobId") Long jobId, HttpServletRequest request,
+        HttpServletResponse response) throws IOException {
+        Path resultPath;
+        try {
+            resultPath = documentJobService.getResultPath(jobId);
+        } catch (IllegalStateException e) {
+            response.sendError(HttpStatus.CONFLICT.value());
+            return;
+        } catch (Exception e) {
+            log.error("작업 결과 다운로드 중 오류 발생: {}", jobId, e);
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        try {
+            fileDownloadResponder.write(resultPath, "processed_document.docx", DOCX_CONTENT_TYPE, request, response);
+        } catch (NoSuchFileException e) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+        } catch (IOException e) {
+            log.warn("작업 결과 전송 중단: {} - {}", jobId, e.getMessage());
+        }
+    }
+
+    // 단계 진행 상황 구독 (event: progress)
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable("jobId") Long jobId) {
+        return documentJobService.subscribe(jobId);
+    }
+}
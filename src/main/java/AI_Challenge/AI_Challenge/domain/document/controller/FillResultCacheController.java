@@ -0,0 +1,40 @@
+package AI_Challenge.AI_Challenge.domain.document.controller;
+
+import AI_Challenge.AI_Challenge.domain.document.service.FillResultCacheService;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/document/fill-cache")
+@Slf4j
+public class FillResultCacheController {
+
+    private final FillResultCacheService fillResultCacheService;
+
+    @Autowired
+    public FillResultCacheController(FillResultCacheService fillResultCacheService) {
+        this.fillResultCacheService = fillResultCacheService;
+    }
+
+    // 캐시 적중/미스 통계 조회
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(fillResultCacheService.getStats());
+    }
+
+    // 채우기 결과 캐시 전체 무효화
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> invalidateAll() {
+        fillResultCacheService.invalidateAll();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "채우기 결과 캐시 전체 무효화 완료");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,20 +1,26 @@
 package AI_Challenge.AI_Challenge.domain.document.controller;
 
 import AI_Challenge.AI_Challenge.domain.document.service.GeminiService;
-import java.util.ArrayList;
+import AI_Challenge.AI_Challenge.domain.document.service.OcrResultCacheService;
+import AI_Challenge.AI_Challenge.global.common.BulkheadFullException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 @RestController
@@ -22,34 +28,49 @@ import org.springframework.web.multipart.MultipartFile;
 @Slf4j
 public class GeminiController {
     private final GeminiService geminiService;
+    private final OcrResultCacheService ocrResultCacheService;
+    private final long streamTimeoutMillis;
 
     @Autowired
-    public GeminiController(GeminiService geminiService) {
+    public GeminiController(GeminiService geminiService, OcrResultCacheService ocrResultCacheService,
+        @Value("${llm.stream.sse-timeout-ms:180000}") long streamTimeoutMillis) {
         this.geminiService = geminiService;
+        this.ocrResultCacheService = ocrResultCacheService;
+        this.streamTimeoutMillis = streamTimeoutMillis;
     }
 
     @PostMapping("/generate/images")
     public ResponseEntity<List<Map<String, String>>> generateResponseFromImages(
         @RequestParam("images") List<MultipartFile> images) {
         try {
-            List<Map<String, String>> responses = new ArrayList<>();
-
-            for (MultipartFile image : images) {
-                String response = geminiService.extractTextFromImageByGemini(image);
-                Map<String, String> responseMap = new HashMap<>();
-                responseMap.put("fileName", image.getOriginalFilename());
-                responseMap.put("response", response);
-                responses.add(responseMap);
-            }
+            // 이미지별 실패는 각 항목의 "error"로 반환되고, 나머지 이미지 결과는 그대로 응답한다
+            List<Map<String, String>> responses = geminiService.extractTextFromImages(images);
 
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
+            BulkheadFullException.rethrowIfPresent(e);
             log.error("이미지 처리 중 오류 발생", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(List.of(Map.of("error", "이미지 처리 실패")));
         }
 
     }
+    // 이미지 한 장의 OCR 결과를 생성되는 대로 전달 (event: token / done / error), 연결이 끊기면 Gemini 호출도 취소
+    @PostMapping(value = "/generate/image/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamResponseFromImage(@RequestParam("image") MultipartFile image) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        SseTokenStreamListener listener = new SseTokenStreamListener(emitter);
+        try {
+            Runnable cancel = geminiService.streamTextFromImage(image, listener);
+            emitter.onTimeout(cancel);
+            emitter.onError(e -> cancel.run());
+        } catch (Exception e) {
+            log.error("이미지 스트리밍 시작 중 오류 발생", e);
+            listener.onError(new RuntimeException("이미지 처리 실패", e));
+        }
+        return emitter;
+    }
+
     @PostMapping("/generate/files")
     public ResponseEntity<List<Map<String, String>>> generateResponseFromFiles(
         @RequestParam Map<String, String> request,
@@ -62,4 +83,19 @@ public class GeminiController {
         @RequestParam("markdown") String markdown) {
         return ResponseEntity.ok(geminiService.makeJsonBefore(markdown));
     }
+
+    // OCR 캐시 적중/미스 통계 조회
+    @GetMapping("/ocr-cache/stats")
+    public ResponseEntity<Map<String, Object>> getOcrCacheStats() {
+        return ResponseEntity.ok(ocrResultCacheService.getStats());
+    }
+
+    // OCR 캐시 전체 무효화 (OCR 프롬프트/모델 변경 시 사용)
+    @DeleteMapping("/ocr-cache")
+    public ResponseEntity<Map<String, Object>> invalidateOcrCache() {
+        ocrResultCacheService.invalidateAll();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "OCR 캐시 전체 무효화 완료");
+        return ResponseEntity.ok(response);
+    }
 }
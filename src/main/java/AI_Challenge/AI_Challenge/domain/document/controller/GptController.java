@@ -1,17 +1,20 @@
 package AI_Challenge.AI_Challenge.domain.document.controller;
 
 import AI_Challenge.AI_Challenge.domain.document.service.GptService;
+import AI_Challenge.AI_Challenge.global.common.BulkheadFullException;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
-
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/gpt")
@@ -19,9 +22,13 @@ import org.springframework.web.bind.annotation.RestController;
 public class GptController {
     
     private final GptService gptService;
+    private final long streamTimeoutMillis;
+
     @Autowired
-    public GptController(GptService gptService) {
+    public GptController(GptService gptService,
+        @Value("${llm.stream.sse-timeout-ms:180000}") long streamTimeoutMillis) {
         this.gptService = gptService;
+        this.streamTimeoutMillis = streamTimeoutMillis;
     }
     
     @PostMapping("/generate")
@@ -36,9 +43,26 @@ public class GptController {
 
             return ResponseEntity.ok(responseBody);
         } catch (Exception e) {
+            BulkheadFullException.rethrowIfPresent(e);
             log.error("GPT 응답 생성 중 오류 발생", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", "GPT 응답 생성 실패"));
         }
     }
+
+    // 응답 토큰을 생성되는 대로 전달 (event: token / done / error), 클라이언트 연결이 끊기면 GPT 호출도 취소
+    @PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamResponse(@RequestBody Map<String, String> request) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        SseTokenStreamListener listener = new SseTokenStreamListener(emitter);
+        try {
+            Runnable cancel = gptService.streamResponse(request.get("inputJson"), request.get("inputText"), listener);
+            emitter.onTimeout(cancel);
+            emitter.onError(e -> cancel.run());
+        } catch (Exception e) {
+            log.error("GPT 스트리밍 시작 중 오류 발생", e);
+            listener.onError(new RuntimeException("GPT 응답 생성 실패", e));
+        }
+        return emitter;
+    }
 }
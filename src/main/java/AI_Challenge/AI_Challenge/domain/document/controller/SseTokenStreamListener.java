@@ -0,0 +1,55 @@
+package AI_Challenge.AI_Challenge.domain.document.controller;
+
+import AI_Challenge.AI_Challenge.domain.document.service.TokenStreamListener;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * LLM 스트리밍 토큰을 SSE 이벤트(token / done / error)로 전달
+ * 토큰에 줄바꿈이 섞여 있어도 이벤트가 깨지지 않도록 data는 JSON 객체로 보낸다.
+ */
+@Slf4j
+class SseTokenStreamListener implements TokenStreamListener {
+
+    private final SseEmitter emitter;
+
+    SseTokenStreamListener(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public boolean onToken(String token) {
+        try {
+            emitter.send(SseEmitter.event().name("token").data(Map.of("text", token)));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트 연결이 끊긴 경우 - false를 반환해 스트림을 중단시킨다
+            log.debug("SSE 전송 실패, 스트림 중단", e);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            emitter.send(SseEmitter.event().name("done").data(Map.of()));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(Map.of("error", Objects.requireNonNullElse(error.getMessage(), "응답 생성 실패"))));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+}
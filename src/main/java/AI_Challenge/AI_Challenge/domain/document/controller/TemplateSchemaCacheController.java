@@ -0,0 +1,64 @@
+package AI_Challenge.AI_Challenge.domain.document.controller;
+
+import AI_Challenge.AI_Challenge.domain.document.service.DocumentService;
+import AI_Challenge.AI_Challenge.domain.document.service.TemplateSchemaCacheService;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/document/schema-cache")
+@Slf4j
+public class TemplateSchemaCacheController {
+
+    private final TemplateSchemaCacheService templateSchemaCacheService;
+    private final DocumentService documentService;
+
+    @Autowired
+    public TemplateSchemaCacheController(TemplateSchemaCacheService templateSchemaCacheService,
+        DocumentService documentService) {
+        this.templateSchemaCacheService = templateSchemaCacheService;
+        this.documentService = documentService;
+    }
+
+    // 캐시 적중/미스 통계 조회
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(templateSchemaCacheService.getStats());
+    }
+
+    // 특정 템플릿 문서의 스키마 캐시 무효화
+    @DeleteMapping("/{documentId}")
+    public ResponseEntity<Map<String, Object>> invalidate(@PathVariable("documentId") Long documentId) {
+        try {
+            templateSchemaCacheService.invalidate(documentService.getTemplateContentHashById(documentId));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("documentId", documentId);
+            response.put("message", "스키마 캐시 무효화 완료");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("스키마 캐시 무효화 중 오류 발생", e);
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    // 스키마 캐시 전체 무효화 (프롬프트 변경 시 사용)
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> invalidateAll() {
+        templateSchemaCacheService.invalidateAll();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "스키마 캐시 전체 무효화 완료");
+        return ResponseEntity.ok(response);
+    }
+}
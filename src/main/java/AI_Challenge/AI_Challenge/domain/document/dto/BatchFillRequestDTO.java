@@ -0,0 +1,14 @@
+package AI_Challenge.AI_Challenge.domain.document.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchFillRequestDTO {
+    private Long documentId;
+    private List<String> extractedTexts;
+}
@@ -0,0 +1,9 @@
+package AI_Challenge.AI_Challenge.domain.document.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 문서 목록용 메타데이터 (content/extractedText 없이 조회하는 JPQL 프로젝션)
+ */
+public record DocumentSummary(Long id, String fileName, String fileType, Long size, LocalDateTime uploadDateTime) {
+}
@@ -9,7 +9,7 @@ import lombok.AccessLevel;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = @Index(name = "idx_documents_content_hash", columnList = "contentHash"))
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor
@@ -26,6 +26,14 @@ public class Document {
     
     private String filePath;
 
+    // 목록 조회 시 content를 읽지 않고 크기를 보여주기 위한 바이트 수
+    private Long fileSize;
+
+    // 내용 주소 저장소(DocumentBlobStore)의 SHA-256 - 값이 있으면 content 대신 저장소 파일을 사용
+    @Column(length = 64)
+    private String contentHash;
+
+    // contentHash가 없는 이전 업로드만 DB에 내용을 가진다
     @Lob
     @Column(columnDefinition = "LONGBLOB")
     private byte[] content;
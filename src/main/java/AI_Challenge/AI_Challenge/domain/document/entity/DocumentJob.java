@@ -0,0 +1,82 @@
+package AI_Challenge.AI_Challenge.domain.document.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * 템플릿 채우기 비동기 작업 (create-and-download 작업 엔진)
+ */
+@Entity
+@Table(name = "document_jobs")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class DocumentJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long documentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private DocumentJobStatus status;
+
+    // 현재 실행 중인 단계
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private FillStage currentStage;
+
+    @Column(columnDefinition = "TEXT")
+    private String extractedText;
+
+    // document-result/jobs 아래 결과 파일명
+    private String resultFileName;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    public void start(LocalDateTime now) {
+        this.status = DocumentJobStatus.RUNNING;
+        this.startedAt = now;
+    }
+
+    public void moveTo(FillStage stage) {
+        this.currentStage = stage;
+    }
+
+    public void complete(String resultFileName, LocalDateTime now) {
+        this.status = DocumentJobStatus.COMPLETED;
+        this.currentStage = null;
+        this.resultFileName = resultFileName;
+        this.finishedAt = now;
+    }
+
+    public void fail(String errorMessage, LocalDateTime now) {
+        this.status = DocumentJobStatus.FAILED;
+        this.errorMessage = errorMessage;
+        this.finishedAt = now;
+    }
+
+    public void expireResult() {
+        this.resultFileName = null;
+    }
+
+    public boolean isFinished() {
+        return status == DocumentJobStatus.COMPLETED || status == DocumentJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,38 @@
+package AI_Challenge.AI_Challenge.domain.document.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * 작업의 단계별 실행 기록 (소요 시간, 캐시로 건너뛴 여부)
+ */
+@Entity
+@Table(name = "document_job_stages", indexes = @Index(name = "idx_document_job_stages_job_id", columnList = "jobId"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class DocumentJobStage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private FillStage stage;
+
+    private boolean skipped;
+
+    private LocalDateTime startedAt;
+
+    private Long elapsedMillis;
+}
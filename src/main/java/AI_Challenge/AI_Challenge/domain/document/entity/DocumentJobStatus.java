@@ -0,0 +1,8 @@
+package AI_Challenge.AI_Challenge.domain.document.entity;
+
+public enum DocumentJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
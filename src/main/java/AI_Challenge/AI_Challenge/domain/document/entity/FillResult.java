@@ -0,0 +1,51 @@
+package AI_Challenge.AI_Challenge.domain.document.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * GPT 채우기 결과("JSON after") 영속 캐시
+ * 키는 (스키마 해시, 정규화된 추출 텍스트 해시, 모델, 프롬프트 버전)의 SHA-256
+ */
+@Entity
+@Table(name = "fill_results", indexes = @Index(name = "idx_fill_results_schema_hash", columnList = "schemaHash"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class FillResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 64)
+    private String schemaHash;
+
+    @Column(nullable = false, length = 50)
+    private String model;
+
+    @Column(nullable = false, length = 20)
+    private String promptVersion;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String resultJson;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime lastAccessedAt;
+
+    public void refresh(String resultJson, LocalDateTime now) {
+        this.resultJson = resultJson;
+        this.createdAt = now;
+        this.lastAccessedAt = now;
+    }
+}
@@ -0,0 +1,11 @@
+package AI_Challenge.AI_Challenge.domain.document.entity;
+
+/**
+ * 템플릿 채우기 파이프라인 단계
+ */
+public enum FillStage {
+    MARKDOWN,   // DOCX -> Markdown 변환
+    SCHEMA,     // Gemini로 JSON 스키마(JSON before) 생성
+    FILL,       // GPT로 스키마 값 채우기
+    RENDER      // POI로 DOCX 렌더링
+}
@@ -0,0 +1,42 @@
+package AI_Challenge.AI_Challenge.domain.document.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * 템플릿 내용 해시별로 저장되는 "JSON before" 스키마 (Gemini 결과 영속 캐시)
+ */
+@Entity
+@Table(name = "template_schemas")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class TemplateSchema {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 템플릿 content(byte[])의 SHA-256 hex
+    @Column(unique = true, nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String schemaJson;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime lastAccessedAt;
+
+    public void refresh(String schemaJson, LocalDateTime now) {
+        this.schemaJson = schemaJson;
+        this.createdAt = now;
+        this.lastAccessedAt = now;
+    }
+}
@@ -0,0 +1,53 @@
+package AI_Challenge.AI_Challenge.domain.document.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * documents.content(LONGBLOB)를 엔티티로 올리지 않고 JDBC 스트림으로 바로 복사
+ * Hibernate 엔티티 스냅샷(byte[] 사본)이나 JSON base64 변환 없이 한 행만 읽어 출력 스트림으로 보낸다.
+ * MySQL Connector/J는 기본적으로 결과 전체를 받아 둔 뒤 돌려주므로 행 스트리밍 모드로 조회한다.
+ * (스트리밍 모드에서도 드라이버는 행 단위로 읽으므로 이 한 행의 내용은 메모리에 올라온다)
+ */
+@Repository
+@Slf4j
+public class DocumentContentReader {
+
+    private static final String SELECT_CONTENT = "select content from documents where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DocumentContentReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 문서 내용을 out으로 복사하고 복사한 바이트 수를 반환 (문서가 없거나 내용이 비어 있으면 -1)
+     */
+    public long copyContent(Long documentId, OutputStream out) {
+        Long copied = jdbcTemplate.query(connection -> {
+            // 행 스트리밍: 전방향 읽기 전용 + fetchSize Integer.MIN_VALUE (Connector/J 규약)
+            var statement = connection.prepareStatement(SELECT_CONTENT,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setLong(1, documentId);
+            return statement;
+        }, resultSet -> {
+            if (!resultSet.next()) {
+                return -1L;
+            }
+            try (InputStream in = resultSet.getBinaryStream(1)) {
+                return in == null ? -1L : in.transferTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return copied == null ? -1L : copied;
+    }
+}
@@ -0,0 +1,25 @@
+package AI_Challenge.AI_Challenge.domain.document.repository;
+
+import AI_Challenge.AI_Challenge.domain.document.entity.DocumentJob;
+import AI_Challenge.AI_Challenge.domain.document.entity.DocumentJobStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface DocumentJobRepository extends JpaRepository<DocumentJob, Long> {
+
+    List<DocumentJob> findByFinishedAtBeforeAndResultFileNameIsNotNull(LocalDateTime threshold);
+
+    // 서버 재시작으로 중단된 작업을 실패 처리
+    @Transactional
+    @Modifying
+    @Query("update DocumentJob j set j.status = :failed, j.errorMessage = :message, j.finishedAt = :now "
+        + "where j.status in :statuses")
+    int failAll(@Param("statuses") Collection<DocumentJobStatus> statuses, @Param("failed") DocumentJobStatus failed,
+        @Param("message") String message, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,10 @@
+package AI_Challenge.AI_Challenge.domain.document.repository;
+
+import AI_Challenge.AI_Challenge.domain.document.entity.DocumentJobStage;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DocumentJobStageRepository extends JpaRepository<DocumentJobStage, Long> {
+
+    List<DocumentJobStage> findByJobIdOrderByIdAsc(Long jobId);
+}
@@ -1,10 +1,43 @@
 package AI_Challenge.AI_Challenge.domain.document.repository;
 
+import AI_Challenge.AI_Challenge.domain.document.dto.DocumentSummary;
 import AI_Challenge.AI_Challenge.domain.document.entity.Document;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface DocumentRepository extends JpaRepository<Document, Long> {
     Optional<Document> findByFileName(String fileName);
 
+    // 키셋 페이지네이션: afterId보다 큰 id를 순서대로 조회 (LONGBLOB/TEXT 컬럼은 읽지 않음)
+    @Query("select new AI_Challenge.AI_Challenge.domain.document.dto.DocumentSummary("
+        + "d.id, d.fileName, d.fileType, d.fileSize, d.uploadDateTime) "
+        + "from Document d where d.id > :afterId order by d.id asc")
+    List<DocumentSummary> findSummariesAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select new AI_Challenge.AI_Challenge.domain.document.dto.DocumentSummary("
+        + "d.id, d.fileName, d.fileType, d.fileSize, d.uploadDateTime) "
+        + "from Document d where d.id = :id")
+    Optional<DocumentSummary> findSummaryById(@Param("id") Long id);
+
+    @Query("select d.id from Document d where d.fileName = :fileName")
+    Optional<Long> findIdByFileName(@Param("fileName") String fileName);
+
+    @Query("select d.contentHash from Document d where d.id = :id")
+    Optional<String> findContentHashById(@Param("id") Long id);
+
+    @Query("select d.content from Document d where d.id = :id")
+    Optional<byte[]> findContentById(@Param("id") Long id);
+
+    // file_size 컬럼 추가 이전에 저장된 행의 크기 채우기
+    @Transactional
+    @Modifying
+    @Query(value = "update documents set file_size = octet_length(content) "
+        + "where file_size is null and content is not null", nativeQuery = true)
+    int backfillFileSizes();
 }
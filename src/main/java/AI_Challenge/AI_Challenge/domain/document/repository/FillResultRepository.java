@@ -0,0 +1,31 @@
+package AI_Challenge.AI_Challenge.domain.document.repository;
+
+import AI_Challenge.AI_Challenge.domain.document.entity.FillResult;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface FillResultRepository extends JpaRepository<FillResult, Long> {
+
+    Optional<FillResult> findByCacheKey(String cacheKey);
+
+    @Transactional
+    @Modifying
+    @Query("update FillResult r set r.lastAccessedAt = :now where r.cacheKey = :cacheKey")
+    int touch(@Param("cacheKey") String cacheKey, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from FillResult r where r.createdAt < :threshold")
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+
+    // 가장 오래 사용되지 않은 순서로 id 조회 (크기 제한 초과분 정리용)
+    @Query("select r.id from FillResult r order by r.lastAccessedAt asc")
+    List<Long> findIdsByLeastRecentlyUsed(Pageable pageable);
+}
@@ -0,0 +1,36 @@
+package AI_Challenge.AI_Challenge.domain.document.repository;
+
+import AI_Challenge.AI_Challenge.domain.document.entity.TemplateSchema;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface TemplateSchemaRepository extends JpaRepository<TemplateSchema, Long> {
+
+    Optional<TemplateSchema> findByContentHash(String contentHash);
+
+    @Transactional
+    @Modifying
+    @Query("update TemplateSchema s set s.lastAccessedAt = :now where s.contentHash = :contentHash")
+    int touch(@Param("contentHash") String contentHash, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TemplateSchema s where s.contentHash = :contentHash")
+    int deleteByContentHash(@Param("contentHash") String contentHash);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TemplateSchema s where s.createdAt < :threshold")
+    int deleteCreatedBefore(@Param("threshold") LocalDateTime threshold);
+
+    // 가장 오래 사용되지 않은 순서로 id 조회 (크기 제한 초과분 정리용)
+    @Query("select s.id from TemplateSchema s order by s.lastAccessedAt asc")
+    List<Long> findIdsByLeastRecentlyUsed(Pageable pageable);
+}
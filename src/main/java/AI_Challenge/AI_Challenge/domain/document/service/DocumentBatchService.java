@@ -0,0 +1,164 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import AI_Challenge.AI_Challenge.domain.document.service.DocumentService.PreparedTemplate;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 한 템플릿에 여러 영수증 텍스트를 채워 ZIP으로 스트리밍하는 배치 채우기
+ * 템플릿 원본과 스키마는 한 번만 준비하고, GPT 채우기는 최대 max-concurrency건만 동시에 진행한다.
+ * 완료되는 순서대로 ZIP 항목을 바로 써서, 배치 크기와 관계없이 메모리에는 진행 중인 건만 남는다.
+ */
+@Service
+@Slf4j
+public class DocumentBatchService {
+
+    private static final int ZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final DocumentService documentService;
+    private final ExecutorService batchExecutor;
+    private final int maxConcurrency;
+    private final int maxItems;
+
+    public DocumentBatchService(DocumentService documentService,
+        @Value("${document.batch.max-concurrency:4}") int maxConcurrency,
+        @Value("${document.batch.max-items:500}") int maxItems) {
+        this.documentService = documentService;
+        this.maxConcurrency = maxConcurrency;
+        this.maxItems = maxItems;
+        this.batchExecutor = Executors.newFixedThreadPool(maxConcurrency,
+            Thread.ofVirtual().name("document-batch-", 0).factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+
+    /**
+     * 요청 검증 후 템플릿 준비 (응답 스트리밍 전에 실행해 오류를 일반 응답으로 돌려줄 수 있게 한다)
+     */
+    public PreparedTemplate prepare(Long documentId, List<String> extractedTexts)
+        throws IOException, InterruptedException {
+        if (documentId == null) {
+            throw new IllegalArgumentException("documentId가 필요합니다.");
+        }
+        if (extractedTexts == null || extractedTexts.isEmpty()) {
+            throw new IllegalArgumentException("채울 텍스트가 없습니다.");
+        }
+        if (extractedTexts.size() > maxItems) {
+            throw new IllegalArgumentException("한 번에 최대 " + maxItems + "건까지 처리할 수 있습니다: " + extractedTexts.size());
+        }
+        return documentService.prepareTemplate(documentId, FillProgressListener.NONE);
+    }
+
+    /**
+     * 각 텍스트로 채운 문서를 ZIP 항목으로 out에 쓴다 (실패한 건은 오류 메시지 텍스트 항목으로 대체)
+     */
+    public void writeZip(PreparedTemplate template, List<String> extractedTexts, OutputStream out) throws IOException {
+        long startedAt = System.nanoTime();
+        String baseName = baseNameOf(template.fileName());
+        String numberFormat = "%0" + String.valueOf(extractedTexts.size()).length() + "d";
+
+        CompletionService<BatchItem> completionService = new ExecutorCompletionService<>(batchExecutor);
+        List<Future<BatchItem>> futures = new ArrayList<>();
+        int next = 0;
+        int inFlight = 0;
+        int failed = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, ZIP_BUFFER_SIZE), StandardCharsets.UTF_8);
+        try {
+            while (next < extractedTexts.size() || inFlight > 0) {
+                // 1. 동시 진행 건수만큼만 제출
+                while (next < extractedTexts.size() && inFlight < maxConcurrency) {
+                    futures.add(completionService.submit(fillTask(template, next, extractedTexts.get(next))));
+                    next++;
+                    inFlight++;
+                }
+
+                // 2. 먼저 끝난 건부터 ZIP에 기록
+                BatchItem item = completionService.take().get();
+                inFlight--;
+                String number = String.format(numberFormat, item.index() + 1);
+                if (item.document() != null) {
+                    writeStoredEntry(zip, number + "_" + baseName + ".docx", item.document());
+                } else {
+                    failed++;
+                    writeStoredEntry(zip, number + "_실패.txt", item.error().getBytes(StandardCharsets.UTF_8));
+                }
+                zip.flush();
+            }
+            zip.finish();
+            zip.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("배치 채우기가 중단되었습니다.");
+        } catch (ExecutionException e) {
+            // fillTask는 예외를 결과로 바꾸므로 발생하지 않음
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // 클라이언트 연결이 끊기는 등 중간에 멈추면 남은 채우기를 취소
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        log.info("배치 채우기 완료: 문서 ID {}, {}건 (실패 {}건), {} ms", template.documentId(), extractedTexts.size(),
+            failed, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private Callable<BatchItem> fillTask(PreparedTemplate template, int index, String extractedText) {
+        return () -> {
+            try {
+                return new BatchItem(index, documentService.fillPreparedTemplate(template, extractedText,
+                    FillProgressListener.NONE), null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new BatchItem(index, null, "중단되었습니다.");
+            } catch (Exception e) {
+                log.warn("배치 채우기 실패: 문서 ID {}, {}번째 - {}", template.documentId(), index + 1, e.getMessage());
+                return new BatchItem(index, null, String.valueOf(e.getMessage()));
+            }
+        };
+    }
+
+    // DOCX는 이미 압축된 ZIP이므로 다시 압축하지 않고 STORED로 기록
+    private void writeStoredEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private String baseNameOf(String fileName) {
+        int dotIndex = fileName.lastIndexOf('.');
+        return dotIndex > 0 ? fileName.substring(0, dotIndex) : fileName;
+    }
+
+    private record BatchItem(int index, byte[] document, String error) {
+    }
+}
@@ -0,0 +1,122 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import AI_Challenge.AI_Challenge.global.common.HashUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 업로드 파일 내용 주소 저장소 (파일 이름 = 내용의 SHA-256)
+ * 스트림을 한 번만 읽으면서 임시 파일에 쓰고 동시에 해시를 계산한 뒤, 같은 내용이 이미 있으면 임시 파일을 버린다.
+ * 경로: <root>/<해시 앞 2자리>/<해시>
+ */
+@Component
+@Slf4j
+public class DocumentBlobStore {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    public DocumentBlobStore(@Value("${document.blob-store.path:./document-blobs}") String rootPath) {
+        this.root = Paths.get(rootPath);
+    }
+
+    /**
+     * 입력 스트림을 저장하고 내용 해시를 반환 (호출자가 스트림을 닫는다)
+     */
+    public StoredBlob store(InputStream in) throws IOException {
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            // 1. 디스크에 쓰면서 해시 계산
+            MessageDigest digest = HashUtils.newSha256();
+            long size;
+            try (InputStream digesting = new DigestInputStream(in, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = digesting.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+
+            // 2. 같은 내용이 이미 있으면 기존 파일을 그대로 참조
+            if (Files.exists(target)) {
+                deduplicated.incrementAndGet();
+                return new StoredBlob(hash, size, target, true);
+            }
+
+            // 3. 없으면 최종 위치로 이동 (동시에 같은 내용이 올라와도 결과 파일은 같다)
+            Files.createDirectories(target.getParent());
+            try {
+                moveIntoPlace(temp, target);
+            } catch (FileAlreadyExistsException e) {
+                deduplicated.incrementAndGet();
+                return new StoredBlob(hash, size, target, true);
+            }
+            stored.incrementAndGet();
+            return new StoredBlob(hash, size, target, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target);
+        }
+    }
+
+    public boolean exists(String hash) {
+        return Files.exists(pathOf(hash));
+    }
+
+    public InputStream open(String hash) throws IOException {
+        return Files.newInputStream(pathOf(hash));
+    }
+
+    public byte[] read(String hash) throws IOException {
+        return Files.readAllBytes(pathOf(hash));
+    }
+
+    // 해시 형식을 검사해 저장소 밖 경로를 만들 수 없도록 한다
+    public Path pathOf(String hash) {
+        if (hash == null || !SHA256_HEX.matcher(hash).matches()) {
+            throw new IllegalArgumentException("잘못된 내용 해시입니다: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("stored", stored.get());
+        stats.put("deduplicated", deduplicated.get());
+        return stats;
+    }
+
+    /**
+     * 저장 결과 - deduplicated가 true면 이미 있던 파일을 재사용한 것
+     */
+    public record StoredBlob(String hash, long size, Path path, boolean deduplicated) {
+    }
+}
@@ -0,0 +1,344 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import AI_Challenge.AI_Challenge.domain.document.entity.DocumentJob;
+import AI_Challenge.AI_Challenge.domain.document.entity.DocumentJobStage;
+import AI_Challenge.AI_Challenge.domain.document.entity.DocumentJobStatus;
+import AI_Challenge.AI_Challenge.domain.document.entity.FillStage;
+import AI_Challenge.AI_Challenge.domain.document.repository.DocumentJobRepository;
+import AI_Challenge.AI_Challenge.domain.document.repository.DocumentJobStageRepository;
+import AI_Challenge.AI_Challenge.global.common.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 템플릿 채우기(pandoc -> Gemini -> GPT -> POI)를 요청 스레드 밖에서 실행하는 작업 엔진
+ */
+@Service
+@Slf4j
+public class DocumentJobService {
+
+    private final DocumentJobRepository documentJobRepository;
+    private final DocumentJobStageRepository documentJobStageRepository;
+    private final DocumentService documentService;
+
+    private final ExecutorService jobExecutor;
+    // 실행 중 + 대기 중 작업 수 제한 - 가득 차면 작업을 만들지 않고 바로 429 (실행기 대기열은 무제한이므로 여기서 막는다)
+    private final Bulkhead jobAdmission;
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Duration syncTimeout;
+    private final Duration resultRetention;
+    private final long sseTimeoutMillis;
+
+    @Value("${document.result.path}")
+    private String resultPath;
+
+    public DocumentJobService(DocumentJobRepository documentJobRepository,
+        DocumentJobStageRepository documentJobStageRepository,
+        DocumentService documentService,
+        MeterRegistry meterRegistry,
+        @Value("${document.job.max-concurrency:8}") int maxConcurrency,
+        @Value("${document.job.max-queued:32}") int maxQueued,
+        @Value("${document.job.sync-timeout-seconds:300}") long syncTimeoutSeconds,
+        @Value("${document.job.result-retention-hours:24}") long resultRetentionHours,
+        @Value("${document.job.sse-timeout-ms:600000}") long sseTimeoutMillis) {
+        this.documentJobRepository = documentJobRepository;
+        this.documentJobStageRepository = documentJobStageRepository;
+        this.documentService = documentService;
+        this.jobExecutor = Executors.newFixedThreadPool(maxConcurrency,
+            Thread.ofVirtual().name("document-job-", 0).factory());
+        // 자리를 기다리지 않는다 (maxWait 0) - 자리는 작업이 끝날 때 작업 스레드에서 반납
+        this.jobAdmission = new Bulkhead("document-job", maxConcurrency + Math.max(0, maxQueued), 0, Duration.ZERO);
+        this.jobAdmission.bindTo(meterRegistry);
+        this.syncTimeout = Duration.ofSeconds(syncTimeoutSeconds);
+        this.resultRetention = Duration.ofHours(resultRetentionHours);
+        this.sseTimeoutMillis = sseTimeoutMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    // 재시작 전에 실행 중이던 작업은 이어서 실행할 수 없으므로 실패로 표시
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        int failed = documentJobRepository.failAll(
+            List.of(DocumentJobStatus.PENDING, DocumentJobStatus.RUNNING), DocumentJobStatus.FAILED,
+            "서버 재시작으로 작업이 중단되었습니다.", LocalDateTime.now());
+        if (failed > 0) {
+            log.warn("중단된 작업 {} 건을 실패 처리했습니다.", failed);
+        }
+    }
+
+    public DocumentJob submit(String extractedText, Long documentId) throws InterruptedException {
+        return enqueue(extractedText, documentId).job();
+    }
+
+    /**
+     * 작업을 제출하고 완료될 때까지 기다린 뒤 결과 파일 경로를 반환 (동기 create-and-download용 - 내용은 파일에서 바로 전송)
+     */
+    public Path submitAndWait(String extractedText, Long documentId) throws Exception {
+        SubmittedJob submitted = enqueue(extractedText, documentId);
+        DocumentJob job;
+        try {
+            job = submitted.completion().get(syncTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw (e.getCause() instanceof Exception cause) ? cause : e;
+        } catch (TimeoutException e) {
+            throw new RuntimeException("문서 생성 시간이 초과되었습니다. 작업 ID: " + submitted.job().getId(), e);
+        }
+        return resolveResultPath(job);
+    }
+
+    public DocumentJob getJob(Long jobId) {
+        return documentJobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("작업을 찾을 수 없습니다: " + jobId));
+    }
+
+    public Map<String, Object> getJobStatus(Long jobId) {
+        return toStatusMap(getJob(jobId));
+    }
+
+    public Path getResultPath(Long jobId) {
+        DocumentJob job = getJob(jobId);
+        if (job.getStatus() != DocumentJobStatus.COMPLETED) {
+            throw new IllegalStateException("작업이 아직 완료되지 않았습니다: " + jobId);
+        }
+        return resolveResultPath(job);
+    }
+
+    public SseEmitter subscribe(Long jobId) {
+        getJob(jobId);
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        List<SseEmitter> jobEmitters = emitters.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+        jobEmitters.add(emitter);
+        emitter.onCompletion(() -> jobEmitters.remove(emitter));
+        emitter.onTimeout(() -> jobEmitters.remove(emitter));
+        emitter.onError(e -> jobEmitters.remove(emitter));
+
+        // 등록 이후의 상태를 보내야 완료 이벤트를 놓치지 않는다
+        DocumentJob job = getJob(jobId);
+        send(emitter, toStatusMap(job));
+        if (job.isFinished()) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    // 보관 기간이 지난 작업 결과 파일 정리
+    @Scheduled(fixedDelayString = "${document.job.purge-interval-ms:3600000}")
+    public void purgeExpiredResults() {
+        LocalDateTime threshold = LocalDateTime.now().minus(resultRetention);
+        for (DocumentJob job : documentJobRepository.findByFinishedAtBeforeAndResultFileNameIsNotNull(threshold)) {
+            try {
+                Files.deleteIfExists(resolveResultPath(job));
+                job.expireResult();
+                documentJobRepository.save(job);
+            } catch (IOException e) {
+                log.warn("작업 결과 파일 삭제 실패: {}", job.getResultFileName(), e);
+            }
+        }
+    }
+
+    private SubmittedJob enqueue(String extractedText, Long documentId) throws InterruptedException {
+        // 1. 작업 자리를 먼저 얻는다 - 없으면 작업 행을 만들지 않고 BulkheadFullException (429)
+        Bulkhead.Permit permit = jobAdmission.enter();
+        DocumentJob job;
+        CompletableFuture<DocumentJob> completion = new CompletableFuture<>();
+        try {
+            job = documentJobRepository.save(DocumentJob.builder()
+                .documentId(documentId)
+                .status(DocumentJobStatus.PENDING)
+                .extractedText(extractedText)
+                .createdAt(LocalDateTime.now())
+                .build());
+            jobExecutor.execute(() -> {
+                try (permit) {
+                    run(job, completion);
+                }
+            });
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+        log.info("문서 생성 작업 등록: 작업 ID {}, 문서 ID {}", job.getId(), documentId);
+        return new SubmittedJob(job, completion);
+    }
+
+    // 시작 기록 저장이 실패해도 completion은 반드시 완료된다 (submitAndWait가 제한 시간까지 멈추지 않도록)
+    private void run(DocumentJob job, CompletableFuture<DocumentJob> completion) {
+        try {
+            job.start(LocalDateTime.now());
+            documentJobRepository.save(job);
+            publish(job);
+
+            String resultFileName = "job-" + job.getId() + ".docx";
+            writeResult(job, jobResultDirectory().resolve(resultFileName));
+
+            job.complete(resultFileName, LocalDateTime.now());
+            documentJobRepository.save(job);
+            log.info("문서 생성 작업 완료: 작업 ID {}", job.getId());
+            completion.complete(job);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("문서 생성 작업 실패: 작업 ID {}", job.getId(), e);
+            job.fail(e.getMessage(), LocalDateTime.now());
+            try {
+                documentJobRepository.save(job);
+            } catch (RuntimeException saveError) {
+                log.error("작업 실패 상태 저장 실패: 작업 ID {}", job.getId(), saveError);
+            }
+            completion.completeExceptionally(e);
+        } finally {
+            publish(job);
+            List<SseEmitter> jobEmitters = emitters.remove(job.getId());
+            if (jobEmitters != null) {
+                jobEmitters.forEach(SseEmitter::complete);
+            }
+        }
+    }
+
+    // 렌더링 결과를 byte[]로 모으지 않고 결과 파일에 바로 쓴다 (실패하면 불완전한 파일을 지운다)
+    private void writeResult(DocumentJob job, Path resultFile) throws IOException, InterruptedException {
+        Files.createDirectories(resultFile.getParent());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(resultFile))) {
+            documentService.fillDocxTemplateWithJson(
+                job.getExtractedText(), job.getDocumentId(), new JobProgressListener(job), out);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            Files.deleteIfExists(resultFile);
+            throw e;
+        }
+    }
+
+    private void publish(DocumentJob job) {
+        List<SseEmitter> jobEmitters = emitters.get(job.getId());
+        if (jobEmitters == null || jobEmitters.isEmpty()) {
+            return;
+        }
+        Map<String, Object> status = toStatusMap(job);
+        for (SseEmitter emitter : jobEmitters) {
+            send(emitter, status);
+        }
+    }
+
+    private void send(SseEmitter emitter, Map<String, Object> status) {
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(status));
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트 연결이 끊긴 경우
+            emitter.completeWithError(e);
+        }
+    }
+
+    private Map<String, Object> toStatusMap(DocumentJob job) {
+        List<Map<String, Object>> stages = new ArrayList<>();
+        for (DocumentJobStage stage : documentJobStageRepository.findByJobIdOrderByIdAsc(job.getId())) {
+            Map<String, Object> stageInfo = new LinkedHashMap<>();
+            stageInfo.put("stage", stage.getStage());
+            stageInfo.put("skipped", stage.isSkipped());
+            stageInfo.put("startedAt", stage.getStartedAt());
+            stageInfo.put("elapsedMillis", stage.getElapsedMillis());
+            stages.add(stageInfo);
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", job.getId());
+        status.put("documentId", job.getDocumentId());
+        status.put("status", job.getStatus());
+        status.put("currentStage", job.getCurrentStage());
+        status.put("stages", stages);
+        status.put("errorMessage", job.getErrorMessage());
+        status.put("createdAt", job.getCreatedAt());
+        status.put("startedAt", job.getStartedAt());
+        status.put("finishedAt", job.getFinishedAt());
+        return status;
+    }
+
+    private Path resolveResultPath(DocumentJob job) {
+        if (job.getResultFileName() == null) {
+            throw new RuntimeException("작업 결과가 없거나 보관 기간이 지났습니다: " + job.getId());
+        }
+        return jobResultDirectory().resolve(job.getResultFileName());
+    }
+
+    private Path jobResultDirectory() {
+        return Paths.get(resultPath, "jobs");
+    }
+
+    private record SubmittedJob(DocumentJob job, CompletableFuture<DocumentJob> completion) {
+    }
+
+    /**
+     * 단계 진행을 작업 테이블/단계 테이블에 기록하고 SSE 구독자에게 전달
+     */
+    private class JobProgressListener implements FillProgressListener {
+
+        private final DocumentJob job;
+        private LocalDateTime stageStartedAt;
+
+        JobProgressListener(DocumentJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void onStageStarted(FillStage stage) {
+            stageStartedAt = LocalDateTime.now();
+            job.moveTo(stage);
+            documentJobRepository.save(job);
+            publish(job);
+        }
+
+        @Override
+        public void onStageCompleted(FillStage stage, long elapsedMillis) {
+            documentJobStageRepository.save(DocumentJobStage.builder()
+                .jobId(job.getId())
+                .stage(stage)
+                .skipped(false)
+                .startedAt(stageStartedAt)
+                .elapsedMillis(elapsedMillis)
+                .build());
+            publish(job);
+        }
+
+        @Override
+        public void onStageSkipped(FillStage stage) {
+            documentJobStageRepository.save(DocumentJobStage.builder()
+                .jobId(job.getId())
+                .stage(stage)
+                .skipped(true)
+                .startedAt(LocalDateTime.now())
+                .elapsedMillis(0L)
+                .build());
+        }
+    }
+}
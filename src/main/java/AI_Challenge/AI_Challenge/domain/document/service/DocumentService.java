@@ -1,39 +1,48 @@
 package AI_Challenge.AI_Challenge.domain.document.service;
 
+import AI_Challenge.AI_Challenge.domain.document.dto.DocumentSummary;
 import AI_Challenge.AI_Challenge.domain.document.entity.Document;
+import AI_Challenge.AI_Challenge.domain.document.entity.FillStage;
+import AI_Challenge.AI_Challenge.domain.document.repository.DocumentContentReader;
 import AI_Challenge.AI_Challenge.domain.document.repository.DocumentRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import AI_Challenge.AI_Challenge.domain.document.service.DocumentBlobStore.StoredBlob;
+import AI_Challenge.AI_Challenge.domain.document.service.FillResultCacheService.FillCacheKey;
+import AI_Challenge.AI_Challenge.domain.document.service.ProcessedDocumentCatalog.CatalogPage;
+import AI_Challenge.AI_Challenge.global.common.Bulkhead;
+import AI_Challenge.AI_Challenge.global.common.HashUtils;
+import AI_Challenge.AI_Challenge.global.common.TeeOutputStream;
+import AI_Challenge.AI_Challenge.global.config.BulkheadConfig;
+import AI_Challenge.AI_Challenge.global.llm.LlmGatewayException;
+import AI_Challenge.AI_Challenge.global.llm.LlmHedger;
+import AI_Challenge.AI_Challenge.global.llm.LlmProvider;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Iterator;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.apache.poi.xwpf.usermodel.XWPFParagraph;
-import org.apache.poi.xwpf.usermodel.XWPFRun;
-import org.apache.poi.xwpf.usermodel.XWPFTable;
-import org.apache.poi.xwpf.usermodel.XWPFTableCell;
-import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -41,30 +50,170 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 public class DocumentService {
 
+    // 스트리밍 결과 사본 파일명 접두사 (보관 기간 정리 대상)
+    private static final String STREAM_COPY_PREFIX = "stream-";
+
     private final DocumentRepository documentRepository;
+    private final DocumentContentReader documentContentReader;
+    private final DocumentBlobStore documentBlobStore;
+    private final ProcessedDocumentCatalog processedDocumentCatalog;
     private final GeminiService geminiService;
     private final GptService gptService;
-
-    @Value("${document.upload.path}")
-    private String uploadPath;
+    private final LlmHedger llmHedger;
+    private final TemplateSchemaCacheService templateSchemaCacheService;
+    private final FillResultCacheService fillResultCacheService;
+    private final DocxMarkdownConverter docxMarkdownConverter;
+    private final LocalSchemaExtractor localSchemaExtractor;
+    private final ReceiptFieldExtractor receiptFieldExtractor;
+    private final StaxDocxTemplateRenderer staxDocxTemplateRenderer;
+    private final PoiDocxTemplateRenderer poiDocxTemplateRenderer;
+    private final DocxTextExtractor docxTextExtractor;
+    private final TemplateJsonValidator templateJsonValidator;
+    private final FilledJsonFlattener filledJsonFlattener;
+    private final MeterRegistry meterRegistry;
+    // pandoc/POI 변환, 로컬 스키마 추출, 렌더링 동시 실행 제한
+    private final Bulkhead documentBulkhead;
 
     @Value("${document.result.path}")
     private String resultPath;
 
-    public DocumentService(DocumentRepository documentRepository, GeminiService geminiService, GptService gptService) {
+    // 응답으로 바로 렌더링한 결과를 결과 폴더에도(stream-*.docx) 남길지 여부
+    @Value("${document.result.stream-tee:false}")
+    private boolean streamTeeEnabled;
+
+    @Value("${document.result.stream-tee-retention-hours:24}")
+    private long streamTeeRetentionHours;
+
+    // DOCX -> Markdown 변환 방식 (poi: 프로세스 내 변환, pandoc: 외부 pandoc 실행)
+    @Value("${document.markdown.converter:poi}")
+    private String markdownConverter;
+
+    // 템플릿 스키마 추출 방식 (local: DOCX 구조에서 직접 추출하고 신뢰도가 낮을 때만 Gemini, gemini: 항상 Gemini)
+    @Value("${document.schema.extractor:local}")
+    private String schemaExtractor;
+
+    @Value("${document.schema.local-min-confidence:0.7}")
+    private double localSchemaMinConfidence;
+
+    // 규칙 기반(정규식 + 사전) 영수증 필드 추출 후 남은 필드만 GPT로 채울지 여부
+    @Value("${document.fill.rules.enabled:true}")
+    private boolean fillRulesEnabled;
+
+    // 채우기 결과 중 스키마와 맞지 않는 필드만 다시 요청하는 최대 횟수 (0이면 복구 없이 빈 값)
+    @Value("${document.fill.repair.max-attempts:1}")
+    private int fillRepairMaxAttempts;
+
+    // 템플릿 채우기 방식 (stax: 변경 파트만 스트리밍, poi: XWPFDocument 전체 로드)
+    @Value("${document.render.engine:stax}")
+    private String renderEngine;
+
+    // 목록 한 페이지의 최대 크기
+    @Value("${document.list.max-page-size:200}")
+    private int maxListPageSize;
+
+    public DocumentService(DocumentRepository documentRepository, DocumentContentReader documentContentReader,
+        DocumentBlobStore documentBlobStore, ProcessedDocumentCatalog processedDocumentCatalog,
+        GeminiService geminiService, GptService gptService, LlmHedger llmHedger,
+        TemplateSchemaCacheService templateSchemaCacheService,
+        FillResultCacheService fillResultCacheService, DocxMarkdownConverter docxMarkdownConverter,
+        LocalSchemaExtractor localSchemaExtractor, ReceiptFieldExtractor receiptFieldExtractor,
+        StaxDocxTemplateRenderer staxDocxTemplateRenderer, PoiDocxTemplateRenderer poiDocxTemplateRenderer,
+        DocxTextExtractor docxTextExtractor, TemplateJsonValidator templateJsonValidator,
+        FilledJsonFlattener filledJsonFlattener, MeterRegistry meterRegistry,
+        @Qualifier(BulkheadConfig.DOCUMENT) Bulkhead documentBulkhead) {
         this.documentRepository = documentRepository;
+        this.documentContentReader = documentContentReader;
+        this.documentBlobStore = documentBlobStore;
+        this.processedDocumentCatalog = processedDocumentCatalog;
         this.geminiService = geminiService;
         this.gptService = gptService;
+        this.llmHedger = llmHedger;
+        this.templateSchemaCacheService = templateSchemaCacheService;
+        this.fillResultCacheService = fillResultCacheService;
+        this.docxMarkdownConverter = docxMarkdownConverter;
+        this.localSchemaExtractor = localSchemaExtractor;
+        this.receiptFieldExtractor = receiptFieldExtractor;
+        this.staxDocxTemplateRenderer = staxDocxTemplateRenderer;
+        this.poiDocxTemplateRenderer = poiDocxTemplateRenderer;
+        this.docxTextExtractor = docxTextExtractor;
+        this.templateJsonValidator = templateJsonValidator;
+        this.filledJsonFlattener = filledJsonFlattener;
+        this.meterRegistry = meterRegistry;
+        this.documentBulkhead = documentBulkhead;
     }
 
+    // 크기 컬럼이 추가되기 전에 저장된 문서의 file_size 채우기 (한 번 채워지면 대상 행이 없다)
+    @PostConstruct
+    void backfillFileSizes() {
+        try {
+            int updated = documentRepository.backfillFileSizes();
+            if (updated > 0) {
+                log.info("문서 크기 컬럼 채우기 완료: {}건", updated);
+            }
+        } catch (Exception e) {
+            log.warn("문서 크기 컬럼 채우기 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 메타데이터만 키셋 방식으로 조회 (afterId 다음부터 size개, 본문 BLOB은 읽지 않음)
+     * size + 1개를 읽어 다음 페이지 존재 여부를 판단하고, 다음 커서는 마지막 항목의 id
+     */
     @Transactional(readOnly = true)
-    public List<Document> getAllDocuments() {
-        return documentRepository.findAll();
+    public DocumentPage getDocumentSummaries(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxListPageSize));
+        List<DocumentSummary> rows = documentRepository.findSummariesAfter(
+            afterId == null ? 0L : afterId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<DocumentSummary> items = hasNext ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasNext ? items.get(items.size() - 1).id() : null;
+        return new DocumentPage(items, nextCursor);
+    }
+
+    public record DocumentPage(List<DocumentSummary> items, Long nextCursor) {
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DocumentSummary> getDocumentSummary(Long id) {
+        return documentRepository.findSummaryById(id);
+    }
+
+    // 원본 문서 내용을 엔티티 로딩 없이 out에 복사 (저장소 파일, 이전 업로드는 JDBC 스트림)
+    public void copyDocumentContent(Long id, OutputStream out) throws IOException {
+        Optional<String> contentHash = documentRepository.findContentHashById(id);
+        if (contentHash.isPresent()) {
+            try (InputStream in = documentBlobStore.open(contentHash.get())) {
+                in.transferTo(out);
+            }
+            return;
+        }
+        if (documentContentReader.copyContent(id, out) < 0) {
+            throw new RuntimeException("문서를 찾을 수 없습니다: " + id);
+        }
+    }
+
+    // 템플릿 바이트 로드 - 저장소에 있으면 파일에서, 이전 업로드는 DB 컬럼에서
+    private byte[] loadContent(Document document) throws IOException {
+        if (document.getContentHash() != null) {
+            return documentBlobStore.read(document.getContentHash());
+        }
+        return document.getContent();
+    }
+
+    // 내용 해시 - 저장소 키가 곧 SHA-256이므로 다시 계산하지 않는다
+    private String contentHashOf(Document document) {
+        if (document.getContentHash() != null) {
+            return document.getContentHash();
+        }
+        return HashUtils.sha256Hex(document.getContent());
     }
 
     @Transactional(readOnly = true)
@@ -76,38 +225,38 @@ public class DocumentService {
     public Document uploadDocument(MultipartFile file) throws Exception {
         validateFile(file);
 
-        // 저장할 파일 경로 생성 (document-upload 폴더)
+        // 같은 이름의 파일을 덮어쓰지 않는다 (fileName은 유일)
         String fileName = file.getOriginalFilename();
-        Path targetPath = Paths.get(uploadPath, fileName);
-
-        // 디렉토리가 없으면 생성
-        Files.createDirectories(targetPath.getParent());
+        if (documentRepository.findIdByFileName(fileName).isPresent()) {
+            throw new RuntimeException("같은 이름의 문서가 이미 있습니다: " + fileName);
+        }
 
-        // 파일 저장
-        Files.copy(file.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+        // 업로드 스트림을 한 번만 읽어 내용 주소 저장소에 저장 (같은 내용이면 기존 파일 재사용)
+        StoredBlob blob;
+        try (InputStream in = file.getInputStream()) {
+            blob = documentBlobStore.store(in);
+        }
 
-        // 문서 내용 추출
-        String extractedText = extractTextFromDoc(file.getBytes());
+        // 문서 내용 추출 (저장된 파일에서 읽음)
+        String extractedText = docxTextExtractor.extract(blob.path());
 
+        // DB에는 내용 대신 저장소 해시만 기록
         Document document = Document.builder()
             .fileName(fileName)
             .fileType(file.getContentType())
-            .filePath(targetPath.toString())
-            .content(file.getBytes())
+            .filePath(blob.path().toString())
+            .contentHash(blob.hash())
+            .fileSize(blob.size())
             .uploadDateTime(LocalDateTime.now())
             .extractedText(extractedText)
             .build();
 
-        log.info("문서 업로드 완료: {} -> {}", fileName, targetPath);
+        log.info("문서 업로드 완료: {} -> {} (기존 내용 재사용: {})", fileName, blob.path(), blob.deduplicated());
         return documentRepository.save(document);
     }
 
     // 문서 처리 및 결과 파일 저장
-    @Transactional
     public String processAndSaveDocument(Long documentId, String originalFileName) throws Exception {
-        Document document = documentRepository.findById(documentId)
-            .orElseThrow(() -> new RuntimeException("문서를 찾을 수 없습니다: " + documentId));
-
         // 결과 파일명 생성
         String resultFileName = generateResultFileName(originalFileName);
 
@@ -117,63 +266,49 @@ public class DocumentService {
         // 결과 디렉토리가 없으면 생성
         Files.createDirectories(resultFilePath.getParent());
 
-        // 여기서는 단순히 원본 파일을 복사하지만,
-        // 실제로는 AI 처리 결과를 적용할 수 있습니다
-        byte[] processedContent = processDocumentWithAI(document);
-
-        // 결과 파일 저장
-        Files.write(resultFilePath, processedContent);
+        // 원본은 엔티티로 올리지 않고 DB에서 결과 파일로 바로 스트리밍
+        try (OutputStream out = Files.newOutputStream(resultFilePath)) {
+            copyDocumentContent(documentId, out);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(resultFilePath);
+            throw e;
+        }
+        // 감시 이벤트를 기다리지 않고 바로 목록에 반영
+        processedDocumentCatalog.register(resultFilePath);
 
         log.info("문서 처리 및 저장 완료: {} -> {}", originalFileName, resultFilePath);
         return resultFileName;
     }
 
-    // AI로 문서 처리 (현재는 원본 반환, 추후 확장 가능)
-    private byte[] processDocumentWithAI(Document document) throws Exception {
-        // 여기서 Gemini API 등을 활용해 문서를 처리할 수 있습니다
-        // 예: 이미지에서 추출된 텍스트를 문서에 삽입
-
-        // 현재는 원본 문서를 그대로 반환
-        return document.getContent();
-    }
-
-    // 처리된 문서 바이트 배열 반환
-    public byte[] getProcessedDocumentBytes(String fileName) throws Exception {
-        Path filePath = Paths.get(resultPath, fileName);
-
-        if (!Files.exists(filePath)) {
-            throw new RuntimeException("처리된 문서를 찾을 수 없습니다: " + fileName);
+    // 처리된 문서 파일 경로 반환 (결과 폴더 바로 아래 파일만 허용 - ../ 등으로 폴더 밖을 가리키면 없음으로 처리)
+    public Optional<Path> findProcessedDocument(String fileName) {
+        // 숨김 파일(색인 스냅샷 등)은 내려주지 않는다
+        if (fileName == null || fileName.isBlank() || fileName.startsWith(".")) {
+            return Optional.empty();
         }
-
-        return Files.readAllBytes(filePath);
+        Path resultDir = Paths.get(resultPath).toAbsolutePath().normalize();
+        Path filePath = resultDir.resolve(fileName).normalize();
+        if (!resultDir.equals(filePath.getParent()) || !Files.isRegularFile(filePath)) {
+            return Optional.empty();
+        }
+        return Optional.of(filePath);
     }
 
-    // 처리된 문서 목록 조회
-    public List<Map<String, Object>> getProcessedDocumentsList() throws Exception {
-        List<Map<String, Object>> processedDocs = new ArrayList<>();
-        Path resultDir = Paths.get(resultPath);
-
-        // 결과 디렉토리가 없으면 빈 목록 반환
-        if (!Files.exists(resultDir)) {
-            Files.createDirectories(resultDir);
-            return processedDocs;
-        }
-
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(resultDir)) {
-            for (Path path : stream) {
-                if (Files.isRegularFile(path)) {
-                    Map<String, Object> docInfo = new HashMap<>();
-                    docInfo.put("fileName", path.getFileName().toString());
-                    docInfo.put("filePath", path.toString());
-                    docInfo.put("fileSize", Files.size(path));
-                    docInfo.put("lastModified", Files.getLastModifiedTime(path).toString());
-                    processedDocs.add(docInfo);
-                }
-            }
-        }
+    // 처리된 문서 목록 조회 - 메모리 색인에서 정렬/접두사 필터/페이지 처리 (디스크를 다시 훑지 않음)
+    public Map<String, Object> getProcessedDocumentsList(String sort, String order, String prefix, int page, int size) {
+        int pageSize = Math.min(size, maxListPageSize);
+        CatalogPage catalogPage = processedDocumentCatalog.query(sort, !"asc".equalsIgnoreCase(order), prefix,
+            page, pageSize);
 
-        log.info("처리된 문서 목록 조회: {} 개", processedDocs.size());
-        return processedDocs;
+        List<Map<String, Object>> processedDocs = new ArrayList<>();
+        catalogPage.items().forEach(entry -> processedDocs.add(processedDocumentCatalog.toMap(entry)));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", processedDocs);
+        response.put("total", catalogPage.total());
+        response.put("page", catalogPage.page());
+        response.put("size", catalogPage.size());
+        return response;
     }
 
     // 결과 파일명 생성 (새로운 네이밍 규칙)
@@ -204,22 +339,26 @@ public class DocumentService {
         }
     }
 
-    public String extractTextFromDoc(byte[] content) throws Exception {
-        try (ByteArrayInputStream bis = new ByteArrayInputStream(content);
-            XWPFDocument document = new XWPFDocument(bis);
-            XWPFWordExtractor extractor = new XWPFWordExtractor(document)) {
-
-            return extractor.getText();
+    public String convertDocxToMarkdown(Document document) throws IOException, InterruptedException {
+        if ("pandoc".equalsIgnoreCase(markdownConverter)) {
+            return convertDocxToMarkdownWithPandoc(document);
         }
+        log.info("DOCX를 마크다운으로 변환 (POI): 문서 ID {}", document.getId());
+        return docxMarkdownConverter.convert(loadContent(document));
     }
-    public String convertDocxToMarkdown(Document document) throws IOException, InterruptedException {
+
+    // pandoc 프로세스를 이용한 변환 (document.markdown.converter=pandoc 일 때 사용)
+    private String convertDocxToMarkdownWithPandoc(Document document) throws IOException, InterruptedException {
         // 1. Document 엔티티로부터 byte[] 콘텐츠를 가져옵니다.
-        byte[] docxContent = document.getContent();
+        byte[] docxContent = loadContent(document);
 
         // 2. byte[]를 임시 DOCX 파일로 생성합니다.
         Path tempInputFile = Files.createTempFile("input_", ".docx");
         Files.write(tempInputFile, docxContent);
 
+        // stderr를 파이프 대신 파일로 받아 stdout을 읽는 동안 버퍼가 차서 멈추는 것을 방지
+        Path tempErrorFile = Files.createTempFile("pandoc_", ".err");
+
         log.info("DOCX를 마크다운으로 변환 시작: {}", tempInputFile);
 
         String markdownContent;
@@ -231,6 +370,7 @@ public class DocumentService {
                 "-t", "gfm",       // 출력 포맷: GitHub Flavored Markdown
                 tempInputFile.toAbsolutePath().toString()
             );
+            processBuilder.redirectError(tempErrorFile.toFile());
 
             // 4. Pandoc 실행 및 결과 읽기
             Process process = processBuilder.start();
@@ -246,210 +386,388 @@ public class DocumentService {
             // 5. 프로세스 에러 처리
             int exitCode = process.waitFor();
             if (exitCode != 0) {
-                String errorOutput = new String(process.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
+                String errorOutput = Files.readString(tempErrorFile, StandardCharsets.UTF_8);
                 log.error("Pandoc 실행 오류 (Exit code: {}): {}", exitCode, errorOutput);
                 throw new RuntimeException("DOCX를 Markdown으로 변환하는 데 실패했습니다.");
             }
         } finally {
             // 6. 사용이 끝난 임시 파일 삭제
             Files.deleteIfExists(tempInputFile);
+            Files.deleteIfExists(tempErrorFile);
             log.info("임시 파일 삭제 완료: {}", tempInputFile);
         }
         return markdownContent;
     }
 
     @Transactional(readOnly = true)
-    public byte[] getTemplateContentById(Long documentId) {
-        // 1. ID를 사용해 데이터베이스에서 Document 엔티티를 찾습니다.
-        Document document = documentRepository.findById(documentId)
+    public String getTemplateContentHashById(Long documentId) {
+        // 저장소에 있는 문서는 해시 컬럼만 조회합니다.
+        Optional<String> contentHash = documentRepository.findContentHashById(documentId);
+        if (contentHash.isPresent()) {
+            return contentHash.get();
+        }
+        // 이전 업로드는 content 컬럼만 조회해 해시를 계산합니다. (extractedText와 엔티티 스냅샷은 만들지 않음)
+        byte[] content = documentRepository.findContentById(documentId)
             .orElseThrow(() -> new RuntimeException("문서를 찾을 수 없습니다: " + documentId));
-
-        // 2. 엔티티가 가지고 있는 content 필드(byte[])를 직접 반환합니다.
-        //    파일 시스템을 전혀 참조할 필요가 없습니다.
-        return document.getContent();
+        return HashUtils.sha256Hex(content);
     }
 
     @Transactional(readOnly = true)
-    public Optional<Document> findDocumentByName(String fileName) {
-        // Repository를 사용해 파일 이름으로 문서를 찾습니다.
-        return documentRepository.findByFileName(fileName);
+    public Optional<Long> findDocumentIdByName(String fileName) {
+        // 파일 이름으로 id만 조회합니다.
+        return documentRepository.findIdByFileName(fileName);
     }
 
     // json 내용 채우기
-    @Transactional(readOnly = true)
+    // LLM 호출 동안 DB 커넥션을 점유하지 않도록 트랜잭션 없이 실행 (스키마 캐시 저장은 별도 커밋)
     public byte[] fillDocxTemplateWithJson(String extractedText, Long documentId) throws IOException, InterruptedException {
+        return fillDocxTemplateWithJson(extractedText, documentId, FillProgressListener.NONE);
+    }
+
+    // 단계별 진행 상황을 listener로 알리면서 템플릿 채우기 (비동기 작업에서 사용)
+    public byte[] fillDocxTemplateWithJson(String extractedText, Long documentId, FillProgressListener listener)
+        throws IOException, InterruptedException {
+        PreparedTemplate template = prepareTemplate(documentId, listener);
+        return fillPreparedTemplate(template, extractedText, listener);
+    }
+
+    // 결과 DOCX를 out(결과 파일 등)에 바로 쓰는 채우기 - 결과를 byte[]로 모으지 않는다
+    public void fillDocxTemplateWithJson(String extractedText, Long documentId, FillProgressListener listener,
+        OutputStream out) throws IOException, InterruptedException {
+        renderFilledTemplate(fillTemplateJson(extractedText, documentId, listener), listener, out);
+    }
+
+    /**
+     * 템플릿 원본과 JSON 스키마를 한 번만 준비 (배치 채우기에서 여러 건이 공유)
+     */
+    public PreparedTemplate prepareTemplate(Long documentId, FillProgressListener listener)
+        throws IOException, InterruptedException {
         Document document = documentRepository.findById(documentId)
-            .orElseThrow(() -> new RuntimeException("문서를 찾을 수 없습니다. ID: " + documentId));        // Docx를 Markdown으로 변경
-
-        String markdownContentBefore = convertDocxToMarkdown(document);
-        // Markdown을 JSON으로 변경
-        String jsonBefore = geminiService.makeJsonBefore(markdownContentBefore);
-        System.out.println("JsonBefore: " + jsonBefore);
-        // JSON을 완성된 JSON으로 변경
-        String jsonAfter = gptService.generateResponse(jsonBefore, extractedText)
-            .replaceAll("(?i)```json", "")
-            .replace("```", "")
-            .trim();;
-        System.out.println("JsonAfter: " + jsonAfter);
-        // 1. DB에서 원본 템플릿 문서를 찾습니다.
-        Document templateDocument = documentRepository.findById(documentId)
-            .orElseThrow(() -> new RuntimeException("문서를 찾을 수 없습니다: " + documentId));
+            .orElseThrow(() -> new RuntimeException("문서를 찾을 수 없습니다. ID: " + documentId));
 
-        // 2. 문서의 원본 내용(byte[])을 InputStream으로 변환합니다.
-        InputStream templateInputStream = new ByteArrayInputStream(templateDocument.getContent());
+        // Docx -> Markdown -> JSON 스키마 (동일 템플릿이면 캐시 사용)
+        String jsonBefore = getTemplateSchema(document, listener);
+        log.debug("JSON 스키마 준비 완료. 문서 ID: {}, {}자", document.getId(), jsonBefore.length());
+        return new PreparedTemplate(document.getId(), document.getFileName(), loadContent(document),
+            contentHashOf(document), jsonBefore);
+    }
 
-        // 3. JSON을 평탄화된 Map으로 변환합니다.
-        Map<String, String> dataMap = flattenJsonToMap(jsonAfter);
-        System.out.println("dataMap: " + dataMap);
+    // 준비된 템플릿에 추출 텍스트 한 건을 채워 DOCX 생성 (GPT 채우기 + 렌더링)
+    public byte[] fillPreparedTemplate(PreparedTemplate template, String extractedText, FillProgressListener listener)
+        throws IOException, InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(template.content().length + 1024);
+        renderFilledTemplate(fillTemplateJson(template, extractedText, listener), listener, out);
+        return out.toByteArray();
+    }
 
-        try (XWPFDocument doc = new XWPFDocument(templateInputStream)) {
-            // 일반 문단 교체: 문서 전체의 문단을 순회하며 교체
-            for (XWPFParagraph p : doc.getParagraphs()) {
-                replacePlaceholdersInParagraph(p, dataMap);
-            }
+    /**
+     * LLM 채우기(JSON after)까지만 실행
+     * 응답으로 바로 렌더링할 때 LLM 실패를 스트리밍 시작 전에 오류 응답으로 돌려줄 수 있도록 렌더링과 나눈다.
+     */
+    public FilledTemplate fillTemplateJson(String extractedText, Long documentId, FillProgressListener listener)
+        throws IOException, InterruptedException {
+        return fillTemplateJson(prepareTemplate(documentId, listener), extractedText, listener);
+    }
 
-            // 표 안의 내용 교체: 표를 순회하며 텍스트를 교체
-            for (XWPFTable table : doc.getTables()) {
-                for (XWPFTableRow row : table.getRows()) {
-                    for (XWPFTableCell cell : row.getTableCells()) {
-                        for (XWPFParagraph p : cell.getParagraphs()) {
-                            replacePlaceholdersInParagraph(p, dataMap);
-                        }
-                    }
-                }
-            }
+    public FilledTemplate fillTemplateJson(PreparedTemplate template, String extractedText, FillProgressListener listener)
+        throws IOException, InterruptedException {
+        // JSON을 완성된 JSON으로 변경 (같은 스키마 + 같은 텍스트면 캐시 사용)
+        String jsonAfter = getFilledJson(template.schemaJson(), extractedText, listener);
+        log.debug("채우기 JSON 준비 완료. 문서 ID: {}, {}자", template.documentId(), jsonAfter.length());
+        return new FilledTemplate(template, jsonAfter);
+    }
 
-            // 5. 수정된 문서를 byte 배열로 변환하여 반환
-            try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                doc.write(baos);
-                log.info("DOCX 템플릿 채우기 완료. 문서 ID: {}", documentId);
-                return baos.toByteArray();
-            }
-        }
+    // 채운 JSON으로 템플릿을 렌더링해 out에 바로 쓴다 (out은 닫지 않음)
+    public void renderFilledTemplate(FilledTemplate filled, FillProgressListener listener, OutputStream out)
+        throws IOException, InterruptedException {
+        runStage(FillStage.RENDER, listener, () -> withDocumentBulkhead(() -> {
+            renderTemplate(filled, out);
+            return null;
+        }));
     }
 
     /**
-     * 중첩된 JSON을 평탄한 Map으로 변환
+     * 응답 스트림에 바로 렌더링하고, document.result.stream-tee가 켜져 있으면 같은 내용을 결과 폴더에도 남긴다
+     * 사본은 결과 문서 색인에 등록되어 /processed-list에 보이고, 보관 기간이 지나면 purgeStreamedCopies가 지운다.
+     * 렌더링하는 동안 문서 처리 벌크헤드 자리를 잡고 있으므로 느린 클라이언트는 그만큼 자리를 오래 쓴다.
      */
-    public Map<String, String> flattenJsonToMap(String jsonString) {
-        Map<String, String> dataMap = new HashMap<>();
-        ObjectMapper objectMapper = new ObjectMapper();
+    public void streamFilledTemplate(FilledTemplate filled, OutputStream out) throws IOException, InterruptedException {
+        if (!streamTeeEnabled) {
+            renderFilledTemplate(filled, FillProgressListener.NONE, out);
+            return;
+        }
 
-        try {
-            JsonNode rootNode = objectMapper.readTree(jsonString);
-            flattenNodeWithLabel(null, rootNode, dataMap);
-        } catch (JsonProcessingException e) {
-            // JSON 파싱 에러는 그대로 로깅
-            log.error("JSON 파싱 에러", e);
-        }
-        return dataMap;
-    }
-
-    private void flattenNodeWithLabel(String parentKey, JsonNode node, Map<String, String> map) {
-        if (node.isObject()) {
-            if (node.has("label") && node.has("value")) {
-                // 'label'과 'value'를 가진 객체는 'label'을 키로 사용하여 map에 추가
-                map.put(node.get("label").asText(), node.get("value").asText());
-            } else {
-                // 그 외 객체는 자식 노드를 순회
-                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
-                while (fields.hasNext()) {
-                    Map.Entry<String, JsonNode> field = fields.next();
-                    flattenNodeWithLabel(field.getKey(), field.getValue(), map);
-                }
-            }
-        } else if (node.isArray()) {
-            // 배열은 각 요소를 순회하며 재귀 호출
-            for (JsonNode arrayElement : node) {
-                flattenNodeWithLabel(parentKey, arrayElement, map);
-            }
-        } else if (node.isTextual() && parentKey != null) {
-            // 최상위 레벨의 단순 키-값 쌍 처리 (예: "title", "recipient")
-            map.put(parentKey, node.asText());
+        Path teeFile = Paths.get(resultPath,
+            STREAM_COPY_PREFIX + filled.template().documentId() + "-" + UUID.randomUUID() + ".docx");
+        // 다 쓸 때까지는 색인하지 않는 .tmp 이름으로 쓴다
+        Path partFile = teeFile.resolveSibling(teeFile.getFileName() + ".tmp");
+        Files.createDirectories(teeFile.getParent());
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+            renderFilledTemplate(filled, FillProgressListener.NONE,
+                new TeeOutputStream(StreamUtils.nonClosing(out), file));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            // 클라이언트가 중간에 끊으면 불완전한 사본을 남기지 않는다
+            Files.deleteIfExists(partFile);
+            throw e;
+        }
+        Files.move(partFile, teeFile);
+        processedDocumentCatalog.register(teeFile);
+        log.debug("스트리밍 결과 사본 저장: {}", teeFile);
+    }
+
+    // 보관 기간이 지난 스트리밍 결과 사본 정리 (사본 저장을 끈 뒤에도 남아 있는 파일까지)
+    @Scheduled(fixedDelayString = "${document.result.stream-tee-purge-interval-ms:3600000}")
+    public void purgeStreamedCopies() {
+        int deleted = processedDocumentCatalog.deleteOlderThan(STREAM_COPY_PREFIX,
+            Duration.ofHours(streamTeeRetentionHours));
+        if (deleted > 0) {
+            log.info("보관 기간이 지난 스트리밍 결과 사본 {} 건 삭제", deleted);
         }
     }
 
     /**
-     * [신규] 재귀적으로 Map을 순회하며 키를 평탄화하는 private 헬퍼 메서드입니다.
+     * 채우기에 필요한 템플릿 정보 (원본 DOCX 바이트와 내용 해시 + "JSON before" 스키마)
      */
-    @SuppressWarnings("unchecked")
-    private void flattenRecursively(Map<String, String> flattenedMap, Map<String, Object> jsonMap, String prefix) {
-        for (Map.Entry<String, Object> entry : jsonMap.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
-            String newPrefix = prefix.isEmpty() ? key : prefix + "." + key;
-
-            if (value instanceof Map) {
-                flattenRecursively(flattenedMap, (Map<String, Object>) value, newPrefix);
-            } else if (value instanceof List) {
-                List<?> list = (List<?>) value;
-                Map<String, Integer> duplicateLabelCounter = new HashMap<>();
-                for (Object item : list) {
-                    if (item instanceof Map) {
-                        Map<String, Object> itemMap = (Map<String, Object>) item;
-                        String label = (String) itemMap.get("label"); // 'label'을 기준으로 고유 키 생성
-                        int count = duplicateLabelCounter.getOrDefault(label, 0);
-                        String uniquePrefix = newPrefix + "[" + count + "]"; // 예: table.운임[0]
-                        if(label != null && !label.isEmpty()){
-                            uniquePrefix = newPrefix + "." + label + "[" + count + "]";
-                        }
-                        duplicateLabelCounter.put(label, count + 1);
-                        flattenRecursively(flattenedMap, itemMap, uniquePrefix);
-                    }
-                }
-            } else if (value != null) {
-                flattenedMap.put(newPrefix, value.toString());
+    public record PreparedTemplate(Long documentId, String fileName, byte[] content, String contentHash,
+        String schemaJson) {
+    }
+
+    /**
+     * 렌더링만 남은 채우기 결과 (템플릿 + "JSON after")
+     */
+    public record FilledTemplate(PreparedTemplate template, String jsonAfter) {
+    }
+
+    private void renderTemplate(FilledTemplate filled, OutputStream out) throws IOException {
+        // 1. JSON을 평탄화된 Map으로 변환합니다.
+        Map<String, String> dataMap = filledJsonFlattener.flatten(filled.jsonAfter());
+        log.debug("자리 표시자 값 {}개", dataMap.size());
+
+        // 2. 설정된 렌더러로 자리 표시자를 채운 문서를 out에 바로 씁니다.
+        templateRenderer().render(filled.template().content(), filled.template().contentHash(), dataMap, out);
+        log.info("DOCX 템플릿 채우기 완료. 문서 ID: {}", filled.template().documentId());
+    }
+
+    private DocxTemplateRenderer templateRenderer() {
+        return "poi".equalsIgnoreCase(renderEngine) ? poiDocxTemplateRenderer : staxDocxTemplateRenderer;
+    }
+
+    /**
+     * 템플릿 내용 해시로 스키마 캐시를 조회하고, 미스일 때는 DOCX 구조에서 직접 추출
+     * 로컬 추출의 신뢰도가 기준보다 낮을 때만 Markdown 변환 + Gemini 단계를 실행
+     */
+    private String getTemplateSchema(Document document, FillProgressListener listener)
+        throws IOException, InterruptedException {
+        String contentHash = contentHashOf(document);
+        Optional<String> cachedSchema = templateSchemaCacheService.find(contentHash);
+        if (cachedSchema.isPresent()) {
+            log.info("템플릿 스키마 캐시 적중. 문서 ID: {}", document.getId());
+            skipStage(listener, FillStage.MARKDOWN);
+            skipStage(listener, FillStage.SCHEMA);
+            return cachedSchema.get();
+        }
+
+        if ("local".equalsIgnoreCase(schemaExtractor)) {
+            byte[] content = loadContent(document);
+            LocalSchemaExtractor.Extraction extraction =
+                withDocumentBulkhead(() -> localSchemaExtractor.extract(content));
+            if (extraction.confidence() >= localSchemaMinConfidence) {
+                skipStage(listener, FillStage.MARKDOWN);
+                String jsonBefore = runStage(FillStage.SCHEMA, listener, extraction::schemaJson);
+                templateSchemaCacheService.put(contentHash, jsonBefore);
+                return jsonBefore;
             }
+            log.info("로컬 스키마 추출 신뢰도 {} < {} - Gemini로 분석합니다. 문서 ID: {}",
+                extraction.confidence(), localSchemaMinConfidence, document.getId());
         }
+
+        String markdownContentBefore = runStage(FillStage.MARKDOWN, listener,
+            () -> withDocumentBulkhead(() -> convertDocxToMarkdown(document)));
+        // Markdown을 JSON으로 변경 (Gemini가 느리거나 실패하면 OpenAI로 헤지 / 전환, JSON 객체가 아니면 캐시하지 않고 실패 처리)
+        String jsonBefore = runStage(FillStage.SCHEMA, listener, () -> templateJsonValidator.write(
+            templateJsonValidator.parseSchema(llmHedger.execute("schema",
+                LlmProvider.GEMINI, () -> geminiService.makeJsonBefore(markdownContentBefore),
+                LlmProvider.OPENAI, () -> gptService.makeJsonBefore(markdownContentBefore)).value())));
+        templateSchemaCacheService.put(contentHash, jsonBefore);
+        return jsonBefore;
     }
 
     /**
-     * [신규] 문단 내의 자리 표시자를 교체하는 private 헬퍼 메서드입니다.
+     * 결정적 모드에서는 (스키마, 정규화 텍스트, 모델, 프롬프트 버전) 키로 결과 캐시를 조회하고, 미스일 때만 GPT를 호출
      */
-    private void replacePlaceholdersInParagraph(XWPFParagraph paragraph, Map<String, String> data) {
-        String text = paragraph.getText(); // 문단 전체 텍스트 가져오기
-        if (!text.contains("{{") || !text.contains("}}")) {
-            return; // 플레이스홀더가 없으면 바로 종료
+    private String getFilledJson(String jsonBefore, String extractedText, FillProgressListener listener)
+        throws IOException, InterruptedException {
+        if (!gptService.isDeterministic() || !fillResultCacheService.isEnabled()) {
+            return runStage(FillStage.FILL, listener, () -> generateFilledJson(jsonBefore, extractedText)).json();
         }
 
-        // 플레이스홀더를 찾기 위한 정규식 패턴
-        Pattern pattern = Pattern.compile("\\{\\{([^}]+)\\}\\}");
-        Matcher matcher = pattern.matcher(text);
+        FillCacheKey cacheKey = fillResultCacheService.keyOf(jsonBefore, extractedText,
+            GptService.FILL_MODEL, GptService.FILL_PROMPT_VERSION);
+        Optional<String> cachedResult = fillResultCacheService.find(cacheKey);
+        if (cachedResult.isPresent()) {
+            log.info("채우기 결과 캐시 적중: {}", cacheKey.cacheKey());
+            skipStage(listener, FillStage.FILL);
+            return cachedResult.get();
+        }
 
-        // 문단의 모든 텍스트를 하나의 문자열로 합침
-        StringBuilder builder = new StringBuilder();
-        for (XWPFRun run : paragraph.getRuns()) {
-            if (run.getText(0) != null) {
-                builder.append(run.getText(0));
-            }
+        FilledJson filled = runStage(FillStage.FILL, listener, () -> generateFilledJson(jsonBefore, extractedText));
+        // 캐시 키의 모델(GPT)이 아닌 제공자가 만든 결과는 저장하지 않는다
+        if (filled.cacheable()) {
+            fillResultCacheService.put(cacheKey, filled.json());
         }
+        return filled.json();
+    }
 
-        String currentText = builder.toString();
+    // 채우기 결과와 결과 캐시에 저장해도 되는지 여부 (GPT 대신 Gemini가 채웠으면 false)
+    private record FilledJson(String json, boolean cacheable) {
+    }
 
-        // 매칭되는 모든 플레이스홀더를 찾아서 교체
-        while (matcher.find()) {
-            String placeholder = matcher.group(0); // 예: {{이름}}
-            String key = matcher.group(1).trim();  // 예: 이름
+    private FilledJson generateFilledJson(String jsonBefore, String extractedText) {
+        if (!fillRulesEnabled) {
+            return callLlmFill(jsonBefore, extractedText);
+        }
 
-            // dataMap에서 키에 해당하는 값을 가져옵니다.
-            // 키가 없거나 값이 null인 경우, 기본값으로 빈 문자열을 사용합니다.
-            String value = data.getOrDefault(key, "");
+        // 1. 규칙으로 확정할 수 있는 필드를 먼저 채운다
+        ReceiptFieldExtractor.Resolution resolution = receiptFieldExtractor.resolve(jsonBefore, extractedText);
+        countFilledFields("rules", resolution.resolvedCount());
+        countFilledFields("gpt", resolution.unresolvedCount());
+        if (resolution.resolvedCount() == 0) {
+            return callLlmFill(jsonBefore, extractedText);
+        }
+        if (resolution.isComplete()) {
+            log.info("모든 필드를 규칙으로 채워 GPT 호출을 생략합니다.");
+            return new FilledJson(resolution.merge(null), true);
+        }
 
-            // 플레이스홀더를 값으로 교체합니다.
-            currentText = currentText.replace(placeholder, value);
+        // 2. 남은 필드만 GPT로 채우고 합친다
+        FilledJson remaining = callLlmFill(resolution.unresolvedSchemaJson(), extractedText);
+        return new FilledJson(resolution.merge(remaining.json()), remaining.cacheable());
+    }
+
+    /**
+     * GPT 채우기(느리거나 실패하면 Gemini로 헤지 / 전환) 결과를 스키마로 검증하고,
+     * 맞지 않는 필드만 부분 스키마로 다시 요청해 합친다
+     * 복구하지 못한 필드는 빈 값으로 남긴다 (전체 파이프라인을 다시 돌리지 않는다)
+     */
+    private FilledJson callLlmFill(String jsonBefore, String extractedText) {
+        ObjectNode schema = templateJsonValidator.parseSchema(jsonBefore);
+        LlmHedger.Hedged<String> output = llmHedger.execute("fill",
+            LlmProvider.OPENAI, () -> gptService.generateResponse(jsonBefore, extractedText),
+            LlmProvider.GEMINI, () -> geminiService.generateFill(jsonBefore, extractedText));
+        TemplateJsonValidator.Validation validation = templateJsonValidator.validate(schema, output.value());
+        if (validation.isValid()) {
+            return new FilledJson(templateJsonValidator.write(validation.json()), output.fromPrimary());
         }
 
-        // 교체된 텍스트가 있으면 문단을 재구성
-        if (!currentText.equals(text)) {
-            // 기존의 모든 Run 삭제
-            List<XWPFRun> runs = paragraph.getRuns();
-            for (int i = runs.size() - 1; i >= 0; i--) {
-                paragraph.removeRun(i);
+        for (int attempt = 1; attempt <= fillRepairMaxAttempts && !validation.isValid(); attempt++) {
+            log.warn("채우기 결과 중 양식과 맞지 않는 필드 {} - 해당 필드만 다시 요청합니다. ({}회)",
+                validation.invalidKeys(), attempt);
+            ObjectNode repairSchema = templateJsonValidator.subSchema(schema, validation.invalidKeys());
+            try {
+                String repaired = gptService.repairResponse(templateJsonValidator.write(repairSchema),
+                    validation.invalidFragment(), extractedText);
+                validation = validation.merge(templateJsonValidator.validate(repairSchema, repaired));
+            } catch (RuntimeException e) {
+                // 복구 요청 실패 - 나머지 필드로 문서를 만든다
+                log.warn("채우기 복구 요청 실패: {}", e.getMessage());
+                break;
             }
+        }
+
+        if (!validation.isValid()) {
+            log.warn("복구하지 못한 필드 {}는 빈 값으로 채웁니다.", validation.invalidKeys());
+        }
+        Counter.builder("document.fill.repairs")
+            .description("채우기 결과 부분 복구 횟수 (outcome: repaired | failed)")
+            .tag("outcome", validation.isValid() ? "repaired" : "failed")
+            .register(meterRegistry)
+            .increment();
+        // 일부 필드가 비어 있는 결과는 캐시하지 않는다 (다음 요청에서 다시 채워 볼 수 있도록)
+        return new FilledJson(templateJsonValidator.write(validation.json()),
+            output.fromPrimary() && validation.isValid());
+    }
+
+    /**
+     * 단계 실행 + 진행 알림 + 지표 기록
+     * - document.fill.stage: 단계별 소요 시간 (outcome: success | error)
+     * - document.fill.errors: 단계별 실패 횟수 (cause: LLM 실패 원인 또는 예외 클래스 이름)
+     */
+    private <T> T runStage(FillStage stage, FillProgressListener listener, StageTask<T> task)
+        throws IOException, InterruptedException {
+        listener.onStageStarted(stage);
+        long startedAt = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = task.run();
+            outcome = "success";
+            listener.onStageCompleted(stage, (System.nanoTime() - startedAt) / 1_000_000);
+            return result;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            Counter.builder("document.fill.errors")
+                .description("채우기 단계 실패 횟수")
+                .tag("stage", stageTag(stage))
+                .tag("cause", causeOf(e))
+                .register(meterRegistry)
+                .increment();
+            throw e;
+        } finally {
+            Timer.builder("document.fill.stage")
+                .description("채우기 단계 소요 시간")
+                .tag("stage", stageTag(stage))
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
 
-            // 새로운 Run 생성 및 텍스트 설정
-            XWPFRun newRun = paragraph.createRun();
-            newRun.setText(currentText);
+    // 문서 처리 벌크헤드 자리를 얻어 실행 (가득 차면 BulkheadFullException)
+    private <T> T withDocumentBulkhead(StageTask<T> task) throws IOException, InterruptedException {
+        Bulkhead.Permit permit = documentBulkhead.enter();
+        try {
+            return task.run();
+        } finally {
+            permit.close();
         }
     }
-}
+
+    // 캐시 적중 등으로 건너뛴 단계
+    private void skipStage(FillProgressListener listener, FillStage stage) {
+        listener.onStageSkipped(stage);
+        Counter.builder("document.fill.stage.skipped")
+            .description("캐시 적중 등으로 건너뛴 채우기 단계 수")
+            .tag("stage", stageTag(stage))
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // 규칙으로 채운 필드 수 (GPT로 보낸 필드 수와 비교해 규칙 적중률을 본다)
+    private void countFilledFields(String source, int fields) {
+        Counter.builder("document.fill.fields")
+            .description("채운 필드 수 (source: rules | gpt)")
+            .tag("source", source)
+            .register(meterRegistry)
+            .increment(fields);
+    }
+
+    private static String stageTag(FillStage stage) {
+        return stage.name().toLowerCase();
+    }
+
+    // 원인 사슬에 LLM 게이트웨이 예외가 있으면 그 분류(rate_limited 등)를, 없으면 가장 안쪽 예외 클래스 이름을 쓴다
+    private static String causeOf(Throwable error) {
+        Throwable current = error;
+        while (true) {
+            if (current instanceof LlmGatewayException gatewayException) {
+                return gatewayException.getReason().name().toLowerCase();
+            }
+            if (current.getCause() == null || current.getCause() == current) {
+                return current.getClass().getSimpleName();
+            }
+            current = current.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageTask<T> {
+        T run() throws IOException, InterruptedException;
+    }}
@@ -0,0 +1,338 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblGrid;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTblGridCol;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
+import org.springframework.stereotype.Component;
+
+/**
+ * POI XWPF 모델 기반 DOCX -> GFM 변환기 (pandoc -t gfm 대체)
+ * 표는 병합 셀이 있는 양식이 대부분이므로 pandoc과 같은 HTML 표 형식으로 출력한다.
+ */
+@Component
+public class DocxMarkdownConverter {
+
+    private static final Pattern HEADING_STYLE = Pattern.compile("(?i)heading\\s*([1-6])");
+
+    private final PoiPackageLoader packageLoader;
+
+    public DocxMarkdownConverter(PoiPackageLoader packageLoader) {
+        this.packageLoader = packageLoader;
+    }
+
+    public String convert(byte[] docxContent) throws IOException {
+        try (PoiPackageLoader.LoadedDocument loaded = packageLoader.open(docxContent)) {
+            XWPFDocument document = loaded.document();
+            List<String> blocks = new ArrayList<>();
+            for (IBodyElement element : document.getBodyElements()) {
+                if (element instanceof XWPFParagraph paragraph) {
+                    String block = renderParagraph(document, paragraph);
+                    if (!block.isBlank()) {
+                        blocks.add(block);
+                    }
+                } else if (element instanceof XWPFTable table) {
+                    blocks.add(renderTable(table));
+                }
+            }
+            return String.join("\n\n", blocks) + "\n";
+        }
+    }
+
+    // ---------------------------------------------------------------- 문단
+
+    private String renderParagraph(XWPFDocument document, XWPFParagraph paragraph) {
+        String text = renderRunsAsMarkdown(paragraph);
+        if (text.isBlank()) {
+            return "";
+        }
+
+        int headingLevel = headingLevel(document, paragraph);
+        if (headingLevel > 0) {
+            return "#".repeat(headingLevel) + " " + text;
+        }
+        if (paragraph.getNumID() != null) {
+            String prefix = "decimal".equals(paragraph.getNumFmt()) ? "1. " : "- ";
+            return prefix + text;
+        }
+        return text;
+    }
+
+    private int headingLevel(XWPFDocument document, XWPFParagraph paragraph) {
+        String styleId = paragraph.getStyle();
+        if (styleId == null || document.getStyles() == null) {
+            return 0;
+        }
+        XWPFStyle style = document.getStyles().getStyle(styleId);
+        String name = style != null && style.getName() != null ? style.getName() : styleId;
+        if ("Title".equalsIgnoreCase(name)) {
+            return 1;
+        }
+        Matcher matcher = HEADING_STYLE.matcher(name);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    private String renderRunsAsMarkdown(XWPFParagraph paragraph) {
+        StringBuilder out = new StringBuilder();
+        for (FormattedSpan span : mergeRuns(paragraph)) {
+            String text = escapeMarkdown(span.text()).replace("\n", "\\\n");
+            if (span.bold() && span.italic()) {
+                out.append("***").append(text).append("***");
+            } else if (span.bold()) {
+                out.append("**").append(text).append("**");
+            } else if (span.italic()) {
+                out.append('*').append(text).append('*');
+            } else {
+                out.append(text);
+            }
+        }
+        return out.toString().strip();
+    }
+
+    private String renderRunsAsHtml(XWPFParagraph paragraph) {
+        StringBuilder out = new StringBuilder();
+        for (FormattedSpan span : mergeRuns(paragraph)) {
+            String text = escapeHtml(span.text()).replace("\n", "<br />\n");
+            if (span.bold()) {
+                out.append("<strong>");
+            }
+            if (span.italic()) {
+                out.append("<em>");
+            }
+            out.append(text);
+            if (span.italic()) {
+                out.append("</em>");
+            }
+            if (span.bold()) {
+                out.append("</strong>");
+            }
+        }
+        return out.toString().strip();
+    }
+
+    // 서식이 같은 인접 Run을 하나로 합쳐 **a****b** 같은 출력을 방지
+    private List<FormattedSpan> mergeRuns(XWPFParagraph paragraph) {
+        List<FormattedSpan> spans = new ArrayList<>();
+        for (XWPFRun run : paragraph.getRuns()) {
+            String text = run.text();
+            if (text == null || text.isEmpty()) {
+                continue;
+            }
+            boolean bold = run.isBold();
+            boolean italic = run.isItalic();
+            int last = spans.size() - 1;
+            if (last >= 0 && spans.get(last).bold() == bold && spans.get(last).italic() == italic) {
+                FormattedSpan previous = spans.get(last);
+                spans.set(last, new FormattedSpan(previous.text() + text, bold, italic));
+            } else {
+                spans.add(new FormattedSpan(text, bold, italic));
+            }
+        }
+        return spans;
+    }
+
+    // ---------------------------------------------------------------- 표
+
+    private String renderTable(XWPFTable table) {
+        StringBuilder out = new StringBuilder("<table>\n");
+
+        List<Integer> widths = columnWidthPercents(table);
+        if (!widths.isEmpty()) {
+            out.append("<colgroup>\n");
+            for (int width : widths) {
+                out.append("<col style=\"width: ").append(width).append("%\" />\n");
+            }
+            out.append("</colgroup>\n");
+        }
+
+        out.append("<tbody>\n");
+        List<XWPFTableRow> rows = table.getRows();
+        for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+            out.append("<tr>\n");
+            int gridColumn = 0;
+            for (XWPFTableCell cell : rows.get(rowIndex).getTableCells()) {
+                int colspan = gridSpan(cell);
+                if (!isVerticalMergeContinue(cell)) {
+                    int rowspan = isVerticalMergeRestart(cell) ? rowspan(rows, rowIndex, gridColumn) : 1;
+                    out.append(renderCell(cell, colspan, rowspan)).append('\n');
+                }
+                gridColumn += colspan;
+            }
+            out.append("</tr>\n");
+        }
+        out.append("</tbody>\n</table>");
+        return out.toString();
+    }
+
+    private String renderCell(XWPFTableCell cell, int colspan, int rowspan) {
+        StringBuilder out = new StringBuilder("<td");
+        if (colspan > 1) {
+            out.append(" colspan=\"").append(colspan).append('"');
+        }
+        if (rowspan > 1) {
+            out.append(" rowspan=\"").append(rowspan).append('"');
+        }
+
+        List<String> contents = new ArrayList<>();
+        String alignment = null;
+        for (IBodyElement element : cell.getBodyElements()) {
+            if (element instanceof XWPFParagraph paragraph) {
+                String html = renderRunsAsHtml(paragraph);
+                if (!html.isEmpty()) {
+                    contents.add(html);
+                    if (alignment == null) {
+                        alignment = textAlign(paragraph);
+                    }
+                }
+            } else if (element instanceof XWPFTable nested) {
+                contents.add(renderTable(nested));
+            }
+        }
+        if (alignment != null) {
+            out.append(" style=\"text-align: ").append(alignment).append(";\"");
+        }
+        out.append('>');
+
+        // 문단이 여러 개인 셀만 <p>로 감싼다 (pandoc 동작과 동일)
+        if (contents.size() == 1) {
+            out.append(contents.get(0));
+        } else if (contents.size() > 1) {
+            for (int i = 0; i < contents.size(); i++) {
+                if (i > 0) {
+                    out.append('\n');
+                }
+                String content = contents.get(i);
+                out.append(content.startsWith("<table>") ? content : "<p>" + content + "</p>");
+            }
+        }
+        return out.append("</td>").toString();
+    }
+
+    private String textAlign(XWPFParagraph paragraph) {
+        CTPPr pPr = paragraph.getCTP().getPPr();
+        if (pPr == null || !pPr.isSetJc() || pPr.getJc().getVal() == null) {
+            return null;
+        }
+        return switch (pPr.getJc().getVal().toString()) {
+            case "center" -> "center";
+            case "right", "end" -> "right";
+            case "left", "start" -> "left";
+            default -> null;
+        };
+    }
+
+    private List<Integer> columnWidthPercents(XWPFTable table) {
+        List<Integer> percents = new ArrayList<>();
+        CTTblGrid grid = table.getCTTbl().getTblGrid();
+        if (grid == null) {
+            return percents;
+        }
+
+        List<Long> widths = new ArrayList<>();
+        long total = 0;
+        for (CTTblGridCol column : grid.getGridColList()) {
+            long width = column.isSetW() ? parseTwips(column.getW()) : 0;
+            widths.add(width);
+            total += width;
+        }
+        if (total <= 0) {
+            return percents;
+        }
+        for (long width : widths) {
+            percents.add((int) (width * 100 / total));
+        }
+        return percents;
+    }
+
+    private long parseTwips(Object width) {
+        if (width instanceof BigInteger bigInteger) {
+            return bigInteger.longValue();
+        }
+        try {
+            return Long.parseLong(String.valueOf(width));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private int gridSpan(XWPFTableCell cell) {
+        CTTcPr tcPr = cell.getCTTc().getTcPr();
+        if (tcPr == null || !tcPr.isSetGridSpan()) {
+            return 1;
+        }
+        return Math.max(1, tcPr.getGridSpan().getVal().intValue());
+    }
+
+    private boolean isVerticalMergeRestart(XWPFTableCell cell) {
+        CTTcPr tcPr = cell.getCTTc().getTcPr();
+        return tcPr != null && tcPr.isSetVMerge() && tcPr.getVMerge().getVal() == STMerge.RESTART;
+    }
+
+    private boolean isVerticalMergeContinue(XWPFTableCell cell) {
+        CTTcPr tcPr = cell.getCTTc().getTcPr();
+        // val 속성이 없는 vMerge는 continue를 의미
+        return tcPr != null && tcPr.isSetVMerge() && tcPr.getVMerge().getVal() != STMerge.RESTART;
+    }
+
+    // 같은 그리드 열에서 continue 셀이 이어지는 행 수를 센다
+    private int rowspan(List<XWPFTableRow> rows, int startRow, int gridColumn) {
+        int span = 1;
+        for (int rowIndex = startRow + 1; rowIndex < rows.size(); rowIndex++) {
+            XWPFTableCell cell = cellAtGridColumn(rows.get(rowIndex), gridColumn);
+            if (cell == null || !isVerticalMergeContinue(cell)) {
+                break;
+            }
+            span++;
+        }
+        return span;
+    }
+
+    private XWPFTableCell cellAtGridColumn(XWPFTableRow row, int gridColumn) {
+        int column = 0;
+        for (XWPFTableCell cell : row.getTableCells()) {
+            if (column == gridColumn) {
+                return cell;
+            }
+            column += gridSpan(cell);
+            if (column > gridColumn) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // ---------------------------------------------------------------- 이스케이프
+
+    private String escapeMarkdown(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == '\\' || c == '*' || c == '_' || c == '`' || c == '<' || c == '[' || c == ']') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        return out.toString();
+    }
+
+    private String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private record FormattedSpan(String text, boolean bold, boolean italic) {
+    }
+}
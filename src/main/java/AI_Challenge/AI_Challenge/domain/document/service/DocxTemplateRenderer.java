@@ -0,0 +1,25 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * DOCX 템플릿의 {{키}} 자리 표시자를 값으로 채워 새 DOCX를 만드는 렌더러
+ */
+public interface DocxTemplateRenderer {
+
+    /**
+     * 결과 DOCX를 out에 바로 쓴다 (out은 닫지 않는다)
+     * contentHash는 호출자가 이미 알고 있는 템플릿 SHA-256 (템플릿별 색인을 캐시하는 렌더러의 키)
+     */
+    void render(byte[] template, String contentHash, Map<String, String> data, OutputStream out)
+        throws IOException;
+
+    default byte[] render(byte[] template, String contentHash, Map<String, String> data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(template.length + 1024);
+        render(template, contentHash, data, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,29 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 업로드된 DOCX의 본문 텍스트 추출
+ * 저장된 파일을 직접 열어 파트를 필요할 때만 읽는다 (이미지 등은 힙에 올리지 않음, 메모리 예산을 넘으면 413)
+ */
+@Component
+public class DocxTextExtractor {
+
+    private final PoiPackageLoader packageLoader;
+
+    public DocxTextExtractor(PoiPackageLoader packageLoader) {
+        this.packageLoader = packageLoader;
+    }
+
+    public String extract(Path file) throws IOException {
+        try (PoiPackageLoader.LoadedDocument loaded = packageLoader.open(file);
+            XWPFWordExtractor extractor = new XWPFWordExtractor(loaded.document())) {
+            // 패키지는 LoadedDocument가 닫는다
+            extractor.setCloseFilesystem(false);
+            return extractor.getText();
+        }
+    }
+}
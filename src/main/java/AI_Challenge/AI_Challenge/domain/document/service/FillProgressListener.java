@@ -0,0 +1,22 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import AI_Challenge.AI_Challenge.domain.document.entity.FillStage;
+
+/**
+ * 템플릿 채우기 단계 진행 상황 콜백
+ */
+public interface FillProgressListener {
+
+    FillProgressListener NONE = new FillProgressListener() {
+    };
+
+    default void onStageStarted(FillStage stage) {
+    }
+
+    default void onStageCompleted(FillStage stage, long elapsedMillis) {
+    }
+
+    // 캐시 적중 등으로 단계를 건너뛴 경우
+    default void onStageSkipped(FillStage stage) {
+    }
+}
@@ -0,0 +1,191 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import AI_Challenge.AI_Challenge.domain.document.entity.FillResult;
+import AI_Challenge.AI_Challenge.domain.document.repository.FillResultRepository;
+import AI_Challenge.AI_Challenge.global.common.HashUtils;
+import AI_Challenge.AI_Challenge.global.common.TwoTierCache;
+import AI_Challenge.AI_Challenge.global.common.TwoTierCache.StoredValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * GPT 채우기 결과("JSON after") 캐시
+ * 1차: 힙 내 LRU, 2차: fill_results 테이블
+ * 같은 입력에 같은 답이 나오는 결정적 모드(temperature 0)에서만 사용한다.
+ */
+@Service
+@Slf4j
+public class FillResultCacheService implements MeterBinder {
+
+    private static final Pattern HORIZONTAL_WHITESPACE = Pattern.compile("[\\h\\x0B\\f]+");
+    private static final Pattern BLANK_LINES = Pattern.compile("\n{3,}");
+
+    private final FillResultRepository fillResultRepository;
+    private final ObjectMapper objectMapper;
+    private final TwoTierCache<FillCacheKey> cache;
+    private final boolean enabled;
+
+    public FillResultCacheService(FillResultRepository fillResultRepository, ObjectMapper objectMapper,
+        @Value("${document.fill-cache.enabled:true}") boolean enabled,
+        @Value("${document.fill-cache.memory-max-entries:256}") int memoryMaxEntries,
+        @Value("${document.fill-cache.store-max-entries:10000}") int storeMaxEntries,
+        @Value("${document.fill-cache.ttl-hours:168}") long ttlHours) {
+        this.fillResultRepository = fillResultRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.cache = new TwoTierCache<>("fill-result", new ResultStore(),
+            memoryMaxEntries, storeMaxEntries, Duration.ofHours(ttlHours));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 캐시 키 = SHA-256(스키마 해시 | 정규화 텍스트 해시 | 모델 | 프롬프트 버전)
+     */
+    public FillCacheKey keyOf(String schemaJson, String extractedText, String model, String promptVersion) {
+        String schemaHash = HashUtils.sha256Hex(schemaJson);
+        String textHash = HashUtils.sha256Hex(normalize(extractedText));
+        String cacheKey = HashUtils.sha256Hex(String.join("|", schemaHash, textHash, model, promptVersion));
+        return new FillCacheKey(cacheKey, schemaHash, model, promptVersion);
+    }
+
+    public Optional<String> find(FillCacheKey key) {
+        return cache.find(key);
+    }
+
+    public void put(FillCacheKey key, String resultJson) {
+        // 잘린 응답 등 JSON으로 읽을 수 없는 결과는 저장하지 않는다
+        if (!isJsonObject(resultJson)) {
+            log.warn("JSON 객체가 아닌 GPT 응답은 캐시하지 않습니다: {}", key.cacheKey());
+            return;
+        }
+        cache.put(key, resultJson);
+    }
+
+    @Transactional
+    public void invalidateAll() {
+        cache.clear();
+        log.info("채우기 결과 캐시 전체 무효화");
+    }
+
+    @Scheduled(fixedDelayString = "${document.fill-cache.purge-interval-ms:3600000}")
+    public void purge() {
+        cache.purge();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache.bindTo(registry);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.putAll(cache.getStats());
+        return stats;
+    }
+
+    /**
+     * OCR 결과의 사소한 차이(줄바꿈 형식, 연속 공백, 줄 끝 공백, 유니코드 조합형)를 제거해
+     * 같은 영수증이면 같은 키가 나오도록 정규화
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC)
+            .replace("\r\n", "\n")
+            .replace('\r', '\n');
+        StringBuilder out = new StringBuilder(normalized.length());
+        for (String line : normalized.split("\n", -1)) {
+            out.append(HORIZONTAL_WHITESPACE.matcher(line).replaceAll(" ").strip()).append('\n');
+        }
+        return BLANK_LINES.matcher(out.toString()).replaceAll("\n\n").strip();
+    }
+
+    private boolean isJsonObject(String json) {
+        try {
+            return json != null && objectMapper.readTree(json).isObject();
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    public record FillCacheKey(String cacheKey, String schemaHash, String model, String promptVersion) {
+    }
+
+    // fill_results 테이블 (키 = FillCacheKey.cacheKey, 나머지 키 필드는 새 행에 함께 저장)
+    private class ResultStore implements TwoTierCache.Store<FillCacheKey> {
+
+        @Override
+        public Optional<StoredValue> find(FillCacheKey key) {
+            return fillResultRepository.findByCacheKey(key.cacheKey())
+                .map(result -> new StoredValue(result.getResultJson(), result.getCreatedAt()));
+        }
+
+        @Override
+        public void touch(FillCacheKey key, LocalDateTime now) {
+            fillResultRepository.touch(key.cacheKey(), now);
+        }
+
+        @Override
+        public void save(FillCacheKey key, String resultJson, LocalDateTime now) {
+            FillResult result = fillResultRepository.findByCacheKey(key.cacheKey())
+                .orElse(null);
+            if (result == null) {
+                result = FillResult.builder()
+                    .cacheKey(key.cacheKey())
+                    .schemaHash(key.schemaHash())
+                    .model(key.model())
+                    .promptVersion(key.promptVersion())
+                    .resultJson(resultJson)
+                    .createdAt(now)
+                    .lastAccessedAt(now)
+                    .build();
+            } else {
+                result.refresh(resultJson, now);
+            }
+            fillResultRepository.save(result);
+        }
+
+        @Override
+        public int deleteCreatedBefore(LocalDateTime threshold) {
+            return fillResultRepository.deleteCreatedBefore(threshold);
+        }
+
+        @Override
+        public int deleteLeastRecentlyUsed(int count) {
+            List<Long> ids = fillResultRepository.findIdsByLeastRecentlyUsed(PageRequest.of(0, count));
+            fillResultRepository.deleteAllByIdInBatch(ids);
+            return ids.size();
+        }
+
+        @Override
+        public long count() {
+            return fillResultRepository.count();
+        }
+
+        @Override
+        public void deleteAll() {
+            fillResultRepository.deleteAllInBatch();
+        }
+    }
+}
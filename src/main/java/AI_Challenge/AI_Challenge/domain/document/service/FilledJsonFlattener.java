@@ -0,0 +1,59 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+/**
+ * 채우기 결과 JSON(JSON after)을 템플릿 자리 표시자 키 -> 값 Map으로 평탄화
+ * - {"label": ..., "value": ...} 객체는 label을 키로 쓴다
+ * - 그 밖의 객체와 배열은 안쪽을 순회하고, 문자열 값은 바로 위 키로 넣는다
+ */
+@Component
+public class FilledJsonFlattener {
+
+    private final ObjectMapper objectMapper;
+
+    public FilledJsonFlattener(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 파싱할 수 없으면 빈 문서를 만들지 않도록 예외를 던진다
+     */
+    public Map<String, String> flatten(String jsonString) {
+        Map<String, String> dataMap = new HashMap<>();
+        try {
+            JsonNode rootNode = objectMapper.readTree(jsonString);
+            flattenNodeWithLabel(null, rootNode, dataMap);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("채우기 JSON 파싱 실패: " + e.getOriginalMessage(), e);
+        }
+        return dataMap;
+    }
+
+    private void flattenNodeWithLabel(String parentKey, JsonNode node, Map<String, String> map) {
+        if (node.isObject()) {
+            if (node.has("label") && node.has("value")) {
+                // 'label'과 'value'를 가진 객체는 'label'을 키로 사용하여 map에 추가
+                map.put(node.get("label").asText(), node.get("value").asText());
+            } else {
+                // 그 외 객체는 자식 노드를 순회
+                for (Map.Entry<String, JsonNode> field : node.properties()) {
+                    flattenNodeWithLabel(field.getKey(), field.getValue(), map);
+                }
+            }
+        } else if (node.isArray()) {
+            // 배열은 각 요소를 순회하며 재귀 호출
+            for (JsonNode arrayElement : node) {
+                flattenNodeWithLabel(parentKey, arrayElement, map);
+            }
+        } else if (node.isTextual() && parentKey != null) {
+            // 최상위 레벨의 단순 키-값 쌍 처리 (예: "title", "recipient")
+            map.put(parentKey, node.asText());
+        }
+    }
+}
@@ -1,11 +1,36 @@
 package AI_Challenge.AI_Challenge.domain.document.service;
 
-import com.google.genai.Client;
+import AI_Challenge.AI_Challenge.domain.document.service.OcrResultCacheService.ImageFingerprint;
+import AI_Challenge.AI_Challenge.global.common.BulkheadFullException;
+import AI_Challenge.AI_Challenge.global.llm.LlmGateway;
+import AI_Challenge.AI_Challenge.global.llm.LlmGatewayException;
+import AI_Challenge.AI_Challenge.global.llm.LlmProvider;
+import AI_Challenge.AI_Challenge.global.llm.PromptCompactor;
+import com.google.genai.ResponseStream;
 import com.google.genai.types.Content;
+import com.google.genai.types.GenerateContentConfig;
 import com.google.genai.types.GenerateContentResponse;
 import com.google.genai.types.Part;
 
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -13,34 +38,119 @@ import org.springframework.web.multipart.MultipartFile;
 @Slf4j
 public class GeminiService {
 
-    private final GptService gptService;
+    private static final String OCR_MODEL = "gemini-2.5-flash-lite";
+    private static final String SCHEMA_MODEL = "gemini-2.5-flash-lite";
+    // 채우기를 GPT 대신 처리할 때 (헤지 / 장애 전환)
+    private static final String FILL_MODEL = "gemini-2.5-flash";
+    private static final String OCR_PROMPT = "이미지에서 텍스트를 추출하고 깔끔하게 정리해주세요. 추출된 텍스트를 기반으로 문서를 작성해주세요.";
 
-    public GeminiService(GptService gptService) {
-        this.gptService = gptService;
+    private final LlmGateway llmGateway;
+    private final OcrResultCacheService ocrResultCacheService;
+
+    // 다중 이미지 OCR 동시 처리용 (가상 스레드 + 동시 호출 수 제한)
+    private final ExecutorService ocrExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore ocrPermits;
+    private final Duration ocrTimeout;
+
+    public GeminiService(LlmGateway llmGateway, OcrResultCacheService ocrResultCacheService,
+        @Value("${gemini.ocr.max-concurrency:4}") int ocrMaxConcurrency,
+        @Value("${gemini.ocr.timeout-seconds:60}") long ocrTimeoutSeconds) {
+        this.llmGateway = llmGateway;
+        this.ocrResultCacheService = ocrResultCacheService;
+        this.ocrPermits = new Semaphore(ocrMaxConcurrency);
+        this.ocrTimeout = Duration.ofSeconds(ocrTimeoutSeconds);
     }
 
-    public String extractTextFromImageByGemini(MultipartFile image) {
+    @PreDestroy
+    public void shutdown() {
+        ocrExecutor.shutdownNow();
+    }
+
+    /**
+     * 여러 이미지를 동시에 OCR 처리하고 입력 순서대로 결과를 반환
+     * 실패하거나 시간 초과된 이미지는 "error" 항목으로 반환되며 나머지 결과에는 영향을 주지 않는다.
+     * 단, Gemini 벌크헤드가 가득 차 거절된 경우에는 BulkheadFullException을 던진다.
+     */
+    public List<Map<String, String>> extractTextFromImages(List<MultipartFile> images) {
+        List<Future<String>> futures = new ArrayList<>();
+        for (MultipartFile image : images) {
+            futures.add(ocrExecutor.submit(() -> extractTextWithDeadline(image)));
+        }
+
+        List<Map<String, String>> responses = new ArrayList<>();
+        for (int i = 0; i < images.size(); i++) {
+            MultipartFile image = images.get(i);
+            Map<String, String> responseMap = new HashMap<>();
+            responseMap.put("fileName", image.getOriginalFilename());
+            try {
+                responseMap.put("response", futures.get(i).get());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                // Gemini 벌크헤드가 가득 참 - 요청 전체를 429로 돌려보낸다 (완료된 이미지는 OCR 캐시에 남아 재시도가 싸다)
+                if (BulkheadFullException.findIn(cause).isPresent()) {
+                    futures.forEach(future -> future.cancel(true));
+                    BulkheadFullException.rethrowIfPresent(cause);
+                }
+                responseMap.put("error", cause instanceof TimeoutException
+                    ? "이미지 처리 시간 초과"
+                    : "이미지 처리 실패");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                responseMap.put("error", "이미지 처리 중단");
+            }
+            responses.add(responseMap);
+        }
+        return responses;
+    }
+
+    // 동시 호출 허용량을 얻은 뒤, 이미지별 제한 시간 안에 Gemini 호출을 마친다
+    private String extractTextWithDeadline(MultipartFile image) throws Exception {
+        ocrPermits.acquire();
         try {
-            Client client = new Client();
+            Future<String> call = ocrExecutor.submit(() -> extractTextFromImageByGemini(image));
+            try {
+                return call.get(ocrTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                call.cancel(true);
+                log.warn("이미지 처리 시간 초과 ({}초): {}", ocrTimeout.toSeconds(), image.getOriginalFilename());
+                throw e;
+            } catch (ExecutionException e) {
+                throw (e.getCause() instanceof Exception cause) ? cause : e;
+            }
+        } finally {
+            ocrPermits.release();
+        }
+    }
 
+    public String extractTextFromImageByGemini(MultipartFile image) {
+        try {
             // 이미지 파일을 바이트 배열로 변환
             byte[] imageBytes = image.getBytes();
 
+            // 같은 이미지(또는 지각 해시가 가까운 이미지)를 이미 처리했다면 캐시 결과 사용
+            ImageFingerprint fingerprint = ocrResultCacheService.fingerprint(imageBytes);
+            Optional<String> cached = ocrResultCacheService.find(fingerprint);
+            if (cached.isPresent()) {
+                log.info("OCR 캐시 적중: {}", image.getOriginalFilename());
+                return cached.get();
+            }
+
             // Content 객체 생성
             Content content = Content.fromParts(
-                Part.fromText("이미지에서 텍스트를 추출하고 깔끔하게 정리해주세요. 추출된 텍스트를 기반으로 문서를 작성해주세요."),
+                Part.fromText(OCR_PROMPT),
                 Part.fromBytes(imageBytes, image.getContentType())
             );
 
             // API 호출
-            GenerateContentResponse response = client.models.generateContent(
-                "gemini-2.5-flash-lite",
-                content,
-                null
-            );
+            GenerateContentResponse response = llmGateway.callGemini("ocr",
+                client -> client.models.generateContent(OCR_MODEL, content, null));
+            recordUsage(OCR_MODEL, response);
 
             log.info("이미지 처리 완료: {}", image.getOriginalFilename());
-            return response.text();
+            String text = response.text();
+            ocrResultCacheService.put(fingerprint, text);
+            return text;
 
         } catch (Exception e) {
             log.error("이미지 처리 중 오류 발생: {}", image.getOriginalFilename(), e);
@@ -48,209 +158,114 @@ public class GeminiService {
         }
     }
 
-    public String makeJsonBefore(String markdownContentBefore) {
+    /**
+     * 스트리밍 API로 OCR 결과 토큰을 listener에 전달하고, 호출을 취소하는 동작을 반환
+     */
+    public Runnable streamTextFromImage(MultipartFile image, TokenStreamListener listener) {
+        // 비동기 요청이 끝나면 업로드 임시 파일이 정리될 수 있으므로 먼저 읽어둔다
+        byte[] imageBytes;
         try {
-            Client client = new Client();
-            String markdownTemplate = """
-                **여 비 정 산 신 청 서**
-                
-                <table>
-                <colgroup>
-                <col style="width: 12%" />
-                <col style="width: 11%" />
-                <col style="width: 9%" />
-                <col style="width: 17%" />
-                <col style="width: 8%" />
-                <col style="width: 0%" />
-                <col style="width: 8%" />
-                <col style="width: 6%" />
-                <col style="width: 1%" />
-                <col style="width: 8%" />
-                <col style="width: 5%" />
-                <col style="width: 10%" />
-                </colgroup>
-                <tbody>
-                <tr>
-                <td style="text-align: center;"><strong>소 속</strong></td>
-                <td colspan="3"
-                style="text-align: center;"><strong>컴퓨터공학과</strong></td>
-                <td style="text-align: center;"><strong>직 급</strong></td>
-                <td colspan="4"
-                style="text-align: center;"><strong>석사과정</strong></td>
-                <td style="text-align: center;"><strong>성 명</strong></td>
-                <td colspan="2" style="text-align: center;"><strong>정다혜</strong></td>
-                </tr>
-                <tr>
-                <td rowspan="2"
-                style="text-align: center;"><strong>출장일정</strong></td>
-                <td style="text-align: center;"><strong>일 시</strong></td>
-                <td colspan="10" style="text-align: center;">{{일시}}</td>
-                </tr>
-                <tr>
-                <td style="text-align: center;"><strong>출장지</strong></td>
-                <td colspan="10" style="text-align: center;">{{출장지}}</td>
-                </tr>
-                <tr>
-                <td style="text-align: center;"><strong>식 비</strong></td>
-                <td style="text-align: center;"><strong>기 간</strong></td>
-                <td colspan="2" style="text-align: center;">{{식비기간}}</td>
-                <td colspan="3"
-                style="text-align: center;"><strong>식사제공횟수</strong></td>
-                <td style="text-align: center;">{{식사제공횟수}}</td>
-                <td colspan="3"
-                style="text-align: center;"><strong>식비정산금</strong></td>
-                <td style="text-align: right;">{{식비정산금}}</td>
-                </tr>
-                <tr>
-                <td rowspan="2" style="text-align: center;"><strong>숙 박
-                비</strong></td>
-                <td colspan="2"
-                style="text-align: center;"><strong>시작일자</strong></td>
-                <td style="text-align: center;"><strong>종료일자</strong></td>
-                <td colspan="4"
-                style="text-align: center;"><strong>급지등급</strong></td>
-                <td colspan="4" style="text-align: center;"><strong>금액</strong></td>
-                </tr>
-                <tr>
-                <td colspan="2" style="text-align: center;">{{숙박시작일자}}</td>
-                <td style="text-align: center;">{{숙박종료일자}}</td>
-                <td colspan="4" style="text-align: center;"><em>그 밖의 지역</em></td>
-                <td colspan="4" style="text-align: right;">{숙박비금액}}</td>
-                </tr>
-                <tr>
-                <td rowspan="5" style="text-align: center;"><strong>운 임</strong></td>
-                <td style="text-align: center;"><strong>일 자</strong></td>
-                <td style="text-align: center;"><strong>교통편</strong></td>
-                <td style="text-align: center;"><strong>출발지</strong></td>
-                <td colspan="2" style="text-align: center;"><strong>도착지</strong></td>
-                <td colspan="2" style="text-align: center;"><strong>구분</strong></td>
-                <td colspan="4" style="text-align: center;"><strong>금액</strong></td>
-                </tr>
-                <tr>
-                <td style="text-align: center;">{{일자1}}</td>
-                <td style="text-align: center;">{{교통편1}}</td>
-                <td style="text-align: center;">{{출발지1}}</td>
-                <td colspan="2" style="text-align: center;">{{도착지1}}</td>
-                <td colspan="2" style="text-align: center;"><em>{{구분1}}</em></td>
-                <td colspan="4" style="text-align: right;">{{금액1}}</td>
-                </tr>
-                <tr>
-                <td style="text-align: center;">{{일자2}}</td>
-                <td style="text-align: center;">{{교통편2}}</td>
-                <td style="text-align: center;">{{출발지2}}</td>
-                <td colspan="2" style="text-align: center;">{{도착지2}}</td>
-                <td colspan="2" style="text-align: center;"><em>{{구분2}}</em></td>
-                <td colspan="4" style="text-align: right;">{{금액2}}</td>
-                </tr>
-                <tr>
-                <td style="text-align: center;">{{일자3}}</td>
-                <td style="text-align: center;">{{교통편3}}</td>
-                <td style="text-align: center;">{{출발지3}}</td>
-                <td colspan="2" style="text-align: center;">{{도착지3}}</td>
-                <td colspan="2" style="text-align: center;"><em>{{구분3}}</em></td>
-                <td colspan="4" style="text-align: right;">{{금액3}}</td>
-                </tr>
-                <tr>
-                <td style="text-align: center;">{{일자4}}</td>
-                <td style="text-align: center;">{{교통편4}}</td>
-                <td style="text-align: center;">{{출발지4}}</td>
-                <td colspan="2" style="text-align: center;">{{도착지4}}</td>
-                <td colspan="2" style="text-align: center;"><em>{{구분4}}</em></td>
-                <td colspan="4" style="text-align: right;">{{금액4}}</td>
-                </tr>
-                <tr>
-                <td style="text-align: center;"><p><strong>출장금액</strong></p>
-                <p><strong>(합계)</strong></p></td>
-                <td colspan="5"
-                style="text-align: right;"><strong>{{</strong>출장금액<strong>}}</strong></td>
-                <td colspan="2"
-                style="text-align: center;"><strong>예산항목</strong></td>
-                <td colspan="4" style="text-align: center;">국내여비</td>
-                </tr>
-                <tr>
-                <td style="text-align: center;"><strong>비 고</strong></td>
-                <td colspan="11" style="text-align: center;">※ 공무원 여비규정을
-                준용함</td>
-                </tr>
-                <tr>
-                <td colspan="12" style="text-align: center;"><p><strong>관계서류를
-                첨부하여 위와 같이 여비의 정산을 신청합니다.</strong></p>
-                <p>2024년 월 일</p></td>
-                </tr>
-                </tbody>
-                </table>
-                
-                **대전·세종·충남 지역혁신 플랫폼 총괄운영센터장 귀하**
-                
-
-                """;
-            String jsonTemplate = """
-                {
-                  "일시": "",
-                  "출장지": "",
-                  "식비기간": "",
-                  "식사제공횟수": "",
-                  "식비정산금": "",
-                  "숙박시작일자": "",
-                  "숙박종료일자": "",
-                  "숙박비금액": "",
-                  "일자1": "",
-                  "교통편1": "",
-                  "출발지1": "",
-                  "도착지1": "",
-                  "구분1": "",
-                  "금액1": "",
-                  "일자2": "",
-                  "교통편2": "",
-                  "출발지2": "",
-                  "도착지2": "",
-                  "구분2": "",
-                  "금액2": "",
-                  "일자3": "",
-                  "교통편3": "",
-                  "출발지3": "",
-                  "도착지3": "",
-                  "구분3": "",
-                  "금액3": "",
-                  "일자4": "",
-                  "교통편4": "",
-                  "출발지4": "",
-                  "도착지4": "",
-                  "구분4": "",
-                  "금액4": "",
-                  "출장금액": ""
+            imageBytes = image.getBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("이미지 처리 중 오류가 발생했습니다.", e);
+        }
+        String fileName = image.getOriginalFilename();
+
+        ImageFingerprint fingerprint = ocrResultCacheService.fingerprint(imageBytes);
+        Optional<String> cached = ocrResultCacheService.find(fingerprint);
+        if (cached.isPresent()) {
+            // 캐시 적중 시 전체 결과를 토큰 하나로 보내고 종료
+            log.info("OCR 캐시 적중 (스트리밍): {}", fileName);
+            ocrExecutor.execute(() -> {
+                if (listener.onToken(cached.get())) {
+                    listener.onComplete();
                 }
-                
-            """;
-            String prompt = String.format("""
-            너는 주어진 gfm 문서를 분석하여, 문서의 내용을 '분석할 JSON 양식'에 맞춰 추출하는 전문가야.
-            
-            다음 지침을 반드시 따라줘:
-            1. ＇입력 gfm텍스트’의 내용 중 {{ }} 이렇게 쌓여있는 값을 key값으로 가져가고 value 값을 빈 문자열로(“”)로 json으로 만들어줘
-            2. 너의 답변은 오직 완성된 JSON 객체여야만 해. 다른 설명이나 인사말, 코드 블록 마크다운(```json)을 절대 포함하지 마.
-                
-            ---
-            [예시 gfm 텍스트]
-            %s
-            ---
-            [JSON 예시]
-            %s
-            ---
-            [입력 gfm 텍스트]
-            %s
-        """,markdownTemplate ,jsonTemplate, markdownContentBefore);
+            });
+            return () -> { };
+        }
 
-            // Content 객체 생성
-            Content content = Content.fromParts(
-                Part.fromText(prompt)
-            );
+        Content content = Content.fromParts(
+            Part.fromText(OCR_PROMPT),
+            Part.fromBytes(imageBytes, image.getContentType())
+        );
+        StringBuilder streamedText = new StringBuilder();
 
-            // API 호출
-            GenerateContentResponse response = client.models.generateContent(
-                "gemini-2.5-flash-lite",
-                content,
-                null
-            );
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        AtomicReference<ResponseStream<GenerateContentResponse>> streamRef = new AtomicReference<>();
+        ocrExecutor.execute(() -> {
+            try (ResponseStream<GenerateContentResponse> stream = llmGateway.openGeminiStream("ocr-stream",
+                client -> client.models.generateContentStream(OCR_MODEL, content, null))) {
+                streamRef.set(stream);
+                for (GenerateContentResponse chunk : stream) {
+                    if (cancelled.get()) {
+                        log.info("이미지 스트리밍 취소: {}", fileName);
+                        llmGateway.releaseStream(LlmProvider.GEMINI);
+                        return;
+                    }
+                    String token = chunk.text();
+                    if (token == null || token.isEmpty()) {
+                        continue;
+                    }
+                    streamedText.append(token);
+                    if (!listener.onToken(token)) {
+                        cancelled.set(true);
+                        log.info("클라이언트 연결 종료로 이미지 스트리밍 중단: {}", fileName);
+                        llmGateway.releaseStream(LlmProvider.GEMINI);
+                        return;
+                    }
+                }
+                llmGateway.recordStreamResult(LlmProvider.GEMINI, null);
+                ocrResultCacheService.put(fingerprint, streamedText.toString());
+                log.info("이미지 스트리밍 완료: {}", fileName);
+                listener.onComplete();
+            } catch (LlmGatewayException e) {
+                // 요청 한도 / 서킷 OPEN 등으로 스트림을 열지 못한 경우 (게이트웨이에 이미 반영됨)
+                log.warn("이미지 스트리밍 시작 실패 ({}): {}", e.getReason(), fileName);
+                listener.onError(e);
+            } catch (Exception e) {
+                if (cancelled.get()) {
+                    llmGateway.releaseStream(LlmProvider.GEMINI);
+                } else {
+                    llmGateway.recordStreamResult(LlmProvider.GEMINI, e);
+                    log.error("이미지 스트리밍 중 오류 발생: {}", fileName, e);
+                    listener.onError(new RuntimeException("이미지 처리 중 오류가 발생했습니다.", e));
+                }
+            }
+        });
+
+        return () -> {
+            // 응답 스트림을 닫아 진행 중인 HTTP 연결도 함께 끊는다
+            if (cancelled.compareAndSet(false, true)) {
+                ResponseStream<GenerateContentResponse> stream = streamRef.get();
+                if (stream != null) {
+                    try {
+                        stream.close();
+                    } catch (Exception e) {
+                        log.debug("이미지 스트림 종료 중 오류: {}", fileName, e);
+                    }
+                }
+            }
+        };
+    }
+
+    public String makeJsonBefore(String markdownContentBefore) {
+        try {
+            // 1. 입력 양식 압축 (레이아웃 속성, 빈 셀, 반복되는 표 골격 제거)
+            String input = "[입력 gfm 텍스트]\n" + PromptCompactor.compactMarkdown(markdownContentBefore);
+
+            // 2. 고정 앞부분(지침 + 예시)을 맨 앞에 두어 Gemini 암시적 캐시(같은 앞부분 재사용)가 적용되게 한다
+            GenerateContentResponse response = generateSchema(input);
+
+            // 3. 압축 전후 입력 토큰 (추정) 과 실제 청구 토큰 기록
+            recordUsage(SCHEMA_MODEL, response);
+            int originalTokens = PromptCompactor.estimateTokens(SCHEMA_PROMPT_ORIGINAL_PREFIX)
+                + PromptCompactor.estimateTokens(markdownContentBefore);
+            int compactedTokens = PromptCompactor.estimateTokens(SCHEMA_PROMPT_PREFIX)
+                + PromptCompactor.estimateTokens(input);
+            log.info("양식 분석 프롬프트 토큰 - 추정 {} -> {}, 실제 입력 {}, 캐시 {}",
+                originalTokens, compactedTokens,
+                response.usageMetadata().flatMap(usage -> usage.promptTokenCount()).orElse(-1),
+                response.usageMetadata().flatMap(usage -> usage.cachedContentTokenCount()).orElse(0));
 
             return response.text();
 
@@ -259,4 +274,240 @@ public class GeminiService {
         }
     }
 
+    /**
+     * GPT 채우기와 같은 프롬프트로 채우기 JSON(JSON after)을 만든다 (GPT 헤지 / 장애 전환용)
+     */
+    public String generateFill(String inputJson, String inputText) {
+        Content content = Content.fromParts(Part.fromText(GptService.fillPrompt(inputJson, inputText)));
+        GenerateContentConfig config = GenerateContentConfig.builder()
+            .responseMimeType("application/json")
+            .temperature(0.0f)
+            .build();
+        try {
+            GenerateContentResponse response = llmGateway.callGemini("fill",
+                client -> client.models.generateContent(FILL_MODEL, content, config));
+            recordUsage(FILL_MODEL, response);
+            return response.text();
+        } catch (LlmGatewayException e) {
+            throw new RuntimeException("Gemini 채우기 실패: " + e.getMessage(), e);
+        }
+    }
+
+    // OpenAI로 양식 분석을 대신할 때도 같은 프롬프트를 쓴다
+    static String schemaPrompt(String markdownContentBefore) {
+        return SCHEMA_PROMPT_PREFIX + "\n[입력 gfm 텍스트]\n" + PromptCompactor.compactMarkdown(markdownContentBefore);
+    }
+
+    // 모델별 입력/출력/캐시 적중 토큰 누적
+    private void recordUsage(String model, GenerateContentResponse response) {
+        response.usageMetadata().ifPresent(usage -> {
+            llmGateway.recordTokens(LlmProvider.GEMINI, model, "prompt", usage.promptTokenCount().orElse(0));
+            llmGateway.recordTokens(LlmProvider.GEMINI, model, "completion", usage.candidatesTokenCount().orElse(0));
+            llmGateway.recordTokens(LlmProvider.GEMINI, model, "cached", usage.cachedContentTokenCount().orElse(0));
+        });
+    }
+
+    private GenerateContentResponse generateSchema(String input) {
+        Content content = Content.fromParts(Part.fromText(SCHEMA_PROMPT_PREFIX + "\n" + input));
+        // JSON 응답 모드 - 코드 블록이나 설명 없이 JSON만 받는다 (키는 양식마다 달라 응답 스키마는 지정하지 않음)
+        GenerateContentConfig config = GenerateContentConfig.builder().responseMimeType("application/json").build();
+        return llmGateway.callGemini("schema",
+            client -> client.models.generateContent(SCHEMA_MODEL, content, config));
+    }
+
+    // 고정 앞부분 = 지침 + 예시 양식 + 예시 JSON (압축 전 원본은 토큰 감소량 기록에만 사용)
+    private static String buildSchemaPromptPrefix(String exampleMarkdown, String exampleJson) {
+        return SCHEMA_INSTRUCTIONS
+            + "\n---\n[예시 gfm 텍스트]\n" + exampleMarkdown
+            + "\n---\n[JSON 예시]\n" + exampleJson
+            + "\n---";
+    }
+
+    private static final String SCHEMA_INSTRUCTIONS = """
+        너는 주어진 gfm 문서를 분석하여, 문서의 내용을 '분석할 JSON 양식'에 맞춰 추출하는 전문가야.
+
+        다음 지침을 반드시 따라줘:
+        1. ＇입력 gfm텍스트’의 내용 중 {{ }} 이렇게 쌓여있는 값을 key값으로 가져가고 value 값을 빈 문자열로(“”)로 json으로 만들어줘
+        2. 너의 답변은 오직 완성된 JSON 객체여야만 해. 다른 설명이나 인사말, 코드 블록 마크다운(```json)을 절대 포함하지 마.
+        """;
+
+    private static final String SCHEMA_EXAMPLE_MARKDOWN = """
+        **여 비 정 산 신 청 서**
+        
+        <table>
+        <colgroup>
+        <col style="width: 12%" />
+        <col style="width: 11%" />
+        <col style="width: 9%" />
+        <col style="width: 17%" />
+        <col style="width: 8%" />
+        <col style="width: 0%" />
+        <col style="width: 8%" />
+        <col style="width: 6%" />
+        <col style="width: 1%" />
+        <col style="width: 8%" />
+        <col style="width: 5%" />
+        <col style="width: 10%" />
+        </colgroup>
+        <tbody>
+        <tr>
+        <td style="text-align: center;"><strong>소 속</strong></td>
+        <td colspan="3"
+        style="text-align: center;"><strong>컴퓨터공학과</strong></td>
+        <td style="text-align: center;"><strong>직 급</strong></td>
+        <td colspan="4"
+        style="text-align: center;"><strong>석사과정</strong></td>
+        <td style="text-align: center;"><strong>성 명</strong></td>
+        <td colspan="2" style="text-align: center;"><strong>정다혜</strong></td>
+        </tr>
+        <tr>
+        <td rowspan="2"
+        style="text-align: center;"><strong>출장일정</strong></td>
+        <td style="text-align: center;"><strong>일 시</strong></td>
+        <td colspan="10" style="text-align: center;">{{일시}}</td>
+        </tr>
+        <tr>
+        <td style="text-align: center;"><strong>출장지</strong></td>
+        <td colspan="10" style="text-align: center;">{{출장지}}</td>
+        </tr>
+        <tr>
+        <td style="text-align: center;"><strong>식 비</strong></td>
+        <td style="text-align: center;"><strong>기 간</strong></td>
+        <td colspan="2" style="text-align: center;">{{식비기간}}</td>
+        <td colspan="3"
+        style="text-align: center;"><strong>식사제공횟수</strong></td>
+        <td style="text-align: center;">{{식사제공횟수}}</td>
+        <td colspan="3"
+        style="text-align: center;"><strong>식비정산금</strong></td>
+        <td style="text-align: right;">{{식비정산금}}</td>
+        </tr>
+        <tr>
+        <td rowspan="2" style="text-align: center;"><strong>숙 박
+        비</strong></td>
+        <td colspan="2"
+        style="text-align: center;"><strong>시작일자</strong></td>
+        <td style="text-align: center;"><strong>종료일자</strong></td>
+        <td colspan="4"
+        style="text-align: center;"><strong>급지등급</strong></td>
+        <td colspan="4" style="text-align: center;"><strong>금액</strong></td>
+        </tr>
+        <tr>
+        <td colspan="2" style="text-align: center;">{{숙박시작일자}}</td>
+        <td style="text-align: center;">{{숙박종료일자}}</td>
+        <td colspan="4" style="text-align: center;"><em>그 밖의 지역</em></td>
+        <td colspan="4" style="text-align: right;">{숙박비금액}}</td>
+        </tr>
+        <tr>
+        <td rowspan="5" style="text-align: center;"><strong>운 임</strong></td>
+        <td style="text-align: center;"><strong>일 자</strong></td>
+        <td style="text-align: center;"><strong>교통편</strong></td>
+        <td style="text-align: center;"><strong>출발지</strong></td>
+        <td colspan="2" style="text-align: center;"><strong>도착지</strong></td>
+        <td colspan="2" style="text-align: center;"><strong>구분</strong></td>
+        <td colspan="4" style="text-align: center;"><strong>금액</strong></td>
+        </tr>
+        <tr>
+        <td style="text-align: center;">{{일자1}}</td>
+        <td style="text-align: center;">{{교통편1}}</td>
+        <td style="text-align: center;">{{출발지1}}</td>
+        <td colspan="2" style="text-align: center;">{{도착지1}}</td>
+        <td colspan="2" style="text-align: center;"><em>{{구분1}}</em></td>
+        <td colspan="4" style="text-align: right;">{{금액1}}</td>
+        </tr>
+        <tr>
+        <td style="text-align: center;">{{일자2}}</td>
+        <td style="text-align: center;">{{교통편2}}</td>
+        <td style="text-align: center;">{{출발지2}}</td>
+        <td colspan="2" style="text-align: center;">{{도착지2}}</td>
+        <td colspan="2" style="text-align: center;"><em>{{구분2}}</em></td>
+        <td colspan="4" style="text-align: right;">{{금액2}}</td>
+        </tr>
+        <tr>
+        <td style="text-align: center;">{{일자3}}</td>
+        <td style="text-align: center;">{{교통편3}}</td>
+        <td style="text-align: center;">{{출발지3}}</td>
+        <td colspan="2" style="text-align: center;">{{도착지3}}</td>
+        <td colspan="2" style="text-align: center;"><em>{{구분3}}</em></td>
+        <td colspan="4" style="text-align: right;">{{금액3}}</td>
+        </tr>
+        <tr>
+        <td style="text-align: center;">{{일자4}}</td>
+        <td style="text-align: center;">{{교통편4}}</td>
+        <td style="text-align: center;">{{출발지4}}</td>
+        <td colspan="2" style="text-align: center;">{{도착지4}}</td>
+        <td colspan="2" style="text-align: center;"><em>{{구분4}}</em></td>
+        <td colspan="4" style="text-align: right;">{{금액4}}</td>
+        </tr>
+        <tr>
+        <td style="text-align: center;"><p><strong>출장금액</strong></p>
+        <p><strong>(합계)</strong></p></td>
+        <td colspan="5"
+        style="text-align: right;"><strong>{{</strong>출장금액<strong>}}</strong></td>
+        <td colspan="2"
+        style="text-align: center;"><strong>예산항목</strong></td>
+        <td colspan="4" style="text-align: center;">국내여비</td>
+        </tr>
+        <tr>
+        <td style="text-align: center;"><strong>비 고</strong></td>
+        <td colspan="11" style="text-align: center;">※ 공무원 여비규정을
+        준용함</td>
+        </tr>
+        <tr>
+        <td colspan="12" style="text-align: center;"><p><strong>관계서류를
+        첨부하여 위와 같이 여비의 정산을 신청합니다.</strong></p>
+        <p>2024년 월 일</p></td>
+        </tr>
+        </tbody>
+        </table>
+        
+        **대전·세종·충남 지역혁신 플랫폼 총괄운영센터장 귀하**
+        
+
+        """;
+
+    private static final String SCHEMA_EXAMPLE_JSON = """
+        {
+          "일시": "",
+          "출장지": "",
+          "식비기간": "",
+          "식사제공횟수": "",
+          "식비정산금": "",
+          "숙박시작일자": "",
+          "숙박종료일자": "",
+          "숙박비금액": "",
+          "일자1": "",
+          "교통편1": "",
+          "출발지1": "",
+          "도착지1": "",
+          "구분1": "",
+          "금액1": "",
+          "일자2": "",
+          "교통편2": "",
+          "출발지2": "",
+          "도착지2": "",
+          "구분2": "",
+          "금액2": "",
+          "일자3": "",
+          "교통편3": "",
+          "출발지3": "",
+          "도착지3": "",
+          "구분3": "",
+          "금액3": "",
+          "일자4": "",
+          "교통편4": "",
+          "출발지4": "",
+          "도착지4": "",
+          "구분4": "",
+          "금액4": "",
+          "출장금액": ""
+        }
+        
+        """;
+
+    private static final String SCHEMA_PROMPT_ORIGINAL_PREFIX =
+        buildSchemaPromptPrefix(SCHEMA_EXAMPLE_MARKDOWN, SCHEMA_EXAMPLE_JSON);
+
+    private static final String SCHEMA_PROMPT_PREFIX = buildSchemaPromptPrefix(
+        PromptCompactor.compactMarkdown(SCHEMA_EXAMPLE_MARKDOWN), PromptCompactor.compactJson(SCHEMA_EXAMPLE_JSON));
+
 }
@@ -1,13 +1,26 @@
 package AI_Challenge.AI_Challenge.domain.document.service;
 
-import com.theokanning.openai.OpenAiHttpException;
+import AI_Challenge.AI_Challenge.global.llm.LlmGateway;
+import AI_Challenge.AI_Challenge.global.llm.LlmGatewayException;
+import AI_Challenge.AI_Challenge.global.llm.LlmProvider;
+import AI_Challenge.AI_Challenge.global.llm.PromptCompactor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest.ChatCompletionRequestFunctionCall;
 import com.theokanning.openai.completion.chat.ChatCompletionResult;
+import com.theokanning.openai.completion.chat.ChatFunctionCall;
+import com.theokanning.openai.completion.chat.ChatFunctionDynamic;
+import com.theokanning.openai.completion.chat.ChatFunctionProperty;
 import com.theokanning.openai.completion.chat.ChatMessage;
-import com.theokanning.openai.service.OpenAiService;
 
-import java.time.Duration;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -18,14 +31,252 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class GptService {
 
-    private final OpenAiService openAiService;
+    public static final String FILL_MODEL = "gpt-4.1";
+    // 양식 분석을 Gemini 대신 처리할 때 (헤지 / 장애 전환)
+    private static final String SCHEMA_MODEL = "gpt-4.1-mini";
+    // 채우기 프롬프트(또는 규칙 기반 채우기)를 수정하면 올려서 이전 결과 캐시가 재사용되지 않도록 한다
+    public static final String FILL_PROMPT_VERSION = "v4";
 
-    public GptService(@Value("${openai.api.key}") String apiKey) {
-        this.openAiService = new OpenAiService(apiKey, Duration.ofSeconds(60));
+    // 구조화 출력 - 스키마 키를 인자로 갖는 함수 호출을 강제해 JSON 객체를 받는다
+    private static final String FILL_FUNCTION = "fill_document";
+
+    // 스트림 구독 자리에 남기는 취소 표시 (이미 끊긴 상태이므로 다시 끊지 않는다)
+    private static final Disposable CANCELLED = Disposables.disposed();
+
+    private final LlmGateway llmGateway;
+    private final ObjectMapper objectMapper;
+    private final boolean deterministic;
+    private final boolean structuredOutput;
+
+    public GptService(LlmGateway llmGateway, ObjectMapper objectMapper,
+        @Value("${openai.fill.deterministic:true}") boolean deterministic,
+        @Value("${openai.fill.structured-output:true}") boolean structuredOutput) {
+        this.llmGateway = llmGateway;
+        this.objectMapper = objectMapper;
+        this.deterministic = deterministic;
+        this.structuredOutput = structuredOutput;
+    }
+
+    // temperature 0 - 같은 입력이면 같은 결과를 기대할 수 있어 결과 캐시를 사용할 수 있다
+    public boolean isDeterministic() {
+        return deterministic;
     }
 
     public String generateResponse(String inputJson, String inputText) {
-        String prompt = String.format("""
+        try {
+            ChatCompletionRequest request = buildFillRequest(fillPrompt(inputJson, inputText), inputJson,
+                structuredOutput);
+
+            ChatCompletionResult response = llmGateway.callOpenAi("fill",
+                openAiService -> openAiService.createChatCompletion(request));
+            recordUsage(response);
+
+            // 압축 전후 입력 토큰 (추정) 과 실제 청구 토큰 기록
+            int originalTokens = PromptCompactor.estimateTokens(FILL_PROMPT_ORIGINAL_PREFIX)
+                + PromptCompactor.estimateTokens(inputJson) + PromptCompactor.estimateTokens(inputText);
+            int compactedTokens = PromptCompactor.estimateTokens(request.getMessages().get(0).getContent());
+            log.info("채우기 프롬프트 토큰 - 추정 {} -> {}, 실제 입력 {}", originalTokens, compactedTokens,
+                response.getUsage() == null ? -1 : response.getUsage().getPromptTokens());
+
+            return responseJson(response);
+        } catch (LlmGatewayException e) {
+            throw translate(e);
+        }
+    }
+
+    /**
+     * 스키마와 맞지 않았던 필드만 다시 채우는 복구 요청
+     * 고정 앞부분은 그대로 두어 프롬프트 캐시를 재사용하고, 부분 스키마와 잘못된 부분만 덧붙인다
+     */
+    public String repairResponse(String partialSchemaJson, String invalidFragment, String inputText) {
+        try {
+            String prompt = fillPrompt(partialSchemaJson, inputText)
+                + "\n[형식 오류]\n이전 응답의 다음 부분이 [입력 JSON]의 구조와 맞지 않았습니다. "
+                + "[입력 JSON]의 키와 구조를 그대로 지켜 값만 채우세요.\n" + invalidFragment;
+            ChatCompletionRequest request = buildFillRequest(prompt, partialSchemaJson, structuredOutput);
+
+            ChatCompletionResult response = llmGateway.callOpenAi("fill-repair",
+                openAiService -> openAiService.createChatCompletion(request));
+            recordUsage(response);
+            return responseJson(response);
+        } catch (LlmGatewayException e) {
+            throw translate(e);
+        }
+    }
+
+    /**
+     * Gemini 양식 분석과 같은 프롬프트로 스키마(JSON before)를 만든다 (Gemini 헤지 / 장애 전환용)
+     * 키가 양식마다 달라 함수 호출 대신 본문으로 받고, 호출한 쪽에서 JSON 객체인지 검증한다
+     */
+    public String makeJsonBefore(String markdownContentBefore) {
+        try {
+            ChatCompletionRequest request = ChatCompletionRequest.builder()
+                .model(SCHEMA_MODEL)
+                .messages(Arrays.asList(
+                    new ChatMessage("user", GeminiService.schemaPrompt(markdownContentBefore))
+                ))
+                .temperature(0.0)
+                .n(1)
+                .build();
+
+            ChatCompletionResult response = llmGateway.callOpenAi("schema",
+                openAiService -> openAiService.createChatCompletion(request));
+            recordUsage(SCHEMA_MODEL, response);
+            return response.getChoices().get(0).getMessage().getContent();
+        } catch (LlmGatewayException e) {
+            throw translate(e);
+        }
+    }
+
+    private void recordUsage(ChatCompletionResult response) {
+        recordUsage(FILL_MODEL, response);
+    }
+
+    private void recordUsage(String model, ChatCompletionResult response) {
+        if (response.getUsage() != null) {
+            llmGateway.recordTokens(LlmProvider.OPENAI, model, "prompt", response.getUsage().getPromptTokens());
+            llmGateway.recordTokens(LlmProvider.OPENAI, model, "completion",
+                response.getUsage().getCompletionTokens());
+        }
+    }
+
+    // 함수 호출 인자(구조화 출력)가 있으면 그것을, 없으면 본문을 쓴다 (인자가 JSON이 아니면 원문 문자열)
+    private static String responseJson(ChatCompletionResult response) {
+        ChatMessage message = response.getChoices().get(0).getMessage();
+        ChatFunctionCall functionCall = message.getFunctionCall();
+        if (functionCall != null && functionCall.getArguments() != null) {
+            JsonNode arguments = functionCall.getArguments();
+            return arguments.isTextual() ? arguments.asText() : arguments.toString();
+        }
+        return message.getContent();
+    }
+
+    /**
+     * 스트리밍 API로 응답 토큰을 listener에 전달하고, 호출을 취소하는 동작을 반환
+     */
+    public Runnable streamResponse(String inputJson, String inputText, TokenStreamListener listener) {
+        // 스트리밍은 본문 토큰을 그대로 보여주므로 함수 호출을 쓰지 않는다
+        ChatCompletionRequest request = buildFillRequest(fillPrompt(inputJson, inputText), inputJson, false);
+
+        AtomicReference<Disposable> subscription = new AtomicReference<>();
+        Disposable disposable;
+        try {
+            disposable = llmGateway.openOpenAiStream("fill-stream",
+                openAiService -> openAiService.streamChatCompletion(request)
+                    .subscribe(chunk -> {
+                            if (chunk.getChoices() == null || chunk.getChoices().isEmpty()
+                                || chunk.getChoices().get(0).getMessage() == null) {
+                                return;
+                            }
+                            String token = chunk.getChoices().get(0).getMessage().getContent();
+                            if (token != null && !listener.onToken(token)) {
+                                cancel(subscription);
+                            }
+                        },
+                        error -> {
+                            llmGateway.recordStreamResult(LlmProvider.OPENAI, error);
+                            listener.onError(translate(llmGateway.translate(LlmProvider.OPENAI, error)));
+                        },
+                        () -> {
+                            llmGateway.recordStreamResult(LlmProvider.OPENAI, null);
+                            listener.onComplete();
+                        }));
+        } catch (LlmGatewayException e) {
+            throw translate(e);
+        }
+        // 구독을 넘겨받기 전에 취소되었으면(첫 토큰에서 중단 등) 여기서 끊는다
+        if (!subscription.compareAndSet(null, disposable)) {
+            dispose(disposable);
+        }
+        return () -> cancel(subscription);
+    }
+
+    // 취소 표시를 남기고 구독을 끊는다 - 여러 번, 여러 스레드에서 불려도 한 번만 끊는다
+    private void cancel(AtomicReference<Disposable> subscription) {
+        Disposable current = subscription.getAndSet(CANCELLED);
+        if (current != null) {
+            dispose(current);
+        }
+    }
+
+    // 완료 전에 취소된 스트림은 서킷 브레이커 결과에 반영하지 않는다
+    private void dispose(Disposable disposable) {
+        if (!disposable.isDisposed()) {
+            disposable.dispose();
+            llmGateway.releaseStream(LlmProvider.OPENAI);
+        }
+    }
+
+    private ChatCompletionRequest buildFillRequest(String prompt, String schemaJson, boolean structured) {
+        ChatCompletionRequest.ChatCompletionRequestBuilder builder = ChatCompletionRequest.builder()
+            .model(FILL_MODEL)
+            .messages(Arrays.asList(
+                new ChatMessage("user", prompt)
+            ))
+            .temperature(deterministic ? 0.0 : 0.7)
+            .n(1);
+        if (structured) {
+            builder.functions(List.of(fillFunction(schemaJson)))
+                .functionCall(ChatCompletionRequestFunctionCall.of(FILL_FUNCTION));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 스키마의 최상위 키를 필수 인자로 갖는 채우기 함수
+     * 문자열 키는 string, 중첩 객체/배열은 object/array로 선언하고 내부 구조는 호출 뒤 검증한다
+     */
+    private ChatFunctionDynamic fillFunction(String schemaJson) {
+        ChatFunctionDynamic.Builder function = ChatFunctionDynamic.builder()
+            .name(FILL_FUNCTION)
+            .description("문서 양식 JSON의 각 키에 영수증 텍스트에서 찾은 값을 채운다");
+        try {
+            for (Map.Entry<String, JsonNode> field : objectMapper.readTree(schemaJson).properties()) {
+                function.addProperty(ChatFunctionProperty.builder()
+                    .name(field.getKey())
+                    .type(jsonType(field.getValue()))
+                    .items(field.getValue().isArray() ? arrayItems(field.getValue()) : null)
+                    .required(true)
+                    .build());
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("채우기 스키마 JSON 파싱 실패: " + e.getOriginalMessage(), e);
+        }
+        return function.build();
+    }
+
+    private static ChatFunctionProperty arrayItems(JsonNode array) {
+        String itemType = array.isEmpty() ? "string" : jsonType(array.get(0));
+        return ChatFunctionProperty.builder().name("item").type(itemType).build();
+    }
+
+    private static String jsonType(JsonNode node) {
+        if (node.isObject()) {
+            return "object";
+        }
+        return node.isArray() ? "array" : "string";
+    }
+
+    private RuntimeException translate(LlmGatewayException e) {
+        if (e.getReason() == LlmGatewayException.Reason.QUOTA_EXCEEDED) {
+            log.error("쿼터 초과 에러 발생", e);
+            return new RuntimeException("API 할당량 초과로 요청을 처리할 수 없습니다. 잠시 후 다시 시도해주세요.", e);
+        } else {
+            log.error("GPT API 호출 중 오류 발생 ({})", e.getReason(), e);
+            return new RuntimeException("GPT 응답 생성 실패: " + e.getMessage(), e);
+        }
+    }
+
+    // Gemini로 헤지/전환할 때도 같은 프롬프트를 쓴다
+    static String fillPrompt(String inputJson, String inputText) {
+        // 고정 앞부분을 맨 앞에 두어 OpenAI 자동 프롬프트 캐시(같은 앞부분 재사용)가 적용되게 한다
+        return FILL_PROMPT_PREFIX
+            + "\n---\n[입력 JSON]\n" + PromptCompactor.compactJson(inputJson)
+            + "\n---\n[입력 텍스트]\n" + PromptCompactor.normalizeWhitespace(inputText)
+            + "\n---";
+    }
+
+    private static final String FILL_PROMPT_ORIGINAL_PREFIX = """
             역할(Role):
             당신은 영수증에서 추출된 텍스트를 정확하게 이해하고, 제공된 JSON 형식의 문서 양식에 필요한 정보를 정확히 채워 넣는 전문적인 문서 처리 및 데이터 추출 AI입니다.
         
@@ -157,40 +408,8 @@ public class GptService {
             제공된 영수증 텍스트에서 명확한 정보만을 사용하여 '문서 양식 JSON'의 각 필드에 해당하는 'value'를 채우고, 채워진 JSON 객체만을 응답으로 반환해야 합니다. JSON 구조는 절대 변경하지 마세요.
             코드 블록 마크다운(```json)을 절대 포함하지 마세요.
         
-            ---
-            [입력 JSON]
-            %s
-            ---
-            [입력 텍스트]
-            %s
-            ---
-        """, inputJson, inputText);
-
-        try {
-            ChatCompletionRequest request = ChatCompletionRequest.builder()
-                .model("gpt-4.1")
-                .messages(Arrays.asList(
-                    new ChatMessage("user", prompt)
-                ))
-                .temperature(0.7)
-                .n(1)
-                .build();
-
-            ChatCompletionResult response = openAiService.createChatCompletion(request);
-
-            return response.getChoices().get(0).getMessage().getContent();
-        } catch (OpenAiHttpException e) {
-            if (e.getMessage().contains("quota")) {
-                log.error("쿼터 초과 에러 발생", e);
-                throw new RuntimeException("API 할당량 초과로 요청을 처리할 수 없습니다. 잠시 후 다시 시도해주세요.", e);
-            } else {
-                log.error("GPT API 호출 중 오류 발생", e);
-                throw new RuntimeException("GPT 응답 생성 실패", e);
-            }
-        }
-    }
-
-
-
+        """;
 
+    // 줄 앞 공백, 빈 줄, 중복 줄을 정리한 고정 앞부분 (한 번만 계산)
+    private static final String FILL_PROMPT_PREFIX = PromptCompactor.collapseWhitespace(FILL_PROMPT_ORIGINAL_PREFIX);
 }
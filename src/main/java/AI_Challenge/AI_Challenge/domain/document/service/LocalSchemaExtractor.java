@@ -0,0 +1,199 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFFooter;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
+import org.springframework.stereotype.Component;
+
+/**
+ * DOCX 구조에서 직접 템플릿 스키마(JSON before)를 만드는 추출기 (Gemini 양식 분석 대체)
+ * - 본문 문단, 표(병합 셀, 중첩 표 포함), 머리글/바닥글을 문서 순서대로 돌며 {{키}}를 모아 {"키": ""} 형태로 출력
+ * - 깨진 자리 표시자({키}} 등 - 키는 포함), 병합으로 가려진 셀의 자리 표시자,
+ *   텍스트 상자 등 순회하지 못한 위치의 자리 표시자가 있으면 신뢰도를 낮춘다
+ * 신뢰도가 기준보다 낮으면 호출하는 쪽에서 Gemini 분석으로 넘긴다.
+ */
+@Component
+@Slf4j
+public class LocalSchemaExtractor {
+
+    // 괄호 수가 맞지 않는 자리 표시자 (예: {키}}, {{키}) - Gemini처럼 키는 살리되 감점
+    private static final Pattern BROKEN_PLACEHOLDER = Pattern.compile("\\{+([^{}]{1,40})\\}+|\\{\\{|\\}\\}");
+    private static final Pattern XML_TAG = Pattern.compile("<[^>]+>");
+    private static final int MAX_KEY_LENGTH = 40;
+
+    private static final double BROKEN_PENALTY = 0.3;
+    private static final double HIDDEN_PENALTY = 0.3;
+    private static final double UNREACHED_PENALTY = 0.5;
+    private static final double SUSPICIOUS_KEY_PENALTY = 0.2;
+
+    private final ObjectMapper objectMapper;
+    private final PoiPackageLoader packageLoader;
+
+    public LocalSchemaExtractor(ObjectMapper objectMapper, PoiPackageLoader packageLoader) {
+        this.objectMapper = objectMapper;
+        this.packageLoader = packageLoader;
+    }
+
+    public Extraction extract(byte[] docxContent) throws IOException {
+        long startedAt = System.nanoTime();
+        try (PoiPackageLoader.LoadedDocument loaded = packageLoader.open(docxContent)) {
+            XWPFDocument document = loaded.document();
+            Walk walk = new Walk();
+
+            // 1. 본문 (문단, 표)
+            walkBody(document.getBodyElements(), walk);
+            int bodyOccurrences = walk.occurrences;
+
+            // 2. 머리글 / 바닥글
+            for (XWPFHeader header : document.getHeaderList()) {
+                walkBody(header.getBodyElements(), walk);
+            }
+            for (XWPFFooter footer : document.getFooterList()) {
+                walkBody(footer.getBodyElements(), walk);
+            }
+
+            // 3. 본문 XML 전체의 자리 표시자 수와 비교 - 텍스트 상자, 콘텐츠 컨트롤 등 순회하지 못한 곳 확인
+            String bodyText = XML_TAG.matcher(document.getDocument().getBody().xmlText()).replaceAll("");
+            int rawOccurrences = countPlaceholders(bodyText);
+            if (rawOccurrences > bodyOccurrences) {
+                walk.issue(UNREACHED_PENALTY, "순회하지 못한 위치의 자리 표시자 " + (rawOccurrences - bodyOccurrences) + "개");
+            }
+
+            // 소수 둘째 자리로 반올림 (설정한 기준값과 비교할 때 부동소수점 오차 방지)
+            double confidence = walk.keys.isEmpty() ? 0.0 : Math.max(0.0, Math.round((1.0 - walk.penalty) * 100) / 100.0);
+            if (walk.keys.isEmpty()) {
+                walk.issues.add("자리 표시자 없음");
+            }
+            Extraction extraction = new Extraction(toSchemaJson(walk.keys), List.copyOf(walk.keys), confidence,
+                List.copyOf(walk.issues));
+            log.info("로컬 스키마 추출: 키 {}개, 신뢰도 {}, {} ms, 문제 {}", walk.keys.size(),
+                confidence, (System.nanoTime() - startedAt) / 1_000_000, walk.issues);
+            return extraction;
+        }
+    }
+
+    private void walkBody(List<IBodyElement> elements, Walk walk) {
+        for (IBodyElement element : elements) {
+            if (element instanceof XWPFParagraph paragraph) {
+                walk.scan(paragraph.getText());
+            } else if (element instanceof XWPFTable table) {
+                walkTable(table, walk);
+            }
+        }
+    }
+
+    private void walkTable(XWPFTable table, Walk walk) {
+        for (XWPFTableRow row : table.getRows()) {
+            for (XWPFTableCell cell : row.getTableCells()) {
+                if (isVerticalMergeContinue(cell)) {
+                    // 세로 병합으로 가려진 셀 - 화면에 보이지 않으므로 키로 쓰지 않는다
+                    String hiddenText = cell.getText();
+                    int hidden = countPlaceholders(hiddenText);
+                    if (hidden > 0) {
+                        walk.occurrences += hidden;
+                        walk.issue(HIDDEN_PENALTY, "병합으로 가려진 셀의 자리 표시자 " + hidden + "개");
+                    }
+                    continue;
+                }
+                walkBody(cell.getBodyElements(), walk);
+            }
+        }
+    }
+
+    private static boolean isVerticalMergeContinue(XWPFTableCell cell) {
+        CTTcPr tcPr = cell.getCTTc().getTcPr();
+        // val 속성이 없는 vMerge는 continue를 의미
+        return tcPr != null && tcPr.isSetVMerge() && tcPr.getVMerge().getVal() != STMerge.RESTART;
+    }
+
+    private static int countPlaceholders(String text) {
+        if (text == null || !text.contains("{{")) {
+            return 0;
+        }
+        int count = 0;
+        Matcher matcher = PoiDocxTemplateRenderer.PLACEHOLDER.matcher(text);
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private String toSchemaJson(Set<String> keys) {
+        ObjectNode schema = objectMapper.createObjectNode();
+        for (String key : keys) {
+            schema.put(key, "");
+        }
+        try {
+            return objectMapper.writeValueAsString(schema);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("스키마 JSON 생성 실패", e);
+        }
+    }
+
+    // 순회 중 모은 키(문서 순서, 중복 제거)와 감점 내역
+    private static final class Walk {
+
+        private final Set<String> keys = new LinkedHashSet<>();
+        private final List<String> issues = new ArrayList<>();
+        private double penalty;
+        private int occurrences;
+
+        void scan(String text) {
+            if (text == null || (text.indexOf('{') < 0 && text.indexOf('}') < 0)) {
+                return;
+            }
+            Matcher matcher = PoiDocxTemplateRenderer.PLACEHOLDER.matcher(text);
+            StringBuilder rest = new StringBuilder();
+            while (matcher.find()) {
+                // 렌더러와 같은 규칙(앞뒤 공백 제거)으로 키를 만든다
+                String key = matcher.group(1).trim();
+                occurrences++;
+                matcher.appendReplacement(rest, " ");
+                if (key.isEmpty() || key.length() > MAX_KEY_LENGTH || key.contains("\n")) {
+                    issue(SUSPICIOUS_KEY_PENALTY, "의심스러운 키 '" + key + "'");
+                    continue;
+                }
+                keys.add(key);
+            }
+            matcher.appendTail(rest);
+
+            Matcher broken = BROKEN_PLACEHOLDER.matcher(rest);
+            while (broken.find()) {
+                issue(BROKEN_PENALTY, "깨진 자리 표시자 '" + broken.group() + "'");
+                String key = broken.group(1) == null ? "" : broken.group(1).trim();
+                if (!key.isEmpty() && key.indexOf('\n') < 0) {
+                    keys.add(key);
+                }
+            }
+        }
+
+        void issue(double amount, String description) {
+            penalty += amount;
+            issues.add(description);
+        }
+    }
+
+    /**
+     * 추출 결과 - schemaJson은 Gemini 분석 결과와 같은 {"키": ""} 형태
+     */
+    public record Extraction(String schemaJson, List<String> keys, double confidence, List<String> issues) {
+    }
+}
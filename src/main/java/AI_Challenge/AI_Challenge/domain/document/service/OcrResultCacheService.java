@@ -0,0 +1,348 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import AI_Challenge.AI_Challenge.global.common.CacheMetrics;
+import AI_Challenge.AI_Challenge.global.common.HashUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 영수증 이미지 OCR 결과 디스크 캐시
+ * 1차 키: 이미지 바이트의 SHA-256 (완전히 같은 파일)
+ * 2차 키(선택): 64비트 dHash - 다시 인코딩되었거나 살짝 잘린 같은 사진도 해밍 거리로 찾는다
+ * 파일 이름은 "<sha256>_<dhash>.txt" (dHash가 없으면 "<sha256>.txt")이며, 재시작 시 파일 이름으로 색인을 복원한다.
+ */
+@Service
+@Slf4j
+public class OcrResultCacheService implements MeterBinder {
+
+    private static final String SUFFIX = ".txt";
+    private static final int DHASH_WIDTH = 9;
+    private static final int DHASH_HEIGHT = 8;
+
+    private final boolean enabled;
+    private final Path cacheDirectory;
+    private final long maxBytes;
+    private final boolean perceptualHashEnabled;
+    private final int perceptualMaxDistance;
+
+    // 접근 순서 LinkedHashMap - 가장 앞이 가장 오래 사용되지 않은 항목
+    private final LinkedHashMap<String, CacheEntry> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong exactHits = new AtomicLong();
+    private final AtomicLong perceptualHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public OcrResultCacheService(
+        @Value("${gemini.ocr.cache.enabled:true}") boolean enabled,
+        @Value("${gemini.ocr.cache.path:./ocr-cache}") String cachePath,
+        @Value("${gemini.ocr.cache.max-bytes:104857600}") long maxBytes,
+        @Value("${gemini.ocr.cache.perceptual-hash.enabled:false}") boolean perceptualHashEnabled,
+        @Value("${gemini.ocr.cache.perceptual-hash.max-distance:6}") int perceptualMaxDistance) {
+        this.enabled = enabled;
+        this.cacheDirectory = Paths.get(cachePath);
+        this.maxBytes = maxBytes;
+        this.perceptualHashEnabled = perceptualHashEnabled;
+        this.perceptualMaxDistance = perceptualMaxDistance;
+    }
+
+    // 디스크에 남아 있는 캐시 파일로 색인 복원 (수정 시각 = 마지막 사용 시각)
+    @PostConstruct
+    public void loadIndex() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(cacheDirectory);
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDirectory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.comparing(this::lastModified));
+
+        synchronized (index) {
+            for (Path file : files) {
+                CacheEntry entry = parseFileName(file);
+                if (entry == null) {
+                    continue;
+                }
+                index.put(entry.sha256(), entry);
+                totalBytes += entry.size();
+            }
+            evictOverBudget();
+        }
+        log.info("OCR 캐시 색인 복원: {} 건, {} bytes", index.size(), totalBytes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 이미지 지문 계산 (SHA-256 + 선택적 dHash) - 조회와 저장에 같은 지문을 사용한다
+     */
+    public ImageFingerprint fingerprint(byte[] imageBytes) {
+        return new ImageFingerprint(HashUtils.sha256Hex(imageBytes),
+            perceptualHashEnabled ? differenceHash(imageBytes) : null);
+    }
+
+    public Optional<String> find(ImageFingerprint fingerprint) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        CacheEntry entry;
+        boolean exact;
+        synchronized (index) {
+            // 1. 바이트가 완전히 같은 이미지
+            entry = index.get(fingerprint.sha256());
+            exact = entry != null;
+            // 2. 지각 해시가 가까운 이미지 (가장 가까운 항목 선택)
+            if (entry == null && fingerprint.perceptualHash() != null) {
+                entry = findNearest(fingerprint.perceptualHash());
+                if (entry != null) {
+                    index.get(entry.sha256());
+                }
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        try {
+            String text = Files.readString(entry.path(), StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(entry.path(), FileTime.fromMillis(System.currentTimeMillis()));
+            (exact ? exactHits : perceptualHits).incrementAndGet();
+            return Optional.of(text);
+        } catch (IOException e) {
+            // 외부에서 파일이 지워진 경우 - 색인에서 제거하고 미스로 처리
+            log.warn("OCR 캐시 파일 읽기 실패: {}", entry.path(), e);
+            remove(entry.sha256());
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    public void put(ImageFingerprint fingerprint, String text) {
+        if (!enabled || text == null || text.isBlank()) {
+            return;
+        }
+        byte[] content = text.getBytes(StandardCharsets.UTF_8);
+        if (content.length > maxBytes) {
+            return;
+        }
+
+        String fileName = fingerprint.perceptualHash() == null
+            ? fingerprint.sha256() + SUFFIX
+            : fingerprint.sha256() + "_" + HexFormat.of().toHexDigits(fingerprint.perceptualHash()) + SUFFIX;
+        Path target = cacheDirectory.resolve(fileName);
+        try {
+            // 임시 파일에 쓴 뒤 이동해, 읽는 쪽에서 덜 쓰인 파일을 보지 않도록 한다
+            Path temp = Files.createTempFile(cacheDirectory, "ocr-", ".tmp");
+            Files.write(temp, content);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("OCR 캐시 저장 실패: {}", fingerprint.sha256(), e);
+            return;
+        }
+
+        synchronized (index) {
+            CacheEntry previous = index.put(fingerprint.sha256(),
+                new CacheEntry(fingerprint.sha256(), fingerprint.perceptualHash(), target, content.length));
+            if (previous != null) {
+                totalBytes -= previous.size();
+                if (!previous.path().equals(target)) {
+                    deleteQuietly(previous.path());
+                }
+            }
+            totalBytes += content.length;
+            evictOverBudget();
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (index) {
+            for (CacheEntry entry : index.values()) {
+                deleteQuietly(entry.path());
+            }
+            index.clear();
+            totalBytes = 0;
+        }
+        log.info("OCR 캐시 전체 무효화");
+    }
+
+    // Spring Boot가 MeterBinder 빈을 찾아 등록 - 조회할 때마다 기존 카운터 값을 읽는다
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CacheMetrics.bindHits(registry, "ocr", "exact", exactHits);
+        CacheMetrics.bindHits(registry, "ocr", "perceptual", perceptualHits);
+        CacheMetrics.bindMisses(registry, "ocr", misses);
+    }
+
+    public Map<String, Object> getStats() {
+        long exact = exactHits.get();
+        long perceptual = perceptualHits.get();
+        long miss = misses.get();
+        long total = exact + perceptual + miss;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("perceptualHashEnabled", perceptualHashEnabled);
+        stats.put("exactHits", exact);
+        stats.put("perceptualHits", perceptual);
+        stats.put("misses", miss);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) (exact + perceptual) / total);
+        stats.put("evictions", evictions.get());
+        synchronized (index) {
+            stats.put("entries", index.size());
+            stats.put("bytes", totalBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        return stats;
+    }
+
+    // ---------------------------------------------------------------- 내부 구현
+
+    private CacheEntry findNearest(long perceptualHash) {
+        CacheEntry nearest = null;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (CacheEntry entry : index.values()) {
+            if (entry.perceptualHash() == null) {
+                continue;
+            }
+            int distance = Long.bitCount(entry.perceptualHash() ^ perceptualHash);
+            if (distance <= perceptualMaxDistance && distance < nearestDistance) {
+                nearest = entry;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    // index 잠금을 잡은 상태에서 호출
+    private void evictOverBudget() {
+        Iterator<CacheEntry> iterator = index.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            CacheEntry eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.size();
+            deleteQuietly(eldest.path());
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(String sha256) {
+        synchronized (index) {
+            CacheEntry removed = index.remove(sha256);
+            if (removed != null) {
+                totalBytes -= removed.size();
+            }
+        }
+    }
+
+    /**
+     * dHash: 9x8 회색조로 축소한 뒤 가로로 인접한 픽셀의 밝기 비교 결과 64비트
+     * 다시 인코딩하거나 크기를 바꾸거나 살짝 잘라낸 정도로는 몇 비트만 달라진다.
+     * 디코딩할 수 없는 형식(HEIC 등)은 null을 반환하며 완전 일치 키만 사용한다.
+     */
+    private Long differenceHash(byte[] imageBytes) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(imageBytes));
+            if (source == null) {
+                return null;
+            }
+            BufferedImage scaled = new BufferedImage(DHASH_WIDTH, DHASH_HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(source, 0, 0, DHASH_WIDTH, DHASH_HEIGHT, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            long hash = 0;
+            for (int y = 0; y < DHASH_HEIGHT; y++) {
+                for (int x = 0; x < DHASH_WIDTH - 1; x++) {
+                    int left = scaled.getRaster().getSample(x, y, 0);
+                    int right = scaled.getRaster().getSample(x + 1, y, 0);
+                    hash = (hash << 1) | (left > right ? 1 : 0);
+                }
+            }
+            return hash;
+        } catch (IOException | RuntimeException e) {
+            log.debug("지각 해시 계산 실패", e);
+            return null;
+        }
+    }
+
+    private CacheEntry parseFileName(Path file) {
+        String name = file.getFileName().toString();
+        String base = name.substring(0, name.length() - SUFFIX.length());
+        String[] parts = base.split("_", 2);
+        if (parts[0].length() != 64) {
+            return null;
+        }
+        try {
+            Long perceptualHash = parts.length == 2 ? HexFormat.fromHexDigitsToLong(parts[1]) : null;
+            return new CacheEntry(parts[0], perceptualHash, file, Files.size(file));
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("OCR 캐시 파일 무시: {}", name);
+            return null;
+        }
+    }
+
+    private FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("OCR 캐시 파일 삭제 실패: {}", file, e);
+        }
+    }
+
+    public record ImageFingerprint(String sha256, Long perceptualHash) {
+    }
+
+    private record CacheEntry(String sha256, Long perceptualHash, Path path, long size) {
+    }
+}
@@ -0,0 +1,106 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+/**
+ * POI XWPF 객체 모델 기반 렌더러 (기존 채우기 방식)
+ * 문서 전체를 메모리에 올린 뒤 본문 문단과 표 안의 문단을 교체하고 모든 파트를 다시 직렬화한다.
+ */
+@Component
+public class PoiDocxTemplateRenderer implements DocxTemplateRenderer {
+
+    static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{([^}]+)\\}\\}");
+
+    private final PoiPackageLoader packageLoader;
+
+    public PoiDocxTemplateRenderer(PoiPackageLoader packageLoader) {
+        this.packageLoader = packageLoader;
+    }
+
+    @Override
+    public void render(byte[] template, String contentHash, Map<String, String> data, OutputStream out)
+        throws IOException {
+        // 메모리 예산 안에서 연다 (큰 템플릿은 임시 파일로 열어 이미지 등은 힙에 올리지 않음)
+        try (PoiPackageLoader.LoadedDocument loaded = packageLoader.open(template)) {
+            XWPFDocument doc = loaded.document();
+            // 일반 문단 교체: 문서 전체의 문단을 순회하며 교체
+            for (XWPFParagraph p : doc.getParagraphs()) {
+                replacePlaceholdersInParagraph(p, data);
+            }
+
+            // 표 안의 내용 교체: 표를 순회하며 텍스트를 교체
+            for (XWPFTable table : doc.getTables()) {
+                for (XWPFTableRow row : table.getRows()) {
+                    for (XWPFTableCell cell : row.getTableCells()) {
+                        for (XWPFParagraph p : cell.getParagraphs()) {
+                            replacePlaceholdersInParagraph(p, data);
+                        }
+                    }
+                }
+            }
+
+            // 수정된 문서를 출력 스트림에 바로 쓴다 (호출자의 스트림은 닫지 않음)
+            doc.write(StreamUtils.nonClosing(out));
+        }
+    }
+
+    /**
+     * 문단 내의 자리 표시자를 교체
+     */
+    private void replacePlaceholdersInParagraph(XWPFParagraph paragraph, Map<String, String> data) {
+        String text = paragraph.getText(); // 문단 전체 텍스트 가져오기
+        if (!text.contains("{{") || !text.contains("}}")) {
+            return; // 플레이스홀더가 없으면 바로 종료
+        }
+
+        Matcher matcher = PLACEHOLDER.matcher(text);
+
+        // 문단의 모든 텍스트를 하나의 문자열로 합침
+        StringBuilder builder = new StringBuilder();
+        for (XWPFRun run : paragraph.getRuns()) {
+            if (run.getText(0) != null) {
+                builder.append(run.getText(0));
+            }
+        }
+
+        String currentText = builder.toString();
+
+        // 매칭되는 모든 플레이스홀더를 찾아서 교체
+        while (matcher.find()) {
+            String placeholder = matcher.group(0); // 예: {{이름}}
+            String key = matcher.group(1).trim();  // 예: 이름
+
+            // 키가 없거나 값이 null인 경우, 기본값으로 빈 문자열을 사용합니다.
+            String value = data.getOrDefault(key, "");
+
+            // 플레이스홀더를 값으로 교체합니다.
+            currentText = currentText.replace(placeholder, value);
+        }
+
+        // 교체된 텍스트가 있으면 문단을 재구성
+        if (!currentText.equals(text)) {
+            // 기존의 모든 Run 삭제
+            List<XWPFRun> runs = paragraph.getRuns();
+            for (int i = runs.size() - 1; i >= 0; i--) {
+                paragraph.removeRun(i);
+            }
+
+            // 새로운 Run 생성 및 텍스트 설정
+            XWPFRun newRun = paragraph.createRun();
+            newRun.setText(currentText);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import AI_Challenge.AI_Challenge.global.common.MemoryBudget;
+import AI_Challenge.AI_Challenge.global.config.BulkheadConfig;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 메모리 예산 안에서 DOCX를 XWPFDocument로 연다
+ * - zip 중앙 디렉터리의 항목 크기로 힙 사용량을 미리 추정해 예산(MemoryBudget)을 얻는다 (큰 문서는 413, 예산이 없으면 429)
+ * - 압축 해제 크기가 작으면 지금처럼 메모리에서 열고, 크면 임시 파일로 열어(OPCPackage.open(File)) 파트를 필요할 때만 읽는다
+ *   (이미지 등 바이너리 파트는 힙에 올라오지 않고 XML 파트의 DOM만 남는다)
+ * - 메모리로 열 때도 temp-file-threshold보다 큰 zip 항목은 POI가 임시 파일에 둔다 (JVM 전역 설정은 PoiConfig에서 한 번 적용)
+ */
+@Component
+@Slf4j
+public class PoiPackageLoader {
+
+    private final MemoryBudget memoryBudget;
+    private final long inMemoryMaxBytes;
+    private final double xmlHeapFactor;
+    private final int tempFileThresholdBytes;
+
+    public PoiPackageLoader(@Qualifier(BulkheadConfig.POI_MEMORY) MemoryBudget memoryBudget,
+        @Value("${document.poi.in-memory-max-bytes:16777216}") long inMemoryMaxBytes,
+        @Value("${document.poi.temp-file-threshold-bytes:1048576}") int tempFileThresholdBytes,
+        @Value("${document.poi.xml-heap-factor:6}") double xmlHeapFactor) {
+        this.memoryBudget = memoryBudget;
+        this.inMemoryMaxBytes = inMemoryMaxBytes;
+        this.tempFileThresholdBytes = tempFileThresholdBytes;
+        this.xmlHeapFactor = xmlHeapFactor;
+    }
+
+    /**
+     * 바이트 배열로 가진 DOCX를 연다 (렌더링처럼 수정 후 write해도 된다 - 원본/임시 파일에는 저장하지 않음)
+     */
+    public LoadedDocument open(byte[] docx) throws IOException {
+        Footprint footprint;
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(docx))) {
+            footprint = Footprint.of(zip, tempFileThresholdBytes);
+        }
+        boolean inMemory = footprint.inflatedBytes() <= inMemoryMaxBytes;
+        long heapBytes = estimateHeapBytes(footprint, inMemory ? docx.length : -1);
+
+        MemoryBudget.Reservation reservation = reserve(heapBytes);
+        Path tempFile = null;
+        try {
+            if (inMemory) {
+                OPCPackage pkg = OPCPackage.open(new ByteArrayInputStream(docx));
+                return new LoadedDocument(openDocument(pkg), null, reservation);
+            }
+            // 큰 문서 - 임시 파일로 열어 파트를 필요할 때만 읽는다
+            log.info("큰 DOCX를 임시 파일로 엽니다: 압축 해제 {}KB, 예상 힙 {}KB",
+                footprint.inflatedBytes() / 1024, heapBytes / 1024);
+            tempFile = Files.createTempFile("poi_", ".docx");
+            Files.write(tempFile, docx);
+            OPCPackage pkg = OPCPackage.open(tempFile.toFile(), PackageAccess.READ_WRITE);
+            return new LoadedDocument(openDocument(pkg), tempFile, reservation);
+        } catch (InvalidFormatException e) {
+            cleanUp(reservation, tempFile);
+            throw new IOException("DOCX 형식이 올바르지 않습니다.", e);
+        } catch (IOException | RuntimeException e) {
+            cleanUp(reservation, tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 파일로 저장된 DOCX를 읽기 전용으로 연다 (업로드 텍스트 추출) - 항상 파트를 필요할 때만 읽는다
+     */
+    public LoadedDocument open(Path file) throws IOException {
+        Footprint footprint;
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            footprint = Footprint.of(zip, tempFileThresholdBytes);
+        }
+        MemoryBudget.Reservation reservation = reserve(estimateHeapBytes(footprint, -1));
+        try {
+            OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+            return new LoadedDocument(openDocument(pkg), null, reservation);
+        } catch (InvalidFormatException e) {
+            reservation.close();
+            throw new IOException("DOCX 형식이 올바르지 않습니다.", e);
+        } catch (IOException | RuntimeException e) {
+            reservation.close();
+            throw e;
+        }
+    }
+
+    // XML 파트는 DOM으로 올라오므로 배수를 곱하고, 메모리로 열 때는 원본 + 임시 파일로 빠지지 않는 작은 바이너리 항목을 더한다
+    private long estimateHeapBytes(Footprint footprint, long inMemoryLength) {
+        long heapBytes = (long) (footprint.xmlBytes() * xmlHeapFactor);
+        if (inMemoryLength >= 0) {
+            heapBytes += inMemoryLength + footprint.smallBinaryBytes();
+        }
+        return heapBytes;
+    }
+
+    private MemoryBudget.Reservation reserve(long heapBytes) throws IOException {
+        try {
+            return memoryBudget.reserve(heapBytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("문서 처리 메모리 예산을 기다리는 중 중단되었습니다.");
+        }
+    }
+
+    private static XWPFDocument openDocument(OPCPackage pkg) throws IOException {
+        try {
+            return new XWPFDocument(pkg);
+        } catch (IOException | RuntimeException e) {
+            pkg.revert();
+            throw e;
+        }
+    }
+
+    private static void cleanUp(MemoryBudget.Reservation reservation, Path tempFile) throws IOException {
+        reservation.close();
+        if (tempFile != null) {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 예산 안에서 연 문서 - 닫으면 패키지를 저장 없이 닫고, 임시 파일을 지우고, 예산을 반납한다
+     */
+    public static final class LoadedDocument implements AutoCloseable {
+
+        private final XWPFDocument document;
+        private final Path tempFile;
+        private final MemoryBudget.Reservation reservation;
+
+        private LoadedDocument(XWPFDocument document, Path tempFile, MemoryBudget.Reservation reservation) {
+            this.document = document;
+            this.tempFile = tempFile;
+            this.reservation = reservation;
+        }
+
+        public XWPFDocument document() {
+            return document;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                // XWPFDocument.close()는 READ_WRITE 패키지를 원래 파일에 저장하므로 revert로 닫는다
+                document.getPackage().revert();
+            } finally {
+                cleanUp(reservation, tempFile);
+            }
+        }
+    }
+
+    /**
+     * zip 항목의 압축 해제 크기 - XML 파트 / 그 밖의 바이너리 파트 / 그중 임시 파일 기준 이하인 바이너리 파트
+     */
+    private record Footprint(long xmlBytes, long binaryBytes, long smallBinaryBytes) {
+
+        static Footprint of(ZipFile zip, long tempFileThresholdBytes) {
+            long xmlBytes = 0;
+            long binaryBytes = 0;
+            long smallBinaryBytes = 0;
+            Enumeration<ZipArchiveEntry> entries = zip.getEntries();
+            while (entries.hasMoreElements()) {
+                ZipArchiveEntry entry = entries.nextElement();
+                // 크기를 모르는 항목은 압축된 크기로 대신한다 (압축률이 비정상인 zip bomb은 POI가 따로 막는다)
+                long size = entry.getSize() >= 0 ? entry.getSize() : Math.max(0, entry.getCompressedSize());
+                String name = entry.getName();
+                if (name.endsWith(".xml") || name.endsWith(".rels")) {
+                    xmlBytes += size;
+                } else {
+                    binaryBytes += size;
+                    if (size <= tempFileThresholdBytes) {
+                        smallBinaryBytes += size;
+                    }
+                }
+            }
+            return new Footprint(xmlBytes, binaryBytes, smallBinaryBytes);
+        }
+
+        long inflatedBytes() {
+            return xmlBytes + binaryBytes;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * document-result 폴더의 메모리 색인
+ * - 시작 시 TSV 스냅샷으로 즉시 복원하고, 백그라운드에서 폴더를 한 번 훑어 차이를 맞춘다
+ * - 이후에는 processAndSaveDocument의 register 호출과 WatchService 이벤트로만 갱신 (목록 조회 시 디스크를 읽지 않음)
+ * - 이름 순 / 수정 시각 순 두 개의 skip list로 정렬과 이름 접두사 필터를 처리
+ */
+@Service
+@Slf4j
+public class ProcessedDocumentCatalog {
+
+    private static final Comparator<CatalogEntry> BY_LAST_MODIFIED =
+        Comparator.comparingLong(CatalogEntry::lastModified).thenComparing(CatalogEntry::fileName);
+
+    private final Path resultDir;
+    private final Path snapshotPath;
+
+    private final ConcurrentSkipListMap<String, CatalogEntry> byName = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListSet<CatalogEntry> byLastModified = new ConcurrentSkipListSet<>(BY_LAST_MODIFIED);
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private WatchService watchService;
+
+    public ProcessedDocumentCatalog(
+        @Value("${document.result.path}") String resultPath,
+        @Value("${document.result.catalog.snapshot-path:}") String snapshotPath) {
+        this.resultDir = Paths.get(resultPath).toAbsolutePath().normalize();
+        this.snapshotPath = snapshotPath.isBlank() ? resultDir.resolve(".catalog.tsv") : Paths.get(snapshotPath);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(resultDir);
+        int restored = loadSnapshot();
+
+        // 감시를 먼저 등록한 뒤 폴더를 훑어, 그 사이에 생긴 파일을 놓치지 않는다
+        watchService = resultDir.getFileSystem().newWatchService();
+        resultDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        Thread watcherThread = new Thread(this::watchLoop, "result-catalog-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+
+        log.info("결과 문서 색인 스냅샷 복원: {} 건", restored);
+    }
+
+    @PreDestroy
+    public void stop() {
+        try {
+            if (watchService != null) {
+                watchService.close();
+            }
+        } catch (IOException e) {
+            log.warn("결과 폴더 감시 종료 실패: {}", e.getMessage());
+        }
+        saveSnapshotIfDirty();
+    }
+
+    /**
+     * 파일을 색인에 반영 (결과 파일을 쓴 직후 호출 - 감시 이벤트보다 먼저 목록에 보이도록)
+     */
+    public void register(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attributes.isRegularFile()) {
+                put(new CatalogEntry(file.getFileName().toString(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis()));
+            }
+        } catch (NoSuchFileException e) {
+            remove(file.getFileName().toString());
+        } catch (IOException e) {
+            log.warn("결과 문서 색인 갱신 실패: {} - {}", file, e.getMessage());
+        }
+    }
+
+    // 두 색인을 함께 바꾸므로 쓰기만 직렬화 (조회는 잠금 없이 skip list를 읽는다)
+    public synchronized void remove(String fileName) {
+        CatalogEntry previous = byName.remove(fileName);
+        if (previous != null) {
+            byLastModified.remove(previous);
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * 이름이 prefix로 시작하고 maxAge보다 오래된 결과 파일을 지운다 (색인에서 찾으므로 폴더를 훑지 않는다)
+     */
+    public int deleteOlderThan(String prefix, Duration maxAge) {
+        long threshold = System.currentTimeMillis() - maxAge.toMillis();
+        List<CatalogEntry> expired = byName.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()
+            .stream()
+            .filter(entry -> entry.lastModified() < threshold)
+            .toList();
+        int deleted = 0;
+        for (CatalogEntry entry : expired) {
+            try {
+                Files.deleteIfExists(resultDir.resolve(entry.fileName()));
+                remove(entry.fileName());
+                deleted++;
+            } catch (IOException e) {
+                log.warn("오래된 결과 파일 삭제 실패: {} - {}", entry.fileName(), e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 정렬(name | lastModified | size), 이름 접두사 필터, 페이지 조회
+     */
+    public CatalogPage query(String sort, boolean descending, String prefix, int page, int size) {
+        NavigableMap<String, CatalogEntry> names = byName;
+        if (prefix != null && !prefix.isEmpty()) {
+            names = byName.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+
+        Stream<CatalogEntry> ordered;
+        long total;
+        if ("name".equalsIgnoreCase(sort)) {
+            ordered = (descending ? names.descendingMap() : names).values().stream();
+            total = names.size();
+        } else if ("size".equalsIgnoreCase(sort)) {
+            Comparator<CatalogEntry> bySize = Comparator.comparingLong(CatalogEntry::size)
+                .thenComparing(CatalogEntry::fileName);
+            ordered = names.values().stream().sorted(descending ? bySize.reversed() : bySize);
+            total = names.size();
+        } else {
+            // 기본: 수정 시각 순 (접두사가 있으면 해당 이름만 통과, skip/limit까지 지연 순회)
+            String filter = prefix == null ? "" : prefix;
+            ordered = (descending ? byLastModified.descendingSet() : byLastModified).stream()
+                .filter(entry -> entry.fileName().startsWith(filter));
+            total = names.size();
+        }
+
+        int pageSize = Math.max(1, size);
+        int pageNumber = Math.max(0, page);
+        List<CatalogEntry> items = ordered.skip((long) pageNumber * pageSize).limit(pageSize).toList();
+        return new CatalogPage(items, total, pageNumber, pageSize);
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    // 기존 /processed-list 응답과 같은 필드
+    public Map<String, Object> toMap(CatalogEntry entry) {
+        Map<String, Object> docInfo = new HashMap<>();
+        docInfo.put("fileName", entry.fileName());
+        docInfo.put("filePath", resultDir.resolve(entry.fileName()).toString());
+        docInfo.put("fileSize", entry.size());
+        docInfo.put("lastModified", Instant.ofEpochMilli(entry.lastModified()).toString());
+        return docInfo;
+    }
+
+    // 백그라운드에서 폴더 전체와 색인을 맞춘다 (시작 직후 한 번, 감시 이벤트 유실(OVERFLOW) 시)
+    public void reconcile() {
+        Set<String> seen = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(resultDir)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                if (isIndexable(fileName)) {
+                    seen.add(fileName);
+                    register(path);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("결과 폴더 재색인 실패: {}", e.getMessage());
+            return;
+        }
+        for (String fileName : byName.keySet()) {
+            // 훑는 도중 register된 새 파일은 지우지 않는다
+            if (!seen.contains(fileName) && !Files.exists(resultDir.resolve(fileName))) {
+                remove(fileName);
+            }
+        }
+        log.info("결과 폴더 재색인 완료: {} 건", byName.size());
+    }
+
+    // 변경이 있을 때만 스냅샷 저장
+    @Scheduled(fixedDelayString = "${document.result.catalog.snapshot-interval-ms:60000}")
+    public void saveSnapshotIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            Path temp = Files.createTempFile(snapshotPath.getParent(), "catalog-", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (CatalogEntry entry : byName.values()) {
+                    writer.write(entry.fileName() + '\t' + entry.size() + '\t' + entry.lastModified());
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(temp, snapshotPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            dirty.set(true);
+            log.warn("결과 문서 색인 스냅샷 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    private int loadSnapshot() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return 0;
+        }
+        int restored = 0;
+        try (BufferedReader reader = Files.newBufferedReader(snapshotPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t");
+                if (columns.length != 3 || !isIndexable(columns[0])) {
+                    continue;
+                }
+                CatalogEntry entry = new CatalogEntry(columns[0], Long.parseLong(columns[1]), Long.parseLong(columns[2]));
+                put(entry);
+                restored++;
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("결과 문서 색인 스냅샷을 읽을 수 없어 폴더를 다시 훑습니다: {}", e.getMessage());
+            byName.clear();
+            byLastModified.clear();
+            return 0;
+        }
+        dirty.set(false);
+        return restored;
+    }
+
+    private void watchLoop() {
+        reconcile();
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean overflow = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                    continue;
+                }
+                String fileName = event.context().toString();
+                if (!isIndexable(fileName)) {
+                    continue;
+                }
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    remove(fileName);
+                } else {
+                    register(resultDir.resolve(fileName));
+                }
+            }
+            if (overflow) {
+                reconcile();
+            }
+            if (!key.reset()) {
+                log.warn("결과 폴더 감시가 중단되었습니다: {}", resultDir);
+                return;
+            }
+        }
+    }
+
+    private synchronized void put(CatalogEntry entry) {
+        CatalogEntry previous = byName.put(entry.fileName(), entry);
+        if (previous != null) {
+            if (previous.equals(entry)) {
+                return;
+            }
+            byLastModified.remove(previous);
+        }
+        byLastModified.add(entry);
+        dirty.set(true);
+    }
+
+    // 숨김 파일(스냅샷, 임시 파일)과 줄바꿈/탭이 들어간 이름은 색인하지 않는다
+    private boolean isIndexable(String fileName) {
+        return !fileName.startsWith(".") && !fileName.endsWith(".tmp")
+            && fileName.indexOf('\t') < 0 && fileName.indexOf('\n') < 0;
+    }
+
+    public record CatalogEntry(String fileName, long size, long lastModified) {
+    }
+
+    public record CatalogPage(List<CatalogEntry> items, long total, int page, int size) {
+    }
+}
@@ -0,0 +1,390 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 영수증 OCR 텍스트에서 규칙(정규식 + 사전)으로 스키마 필드를 채우는 추출기 (GPT 채우기 앞단)
+ * - 영수증마다 날짜, 합계 금액, 사업자번호, 가맹점명, 승인번호, 교통편 종류, 출발지/도착지를 읽는다
+ * - 값이 하나로 확정되는 필드만 채우고, 후보가 여러 개이거나 없으면 GPT에 넘긴다
+ * OCR 결과는 영수증마다 "# " 또는 "## " 제목으로 시작하므로 제목 단위로 영수증을 나눈다.
+ */
+@Component
+@Slf4j
+public class ReceiptFieldExtractor {
+
+    private static final Pattern RECEIPT_HEADING = Pattern.compile("(?m)^#{1,2}\\s");
+    private static final Pattern MARKDOWN_NOISE = Pattern.compile("[*\\\\]");
+
+    private static final Pattern DATE = Pattern.compile(
+        "(20\\d{2})\\s*[.\\-/년]\\s*(\\d{1,2})\\s*[.\\-/월]\\s*(\\d{1,2})(?!\\d)");
+    private static final Pattern TRAVEL_DATE = Pattern.compile(
+        "(?:출발일|탑승일|이용일|출발\\s*일시)[^\\n\\d]{0,10}(20\\d{2})\\s*[.\\-/년]\\s*(\\d{1,2})\\s*[.\\-/월]\\s*(\\d{1,2})(?!\\d)");
+    private static final Pattern AMOUNT = Pattern.compile("(\\d{1,3}(?:,\\d{3})+|\\d+)\\s*(?:원|KRW)");
+    private static final Pattern TOTAL_AMOUNT = Pattern.compile(
+        "(?:합\\s*계|총\\s*영수\\s*금액|결제\\s*금액|승인\\s*금액|받을\\s*금액|총\\s*금액)[^\\n\\d]{0,20}"
+            + "(\\d{1,3}(?:,\\d{3})+|\\d+)\\s*(?:원|KRW)");
+    private static final Pattern BUSINESS_NUMBER = Pattern.compile("(?<![\\d-])(\\d{3})-(\\d{2})-(\\d{5})(?![\\d-])");
+    private static final Pattern APPROVAL_NUMBER = Pattern.compile(
+        "승인\\s*번호[^\\n\\d]{0,20}(\\d[0-9A-Za-z-]{3,})");
+    private static final Pattern MERCHANT = Pattern.compile(
+        "(?:가맹점\\s*명?|상\\s*호\\s*명?)\\s*[:：]\\s*([^\\n]+)");
+    private static final Pattern ROUTE_LABEL = Pattern.compile("(출발지|도착지)\\s*[:：]\\s*([^\\n]+)");
+    private static final Pattern ROUTE_ARROW = Pattern.compile(
+        "([가-힣A-Za-z()]+)\\s*(?:\\d{1,2}:\\d{2}\\s*)?(?:→|->|〉|➝)\\s*([가-힣A-Za-z()]+)");
+    // 번호는 세 자리까지 (그보다 긴 숫자는 교통 칸 번호가 아니므로 GPT에 넘긴다)
+    private static final Pattern INDEXED_KEY = Pattern.compile("^(.+?)(\\d{1,3})$");
+
+    // 영수증 종류 사전 (가장 많이 나온 종류가 두 번째의 2배 이상일 때만 확정)
+    private static final Map<String, List<String>> CATEGORY_KEYWORDS = new LinkedHashMap<>();
+
+    static {
+        CATEGORY_KEYWORDS.put("버스", List.of("고속버스", "시외버스", "버스"));
+        CATEGORY_KEYWORDS.put("기차", List.of("KTX", "SRT", "ITX", "열차", "철도", "무궁화"));
+        CATEGORY_KEYWORDS.put("비행기", List.of("항공권", "항공", "탑승권", "공항"));
+        CATEGORY_KEYWORDS.put("숙박", List.of("호텔", "숙박", "모텔", "리조트", "게스트하우스", "체크인"));
+        CATEGORY_KEYWORDS.put("식비", List.of("식당", "음식", "식사", "한식", "중식", "일식", "분식", "카페", "커피", "메뉴"));
+    }
+
+    private static final Set<String> TRANSPORT = Set.of("버스", "기차", "비행기");
+
+    // 번호가 붙는 교통 칸 필드 (일자1, 금액2 ...)
+    private static final Set<String> INDEXED_TRANSPORT_FIELDS = Set.of("일자", "교통편", "구분", "출발지", "도착지", "금액");
+
+    // 스키마 키 사전 - 영수증 한 장일 때 그대로 채우는 필드
+    private static final Map<String, String> SINGLE_RECEIPT_KEYS = Map.ofEntries(
+        Map.entry("사업자번호", "businessNumber"), Map.entry("사업자등록번호", "businessNumber"),
+        Map.entry("가맹점명", "merchant"), Map.entry("가맹점", "merchant"), Map.entry("상호", "merchant"),
+        Map.entry("상호명", "merchant"), Map.entry("업체명", "merchant"),
+        Map.entry("승인번호", "approvalNumber"),
+        Map.entry("합계", "total"), Map.entry("합계금액", "total"), Map.entry("결제금액", "total"),
+        Map.entry("총액", "total"), Map.entry("금액", "total"),
+        Map.entry("일시", "date"), Map.entry("거래일시", "date"), Map.entry("결제일시", "date"),
+        Map.entry("날짜", "date"), Map.entry("일자", "date"));
+
+    // 종류별 영수증이 하나도 없으면 빈 문자열로 확정하는 필드 (채우기 규칙: 영수증에 없는 정보는 "")
+    private static final Map<String, String> CATEGORY_OWNED_PREFIXES = Map.of("식비", "식비", "식사", "식비", "숙박", "숙박");
+
+    private static final String TOTAL_KEY = "출장금액";
+
+    private final ObjectMapper objectMapper;
+
+    public ReceiptFieldExtractor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 스키마(JSON before)의 키 중 텍스트에서 확정할 수 있는 값을 채운다
+     * 스키마가 평탄한 문자열 객체가 아니면 아무것도 채우지 않는다 (전체를 GPT로)
+     */
+    public Resolution resolve(String schemaJson, String extractedText) {
+        List<String> keys = flatKeys(schemaJson);
+        Map<String, String> resolved = new LinkedHashMap<>();
+        if (keys.isEmpty() || extractedText == null || extractedText.isBlank()) {
+            return new Resolution(keys, resolved);
+        }
+
+        List<Receipt> receipts = splitReceipts(extractedText).stream().map(this::parse).toList();
+        boolean allClassified = receipts.stream().allMatch(receipt -> receipt.category() != null);
+        boolean allTransport = allClassified && receipts.stream().allMatch(receipt -> TRANSPORT.contains(receipt.category()));
+
+        for (String key : keys) {
+            resolveKey(key, receipts, allClassified, allTransport).ifPresent(value -> resolved.put(key, value));
+        }
+        log.info("규칙 기반 필드 추출: 영수증 {}장, {} / {} 필드 확정", receipts.size(), resolved.size(), keys.size());
+        return new Resolution(keys, resolved);
+    }
+
+    private Optional<String> resolveKey(String key, List<Receipt> receipts, boolean allClassified, boolean allTransport) {
+        String normalizedKey = key.replace(" ", "");
+
+        // 1. 출장금액 - 모든 영수증의 합계가 확정된 경우에만 합산
+        if (TOTAL_KEY.equals(normalizedKey)) {
+            if (receipts.stream().anyMatch(receipt -> receipt.total() == null)) {
+                return Optional.empty();
+            }
+            return Optional.of(formatAmount(receipts.stream().mapToLong(Receipt::total).sum()));
+        }
+
+        // 2. 번호가 붙은 교통 필드(일자1, 금액2 ...) - 모든 영수증이 교통 영수증일 때 순서대로 대응
+        Matcher indexed = INDEXED_KEY.matcher(normalizedKey);
+        if (indexed.matches() && INDEXED_TRANSPORT_FIELDS.contains(indexed.group(1))) {
+            int index = Integer.parseInt(indexed.group(2));
+            if (!allTransport || index < 1) {
+                return Optional.empty();
+            }
+            // 영수증보다 많은 칸은 빈 칸으로 확정
+            if (index > receipts.size()) {
+                return Optional.of("");
+            }
+            Receipt receipt = receipts.get(index - 1);
+            return switch (indexed.group(1)) {
+                case "일자" -> Optional.ofNullable(receipt.date()).map(ReceiptDate::iso);
+                case "교통편", "구분" -> Optional.of(receipt.category());
+                case "출발지" -> Optional.ofNullable(receipt.departure());
+                case "도착지" -> Optional.ofNullable(receipt.arrival());
+                default -> Optional.ofNullable(receipt.total()).map(ReceiptFieldExtractor::formatAmount);
+            };
+        }
+
+        // 3. 식비/숙박 필드 - 해당 종류의 영수증이 하나도 없다고 확정되면 빈 문자열
+        for (Map.Entry<String, String> owned : CATEGORY_OWNED_PREFIXES.entrySet()) {
+            if (normalizedKey.startsWith(owned.getKey())) {
+                boolean none = allClassified
+                    && receipts.stream().noneMatch(receipt -> owned.getValue().equals(receipt.category()));
+                return none ? Optional.of("") : Optional.empty();
+            }
+        }
+
+        // 4. 일반 영수증 필드 - 영수증이 한 장일 때만 (합계가 하나로 정해지지 않으면 여러 장이 섞인 것으로 본다)
+        String field = SINGLE_RECEIPT_KEYS.get(normalizedKey);
+        if (field == null || receipts.size() != 1 || receipts.get(0).total() == null) {
+            return Optional.empty();
+        }
+        Receipt receipt = receipts.get(0);
+        return switch (field) {
+            case "businessNumber" -> Optional.ofNullable(receipt.businessNumber());
+            case "merchant" -> Optional.ofNullable(receipt.merchant());
+            case "approvalNumber" -> Optional.ofNullable(receipt.approvalNumber());
+            case "total" -> Optional.ofNullable(receipt.total()).map(ReceiptFieldExtractor::formatAmount);
+            case "date" -> Optional.ofNullable(receipt.date()).map(ReceiptDate::korean);
+            default -> Optional.empty();
+        };
+    }
+
+    List<String> splitReceipts(String text) {
+        List<String> receipts = new ArrayList<>();
+        Matcher heading = RECEIPT_HEADING.matcher(text);
+        int start = 0;
+        while (heading.find()) {
+            if (heading.start() > start && !text.substring(start, heading.start()).isBlank()) {
+                receipts.add(text.substring(start, heading.start()));
+            }
+            start = heading.start();
+        }
+        if (!text.substring(start).isBlank()) {
+            receipts.add(text.substring(start));
+        }
+        return receipts;
+    }
+
+    Receipt parse(String receiptText) {
+        String text = MARKDOWN_NOISE.matcher(receiptText).replaceAll("");
+
+        // 날짜 - 출발일/탑승일 표시가 있으면 그 값, 없으면 모든 날짜가 같을 때만
+        ReceiptDate date = unique(TRAVEL_DATE, text, ReceiptFieldExtractor::dateOf);
+        if (date == null) {
+            date = unique(DATE, text, ReceiptFieldExtractor::dateOf);
+        }
+
+        // 합계 - 합계/결제금액 표시가 붙은 금액, 없으면 0원이 아닌 금액이 하나뿐일 때만
+        Long total = unique(TOTAL_AMOUNT, text, matcher -> parseAmount(matcher.group(1)));
+        if (total == null) {
+            Set<Long> amounts = new LinkedHashSet<>();
+            Matcher amount = AMOUNT.matcher(text);
+            while (amount.find()) {
+                long value = parseAmount(amount.group(1));
+                if (value > 0) {
+                    amounts.add(value);
+                }
+            }
+            total = amounts.size() == 1 ? amounts.iterator().next() : null;
+        }
+
+        String businessNumber = unique(BUSINESS_NUMBER, text,
+            matcher -> matcher.group(1) + "-" + matcher.group(2) + "-" + matcher.group(3));
+        String approvalNumber = unique(APPROVAL_NUMBER, text, matcher -> matcher.group(1));
+        String merchant = unique(MERCHANT, text, matcher -> matcher.group(1).trim());
+
+        // 출발지/도착지 - 표시(출발지: ...)가 우선, 없으면 "서울 → 대전" 형태
+        String departure = unique(ROUTE_LABEL, text, matcher -> "출발지".equals(matcher.group(1)) ? matcher.group(2).trim() : null);
+        String arrival = unique(ROUTE_LABEL, text, matcher -> "도착지".equals(matcher.group(1)) ? matcher.group(2).trim() : null);
+        if (departure == null && arrival == null) {
+            departure = unique(ROUTE_ARROW, text, matcher -> matcher.group(1));
+            arrival = unique(ROUTE_ARROW, text, matcher -> matcher.group(2));
+        }
+
+        return new Receipt(date, total, businessNumber, approvalNumber, merchant, departure, arrival, classify(text));
+    }
+
+    private static String classify(String text) {
+        String best = null;
+        int bestCount = 0;
+        int secondCount = 0;
+        for (Map.Entry<String, List<String>> category : CATEGORY_KEYWORDS.entrySet()) {
+            int count = 0;
+            String remaining = text;
+            for (String keyword : category.getValue()) {
+                // 긴 단어부터 세고 지워서 "고속버스"를 "버스"로 다시 세지 않는다
+                count += occurrences(remaining, keyword);
+                remaining = remaining.replace(keyword, " ");
+            }
+            if (count > bestCount) {
+                secondCount = bestCount;
+                bestCount = count;
+                best = category.getKey();
+            } else if (count > secondCount) {
+                secondCount = count;
+            }
+        }
+        return bestCount > 0 && bestCount >= secondCount * 2 ? best : null;
+    }
+
+    private static int occurrences(String text, String keyword) {
+        int count = 0;
+        int index = text.indexOf(keyword);
+        while (index >= 0) {
+            count++;
+            index = text.indexOf(keyword, index + keyword.length());
+        }
+        return count;
+    }
+
+    // 패턴의 모든 일치에서 값을 뽑아 서로 다른 값이 하나뿐일 때만 반환 (null 값은 무시)
+    private static <T> T unique(Pattern pattern, String text, Function<Matcher, T> value) {
+        Set<T> values = new LinkedHashSet<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            T candidate = value.apply(matcher);
+            if (candidate != null) {
+                values.add(candidate);
+            }
+        }
+        return values.size() == 1 ? values.iterator().next() : null;
+    }
+
+    private static ReceiptDate dateOf(Matcher matcher) {
+        int month = Integer.parseInt(matcher.group(2));
+        int day = Integer.parseInt(matcher.group(3));
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        return new ReceiptDate(Integer.parseInt(matcher.group(1)), month, day);
+    }
+
+    private static long parseAmount(String digits) {
+        return Long.parseLong(digits.replace(",", ""));
+    }
+
+    private static String formatAmount(long amount) {
+        return String.format("%,d원", amount);
+    }
+
+    private List<String> flatKeys(String schemaJson) {
+        try {
+            JsonNode root = objectMapper.readTree(schemaJson);
+            if (root == null || !root.isObject()) {
+                return List.of();
+            }
+            List<String> keys = new ArrayList<>();
+            for (Map.Entry<String, JsonNode> field : root.properties()) {
+                if (!field.getValue().isValueNode()) {
+                    return List.of();
+                }
+                keys.add(field.getKey());
+            }
+            return keys;
+        } catch (JsonProcessingException e) {
+            return List.of();
+        }
+    }
+
+    record ReceiptDate(int year, int month, int day) {
+
+        String iso() {
+            return String.format("%d-%02d-%02d", year, month, day);
+        }
+
+        String korean() {
+            return year + "년 " + month + "월 " + day + "일";
+        }
+    }
+
+    record Receipt(ReceiptDate date, Long total, String businessNumber, String approvalNumber, String merchant,
+                   String departure, String arrival, String category) {
+    }
+
+    /**
+     * 규칙으로 확정한 필드와 GPT에 넘길 나머지 필드
+     */
+    public final class Resolution {
+
+        private final List<String> keys;
+        private final Map<String, String> resolved;
+
+        private Resolution(List<String> keys, Map<String, String> resolved) {
+            this.keys = keys;
+            this.resolved = resolved;
+        }
+
+        public boolean isComplete() {
+            return !keys.isEmpty() && resolved.size() == keys.size();
+        }
+
+        public int resolvedCount() {
+            return resolved.size();
+        }
+
+        public int unresolvedCount() {
+            return keys.size() - resolved.size();
+        }
+
+        // 확정하지 못한 키만 남긴 스키마 (GPT 입력)
+        public String unresolvedSchemaJson() {
+            ObjectNode schema = objectMapper.createObjectNode();
+            for (String key : keys) {
+                if (!resolved.containsKey(key)) {
+                    schema.put(key, "");
+                }
+            }
+            return write(schema);
+        }
+
+        /**
+         * GPT 결과와 규칙 결과를 원래 스키마의 키 순서로 합친다 (규칙으로 확정한 값이 우선)
+         */
+        public String merge(String gptJson) {
+            JsonNode filled = null;
+            if (gptJson != null) {
+                try {
+                    filled = objectMapper.readTree(gptJson);
+                } catch (JsonProcessingException e) {
+                    log.warn("GPT 채우기 결과가 JSON이 아니어서 규칙 기반 값만 사용합니다: {}", e.getOriginalMessage());
+                }
+            }
+            ObjectNode merged = objectMapper.createObjectNode();
+            for (String key : keys) {
+                if (resolved.containsKey(key)) {
+                    merged.put(key, resolved.get(key));
+                } else if (filled != null && filled.isObject() && filled.hasNonNull(key)) {
+                    merged.set(key, filled.get(key));
+                } else {
+                    merged.put(key, "");
+                }
+            }
+            return write(merged);
+        }
+
+        private String write(ObjectNode node) {
+            try {
+                return objectMapper.writeValueAsString(node);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("채우기 결과 JSON 생성 실패", e);
+            }
+        }
+    }
+}
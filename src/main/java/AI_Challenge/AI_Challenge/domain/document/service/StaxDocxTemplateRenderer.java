@@ -0,0 +1,392 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import AI_Challenge.AI_Challenge.global.common.LruCache;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+/**
+ * StAX 스트리밍 렌더러
+ * 본문/머리글/바닥글 XML만 이벤트 단위로 흘려보내며 자리 표시자 문단을 교체하고, 나머지 zip 항목(이미지 등)은 압축된 그대로 복사한다.
+ * 템플릿별로 "문단 순번 -> 고정 텍스트/키 목록" 색인을 한 번만 만들어 두므로 렌더링 비용은 바뀌는 텍스트 양에 비례한다.
+ * 자리 표시자가 그림/필드/하이퍼링크 등과 섞인 문단이 있는 템플릿은 POI 렌더러로 처리한다.
+ */
+@Component
+@Slf4j
+public class StaxDocxTemplateRenderer implements DocxTemplateRenderer {
+
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final Pattern TARGET_PART = Pattern.compile("word/(document|header\\d*|footer\\d*)\\.xml");
+
+    // 자리 표시자 문단에서 허용하는 Run 자식 요소 (이외 요소가 있으면 Run을 합칠 수 없다)
+    private static final Set<String> SIMPLE_RUN_CHILDREN = Set.of(
+        "rPr", "t", "tab", "br", "cr", "lastRenderedPageBreak", "softHyphen", "noBreakHyphen");
+
+    private final PoiDocxTemplateRenderer fallbackRenderer;
+    private final LruCache<String, TemplateIndex> indexCache;
+    private final XMLInputFactory inputFactory;
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+    private final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+    public StaxDocxTemplateRenderer(PoiDocxTemplateRenderer fallbackRenderer,
+        @Value("${document.render.index-cache-entries:64}") int indexCacheEntries) {
+        this.fallbackRenderer = fallbackRenderer;
+        this.indexCache = new LruCache<>(indexCacheEntries, Duration.ofDays(1));
+        this.inputFactory = XMLInputFactory.newInstance();
+        this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    @Override
+    public void render(byte[] template, String contentHash, Map<String, String> data, OutputStream out)
+        throws IOException {
+        TemplateIndex index = indexOf(template, contentHash);
+        if (!index.streamable()) {
+            fallbackRenderer.render(template, contentHash, data, out);
+            return;
+        }
+
+        // zip 스트림을 닫아도 호출자의 스트림(응답, 결과 파일)은 닫지 않는다
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(template));
+             ZipArchiveOutputStream zipOut = new ZipArchiveOutputStream(StreamUtils.nonClosing(out))) {
+            Enumeration<ZipArchiveEntry> entries = zip.getEntriesInPhysicalOrder();
+            while (entries.hasMoreElements()) {
+                ZipArchiveEntry entry = entries.nextElement();
+                Map<Integer, ParagraphTemplate> paragraphs = index.parts().get(entry.getName());
+                if (paragraphs == null) {
+                    // 1. 자리 표시자가 없는 항목은 압축 해제 없이 그대로 복사
+                    try (InputStream raw = zip.getRawInputStream(entry)) {
+                        zipOut.addRawArchiveEntry(entry, raw);
+                    }
+                } else {
+                    // 2. 자리 표시자가 있는 파트만 StAX로 다시 쓴다
+                    // (StAX writer는 작은 조각 단위로 쓰므로 버퍼 없이 넘기면 조각마다 deflate가 호출된다)
+                    zipOut.putArchiveEntry(new ZipArchiveEntry(entry.getName()));
+                    BufferedOutputStream buffered = new BufferedOutputStream(zipOut, WRITE_BUFFER_SIZE);
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        renderPart(in, buffered, paragraphs, data);
+                    }
+                    buffered.flush();
+                    zipOut.closeArchiveEntry();
+                }
+            }
+            zipOut.finish();
+        } catch (XMLStreamException e) {
+            throw new IOException("DOCX XML 처리 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    // ---------------------------------------------------------------- 색인
+
+    // 색인 캐시 키는 호출자가 넘긴 내용 해시 (렌더링마다 템플릿 전체를 다시 해시하지 않는다)
+    private TemplateIndex indexOf(byte[] template, String contentHash) throws IOException {
+        TemplateIndex cached = indexCache.get(contentHash).orElse(null);
+        if (cached != null) {
+            return cached;
+        }
+        TemplateIndex index = buildIndex(template);
+        indexCache.put(contentHash, index);
+        if (!index.streamable()) {
+            log.info("복잡한 자리 표시자 문단이 있어 POI 렌더러를 사용합니다: {}", contentHash);
+        }
+        return index;
+    }
+
+    private TemplateIndex buildIndex(byte[] template) throws IOException {
+        Map<String, Map<Integer, ParagraphTemplate>> parts = new HashMap<>();
+        boolean streamable = true;
+        try (ZipFile zip = new ZipFile(new SeekableInMemoryByteChannel(template))) {
+            Enumeration<ZipArchiveEntry> entries = zip.getEntries();
+            while (entries.hasMoreElements()) {
+                ZipArchiveEntry entry = entries.nextElement();
+                if (!TARGET_PART.matcher(entry.getName()).matches()) {
+                    continue;
+                }
+                try (InputStream in = zip.getInputStream(entry)) {
+                    PartScan scan = scanPart(in);
+                    streamable &= scan.streamable();
+                    if (!scan.paragraphs().isEmpty()) {
+                        parts.put(entry.getName(), scan.paragraphs());
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("DOCX XML 분석 중 오류가 발생했습니다.", e);
+        }
+        return new TemplateIndex(Collections.unmodifiableMap(parts), streamable);
+    }
+
+    /**
+     * 파트 안의 모든 w:p에 문서 순서대로 번호를 매기고, 자리 표시자가 있는 문단의 텍스트를 고정 구간/키로 나눠 둔다
+     */
+    private PartScan scanPart(InputStream in) throws XMLStreamException {
+        Map<Integer, ParagraphTemplate> paragraphs = new HashMap<>();
+        boolean streamable = true;
+
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+        try {
+            Deque<ParagraphScan> open = new ArrayDeque<>();
+            int ordinal = -1;
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    ParagraphScan current = open.peek();
+                    if (isW(reader.getNamespaceURI(), reader.getLocalName(), "p")) {
+                        open.push(new ParagraphScan(++ordinal, depth));
+                    } else if (current != null) {
+                        current.onStart(reader.getLocalName(), W_NS.equals(reader.getNamespaceURI()), depth);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    ParagraphScan current = open.peek();
+                    if (current != null && depth == current.depth && isW(reader.getNamespaceURI(), reader.getLocalName(), "p")) {
+                        open.pop();
+                        String text = current.fullText.toString();
+                        if (PoiDocxTemplateRenderer.PLACEHOLDER.matcher(text).find()) {
+                            if (current.complex || !current.fullText.toString().equals(current.runText.toString())) {
+                                streamable = false;
+                            } else {
+                                paragraphs.put(current.ordinal, ParagraphTemplate.parse(text));
+                            }
+                        }
+                    } else if (current != null) {
+                        current.onEnd(depth);
+                    }
+                    depth--;
+                } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                    ParagraphScan current = open.peek();
+                    if (current != null) {
+                        current.onText(reader.getText());
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return new PartScan(paragraphs, streamable);
+    }
+
+    // ---------------------------------------------------------------- 렌더링
+
+    private void renderPart(InputStream in, OutputStream out, Map<Integer, ParagraphTemplate> paragraphs,
+        Map<String, String> data) throws XMLStreamException {
+        XMLEventReader reader = inputFactory.createXMLEventReader(in);
+        XMLEventWriter writer = outputFactory.createXMLEventWriter(out, "UTF-8");
+        try {
+            int ordinal = -1;
+            int depth = 0;
+            ParagraphTemplate active = null;
+            int activeDepth = -1;
+            boolean runWritten = false;
+
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    depth++;
+                    StartElement start = event.asStartElement();
+                    if (isW(start, "p")) {
+                        ordinal++;
+                        ParagraphTemplate paragraph = paragraphs.get(ordinal);
+                        if (paragraph != null) {
+                            active = paragraph;
+                            activeDepth = depth;
+                            runWritten = false;
+                        }
+                    } else if (active != null && depth == activeDepth + 1 && isW(start, "r")) {
+                        // 첫 Run 자리에 서식(rPr)만 유지한 새 Run을 쓰고, 나머지 Run은 건너뛴다
+                        List<XMLEvent> runProperties = readRunProperties(reader);
+                        depth--;
+                        if (!runWritten) {
+                            writeRun(writer, start.getName().getPrefix(), runProperties, active.render(data));
+                            runWritten = true;
+                        }
+                        continue;
+                    }
+                } else if (event.isEndElement()) {
+                    if (active != null && depth == activeDepth) {
+                        active = null;
+                    }
+                    depth--;
+                }
+                writer.add(event);
+            }
+            writer.flush();
+        } finally {
+            // close()는 하위 스트림(zip 항목)을 닫지 않는다
+            writer.close();
+            reader.close();
+        }
+    }
+
+    // Run 시작 요소 다음부터 끝 요소까지 읽으며 w:rPr 하위 이벤트만 모은다
+    private List<XMLEvent> readRunProperties(XMLEventReader reader) throws XMLStreamException {
+        List<XMLEvent> runProperties = new ArrayList<>();
+        int depth = 1;
+        boolean inProperties = false;
+        while (depth > 0) {
+            XMLEvent event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+                if (depth == 2 && isW(event.asStartElement(), "rPr")) {
+                    inProperties = true;
+                }
+            }
+            if (inProperties) {
+                runProperties.add(event);
+            }
+            if (event.isEndElement()) {
+                if (depth == 2 && inProperties) {
+                    inProperties = false;
+                }
+                depth--;
+            }
+        }
+        return runProperties;
+    }
+
+    private void writeRun(XMLEventWriter writer, String prefix, List<XMLEvent> runProperties, String text)
+        throws XMLStreamException {
+        writer.add(eventFactory.createStartElement(prefix, W_NS, "r"));
+        for (XMLEvent event : runProperties) {
+            writer.add(event);
+        }
+        writer.add(eventFactory.createStartElement(prefix, W_NS, "t",
+            List.of(eventFactory.createAttribute("xml", XMLConstants.XML_NS_URI, "space", "preserve")).iterator(),
+            null));
+        writer.add(eventFactory.createCharacters(text));
+        writer.add(eventFactory.createEndElement(prefix, W_NS, "t"));
+        writer.add(eventFactory.createEndElement(prefix, W_NS, "r"));
+    }
+
+    private static boolean isW(StartElement start, String localName) {
+        return isW(start.getName().getNamespaceURI(), start.getName().getLocalPart(), localName);
+    }
+
+    private static boolean isW(String namespaceUri, String actualLocalName, String localName) {
+        return W_NS.equals(namespaceUri) && localName.equals(actualLocalName);
+    }
+
+    // ---------------------------------------------------------------- 색인 자료구조
+
+    private record TemplateIndex(Map<String, Map<Integer, ParagraphTemplate>> parts, boolean streamable) {
+    }
+
+    private record PartScan(Map<Integer, ParagraphTemplate> paragraphs, boolean streamable) {
+    }
+
+    /**
+     * 자리 표시자 문단 = 고정 텍스트 구간 n+1개와 키 n개
+     * 예: "성명: {{이름}} ({{직급}})" -> ["성명: ", " (", ")"], ["이름", "직급"]
+     */
+    record ParagraphTemplate(List<String> literals, List<String> keys) {
+
+        static ParagraphTemplate parse(String text) {
+            List<String> literals = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            Matcher matcher = PoiDocxTemplateRenderer.PLACEHOLDER.matcher(text);
+            int last = 0;
+            while (matcher.find()) {
+                literals.add(text.substring(last, matcher.start()));
+                keys.add(matcher.group(1).trim());
+                last = matcher.end();
+            }
+            literals.add(text.substring(last));
+            return new ParagraphTemplate(List.copyOf(literals), List.copyOf(keys));
+        }
+
+        String render(Map<String, String> data) {
+            StringBuilder out = new StringBuilder();
+            for (int i = 0; i < keys.size(); i++) {
+                out.append(literals.get(i)).append(data.getOrDefault(keys.get(i), ""));
+            }
+            return out.append(literals.get(keys.size())).toString();
+        }
+    }
+
+    /**
+     * 색인 단계에서 문단 하나를 읽는 동안의 상태
+     * runText: 문단 직속 Run의 w:t 텍스트, fullText: 문단 안의 모든 w:t 텍스트
+     * 두 값이 다르면 하이퍼링크/필드 등 안쪽에 텍스트가 있다는 뜻이다.
+     */
+    private static final class ParagraphScan {
+
+        private final int ordinal;
+        private final int depth;
+        private final StringBuilder runText = new StringBuilder();
+        private final StringBuilder fullText = new StringBuilder();
+        private boolean complex;
+        private int runDepth = -1;
+        private int textDepth = -1;
+        private boolean textInDirectRun;
+
+        private ParagraphScan(int ordinal, int depth) {
+            this.ordinal = ordinal;
+            this.depth = depth;
+        }
+
+        private void onStart(String localName, boolean wordNamespace, int elementDepth) {
+            if (runDepth < 0 && elementDepth == depth + 1 && wordNamespace && "r".equals(localName)) {
+                runDepth = elementDepth;
+            } else if (runDepth > 0 && elementDepth == runDepth + 1
+                && (!wordNamespace || !SIMPLE_RUN_CHILDREN.contains(localName))) {
+                complex = true;
+            }
+            if (wordNamespace && "t".equals(localName) && textDepth < 0) {
+                textDepth = elementDepth;
+                textInDirectRun = runDepth > 0 && elementDepth == runDepth + 1;
+            }
+        }
+
+        private void onEnd(int elementDepth) {
+            if (elementDepth == textDepth) {
+                textDepth = -1;
+            } else if (elementDepth == runDepth) {
+                runDepth = -1;
+            }
+        }
+
+        private void onText(String text) {
+            if (textDepth < 0) {
+                return;
+            }
+            fullText.append(text);
+            if (textInDirectRun) {
+                runText.append(text);
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * LLM이 만든 JSON을 템플릿 스키마(JSON before)에 맞춰 검증하고 정규화
+ * - 코드 블록, 앞뒤 설명, 끝 쉼표, 작은따옴표 등은 느슨한 파싱으로 흡수한다
+ * - 최상위 키 단위로 스키마와 모양(문자열 / 객체 / 배열)이 맞는지 확인하고, 맞지 않는 키만 복구 대상으로 남긴다
+ * - 전체가 JSON이 아니면 "키": "값" 조각을 찾아 살릴 수 있는 문자열 필드만 살린다
+ * 빠진 키는 스키마의 빈 값으로 채운다 (채우기 규칙: 영수증에 없는 정보는 "")
+ */
+@Component
+@Slf4j
+public class TemplateJsonValidator {
+
+    private static final Pattern LEADING_FENCE = Pattern.compile("^```[A-Za-z]*\\s*");
+    private static final Pattern TRAILING_FENCE = Pattern.compile("\\s*```$");
+    private static final String STRING_VALUE = "\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"";
+    private static final int MAX_FRAGMENT_LENGTH = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader lenientReader;
+
+    public TemplateJsonValidator(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.lenientReader = objectMapper.reader().withFeatures(
+            JsonReadFeature.ALLOW_TRAILING_COMMA,
+            JsonReadFeature.ALLOW_SINGLE_QUOTES,
+            JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES,
+            JsonReadFeature.ALLOW_JAVA_COMMENTS,
+            JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS);
+    }
+
+    /**
+     * 스키마(JSON before)를 객체로 읽는다 - 객체가 아니면 캐시하거나 채우기에 쓰지 않도록 예외
+     */
+    public ObjectNode parseSchema(String schemaJson) {
+        return parseObject(schemaJson)
+            .orElseThrow(() -> new RuntimeException("양식 분석 결과가 JSON 객체가 아닙니다."));
+    }
+
+    /**
+     * 출력(JSON after)을 스키마 기준으로 검증하고 정규화
+     */
+    public Validation validate(ObjectNode schema, String output) {
+        Optional<ObjectNode> parsed = parseObject(output);
+        ObjectNode normalized = objectMapper.createObjectNode();
+        List<String> invalidKeys = new ArrayList<>();
+        ObjectNode invalidValues = objectMapper.createObjectNode();
+
+        for (Map.Entry<String, JsonNode> field : schema.properties()) {
+            String key = field.getKey();
+            JsonNode expected = field.getValue();
+
+            Optional<JsonNode> value = parsed.isPresent()
+                ? conformField(expected, parsed.get().get(key))
+                : salvageField(expected, key, output);
+            if (value.isPresent()) {
+                normalized.set(key, value.get());
+            } else {
+                normalized.set(key, expected.deepCopy());
+                invalidKeys.add(key);
+                if (parsed.isPresent()) {
+                    invalidValues.set(key, parsed.get().get(key));
+                }
+            }
+        }
+
+        String invalidFragment = parsed.isPresent() ? invalidValues.toString() : truncate(output);
+        return new Validation(normalized, invalidKeys, invalidKeys.isEmpty() ? null : invalidFragment);
+    }
+
+    /**
+     * 스키마에서 주어진 최상위 키만 남긴 부분 스키마 (복구 요청 입력)
+     */
+    public ObjectNode subSchema(ObjectNode schema, List<String> keys) {
+        ObjectNode subSchema = objectMapper.createObjectNode();
+        for (String key : keys) {
+            subSchema.set(key, schema.get(key).deepCopy());
+        }
+        return subSchema;
+    }
+
+    public String write(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("JSON 생성 실패", e);
+        }
+    }
+
+    // 코드 블록, 앞뒤 설명을 걷어내고 첫 '{'부터 마지막 '}'까지 느슨하게 파싱
+    private Optional<ObjectNode> parseObject(String text) {
+        if (text == null || text.isBlank()) {
+            return Optional.empty();
+        }
+        String body = TRAILING_FENCE.matcher(LEADING_FENCE.matcher(text.strip()).replaceFirst("")).replaceFirst("");
+        int start = body.indexOf('{');
+        int end = body.lastIndexOf('}');
+        if (start < 0 || end < start) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode node = lenientReader.readTree(body.substring(start, end + 1));
+            return node != null && node.isObject() ? Optional.of((ObjectNode) node) : Optional.empty();
+        } catch (JsonProcessingException e) {
+            log.debug("JSON 파싱 실패: {}", e.getOriginalMessage());
+            return Optional.empty();
+        }
+    }
+
+    // 스키마 필드 하나 - 빠졌거나 null이면 스키마의 빈 값, 모양이 다르면 empty (복구 대상)
+    private Optional<JsonNode> conformField(JsonNode expected, JsonNode actual) {
+        if (actual == null || actual.isNull()) {
+            return Optional.of(expected.deepCopy());
+        }
+        return conform(expected, actual);
+    }
+
+    private Optional<JsonNode> conform(JsonNode expected, JsonNode actual) {
+        if (expected.isValueNode()) {
+            // 숫자/불리언은 문자열로 맞춘다 (렌더러는 문자열만 쓴다)
+            return actual.isValueNode() ? Optional.of(TextNode.valueOf(actual.asText())) : Optional.empty();
+        }
+        if (expected.isObject() && actual.isObject()) {
+            ObjectNode conformed = objectMapper.createObjectNode();
+            for (Map.Entry<String, JsonNode> field : expected.properties()) {
+                Optional<JsonNode> value = conformField(field.getValue(), actual.get(field.getKey()));
+                if (value.isEmpty()) {
+                    return Optional.empty();
+                }
+                conformed.set(field.getKey(), value.get());
+            }
+            return Optional.of(conformed);
+        }
+        if (expected.isArray() && actual.isArray()) {
+            // 배열 항목은 스키마의 첫 항목 모양을 따른다 (항목 수는 출력 그대로)
+            JsonNode itemSchema = expected.isEmpty() ? null : expected.get(0);
+            ArrayNode conformed = objectMapper.createArrayNode();
+            for (JsonNode item : actual) {
+                Optional<JsonNode> value = itemSchema == null ? Optional.of(item) : conform(itemSchema, item);
+                if (value.isEmpty()) {
+                    return Optional.empty();
+                }
+                conformed.add(value.get());
+            }
+            return Optional.of(conformed);
+        }
+        return Optional.empty();
+    }
+
+    // JSON 전체가 깨진 경우 - 문자열 필드는 "키": "값" 조각을 찾아 살린다
+    private Optional<JsonNode> salvageField(JsonNode expected, String key, String output) {
+        if (output == null || !expected.isValueNode()) {
+            return Optional.empty();
+        }
+        Matcher matcher = Pattern.compile("\"" + Pattern.quote(key) + "\"" + STRING_VALUE).matcher(output);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(TextNode.valueOf(objectMapper.readValue("\"" + matcher.group(1) + "\"", String.class)));
+        } catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String truncate(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.length() <= MAX_FRAGMENT_LENGTH ? text : text.substring(0, MAX_FRAGMENT_LENGTH) + "...";
+    }
+
+    /**
+     * 검증 결과 - json은 스키마의 키 순서로 정규화된 객체 (복구 대상 키는 스키마의 빈 값)
+     */
+    public static final class Validation {
+
+        private final ObjectNode json;
+        private final List<String> invalidKeys;
+        // 복구 요청에 함께 보낼 잘못된 부분 (키별 잘못된 값, 또는 파싱하지 못한 원문 앞부분)
+        private final String invalidFragment;
+
+        private Validation(ObjectNode json, List<String> invalidKeys, String invalidFragment) {
+            this.json = json;
+            this.invalidKeys = List.copyOf(invalidKeys);
+            this.invalidFragment = invalidFragment;
+        }
+
+        public boolean isValid() {
+            return invalidKeys.isEmpty();
+        }
+
+        public ObjectNode json() {
+            return json;
+        }
+
+        public List<String> invalidKeys() {
+            return invalidKeys;
+        }
+
+        public String invalidFragment() {
+            return invalidFragment;
+        }
+
+        /**
+         * 부분 스키마로 받은 복구 결과를 합친다 - 복구된 키만 바꾸고, 여전히 잘못된 키는 복구 대상으로 남긴다
+         */
+        public Validation merge(Validation repair) {
+            ObjectNode merged = json.deepCopy();
+            List<String> stillInvalid = new ArrayList<>();
+            for (String key : invalidKeys) {
+                if (repair.invalidKeys.contains(key) || !repair.json.has(key)) {
+                    stillInvalid.add(key);
+                } else {
+                    merged.set(key, repair.json.get(key));
+                }
+            }
+            return new Validation(merged, stillInvalid, stillInvalid.isEmpty() ? null : repair.invalidFragment);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import AI_Challenge.AI_Challenge.domain.document.entity.TemplateSchema;
+import AI_Challenge.AI_Challenge.domain.document.repository.TemplateSchemaRepository;
+import AI_Challenge.AI_Challenge.global.common.TwoTierCache;
+import AI_Challenge.AI_Challenge.global.common.TwoTierCache.StoredValue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 템플릿 내용 해시 기반 스키마(JSON before) 캐시
+ * 1차: 힙 내 LRU, 2차: template_schemas 테이블
+ */
+@Service
+@Slf4j
+public class TemplateSchemaCacheService implements MeterBinder {
+
+    private final TemplateSchemaRepository templateSchemaRepository;
+    private final TwoTierCache<String> cache;
+    private final boolean enabled;
+
+    public TemplateSchemaCacheService(TemplateSchemaRepository templateSchemaRepository,
+        @Value("${document.schema-cache.enabled:true}") boolean enabled,
+        @Value("${document.schema-cache.memory-max-entries:64}") int memoryMaxEntries,
+        @Value("${document.schema-cache.store-max-entries:1000}") int storeMaxEntries,
+        @Value("${document.schema-cache.ttl-hours:168}") long ttlHours) {
+        this.templateSchemaRepository = templateSchemaRepository;
+        this.enabled = enabled;
+        this.cache = new TwoTierCache<>("template-schema", new SchemaStore(),
+            memoryMaxEntries, storeMaxEntries, Duration.ofHours(ttlHours));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<String> find(String contentHash) {
+        return enabled ? cache.find(contentHash) : Optional.empty();
+    }
+
+    public void put(String contentHash, String schemaJson) {
+        if (enabled) {
+            cache.put(contentHash, schemaJson);
+        }
+    }
+
+    @Transactional
+    public void invalidate(String contentHash) {
+        cache.evict(contentHash);
+        int deleted = templateSchemaRepository.deleteByContentHash(contentHash);
+        log.info("템플릿 스키마 캐시 무효화: {} ({} 건)", contentHash, deleted);
+    }
+
+    @Transactional
+    public void invalidateAll() {
+        cache.clear();
+        log.info("템플릿 스키마 캐시 전체 무효화");
+    }
+
+    @Scheduled(fixedDelayString = "${document.schema-cache.purge-interval-ms:3600000}")
+    public void purge() {
+        cache.purge();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache.bindTo(registry);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.putAll(cache.getStats());
+        return stats;
+    }
+
+    // template_schemas 테이블 (키 = 템플릿 내용 해시)
+    private class SchemaStore implements TwoTierCache.Store<String> {
+
+        @Override
+        public Optional<StoredValue> find(String contentHash) {
+            return templateSchemaRepository.findByContentHash(contentHash)
+                .map(schema -> new StoredValue(schema.getSchemaJson(), schema.getCreatedAt()));
+        }
+
+        @Override
+        public void touch(String contentHash, LocalDateTime now) {
+            templateSchemaRepository.touch(contentHash, now);
+        }
+
+        @Override
+        public void save(String contentHash, String schemaJson, LocalDateTime now) {
+            TemplateSchema schema = templateSchemaRepository.findByContentHash(contentHash)
+                .orElse(null);
+            if (schema == null) {
+                schema = TemplateSchema.builder()
+                    .contentHash(contentHash)
+                    .schemaJson(schemaJson)
+                    .createdAt(now)
+                    .lastAccessedAt(now)
+                    .build();
+            } else {
+                schema.refresh(schemaJson, now);
+            }
+            templateSchemaRepository.save(schema);
+        }
+
+        @Override
+        public int deleteCreatedBefore(LocalDateTime threshold) {
+            return templateSchemaRepository.deleteCreatedBefore(threshold);
+        }
+
+        @Override
+        public int deleteLeastRecentlyUsed(int count) {
+            List<Long> ids = templateSchemaRepository.findIdsByLeastRecentlyUsed(PageRequest.of(0, count));
+            templateSchemaRepository.deleteAllByIdInBatch(ids);
+            return ids.size();
+        }
+
+        @Override
+        public long count() {
+            return templateSchemaRepository.count();
+        }
+
+        @Override
+        public void deleteAll() {
+            templateSchemaRepository.deleteAllInBatch();
+        }
+    }
+}
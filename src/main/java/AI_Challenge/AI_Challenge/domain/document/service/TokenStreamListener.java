@@ -0,0 +1,14 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+/**
+ * LLM 스트리밍 응답 콜백
+ */
+public interface TokenStreamListener {
+
+    // false를 반환하면 스트림을 중단한다 (클라이언트 연결 종료 등)
+    boolean onToken(String token);
+
+    void onComplete();
+
+    void onError(Throwable error);
+}
@@ -0,0 +1,129 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 작업 종류별 동시 실행 수 제한 (벌크헤드)
+ * - 동시 실행 maxConcurrent개, 자리를 기다리는 호출 최대 maxQueued개
+ * - 대기열이 가득 찼거나 maxWait 안에 자리를 얻지 못하면 BulkheadFullException (HTTP 429 + Retry-After)
+ * 한 종류의 작업이 밀려도 다른 작업과 가벼운 요청은 영향을 받지 않는다.
+ */
+public class Bulkhead implements MeterBinder {
+
+    // 평균 점유 시간의 지수 이동 평균 가중치 (동시 갱신 일부가 유실될 수 있지만 Retry-After 추정에는 충분)
+    private static final double HOLD_TIME_WEIGHT = 0.2;
+    private static final long MAX_RETRY_AFTER_SECONDS = 60;
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double averageHoldMillis;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueued, Duration maxWait) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent는 1 이상이어야 합니다: " + maxConcurrent);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * 실행 자리를 얻는다 - 반환된 Permit을 닫아야(try-with-resources) 자리가 반납된다
+     */
+    public Permit enter() throws InterruptedException {
+        if (!permits.tryAcquire()) {
+            // 1. 대기열이 가득 찼으면 기다리지 않고 거절
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                throw reject();
+            }
+            // 2. 대기열에서 maxWait까지 기다린다
+            try {
+                if (!permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw reject();
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+        return new Permit(System.nanoTime());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    // 대기열이 한 번 비워질 만큼의 시간 (평균 점유 시간 x 대기열 회전 수), 1 ~ 60초
+    long retryAfterSeconds() {
+        double rounds = (double) (maxQueued + maxConcurrent) / maxConcurrent;
+        long seconds = (long) Math.ceil(averageHoldMillis * rounds / 1000);
+        return Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, seconds));
+    }
+
+    private BulkheadFullException reject() {
+        rejected.incrementAndGet();
+        return new BulkheadFullException(name, retryAfterSeconds());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bulkhead.active", this, Bulkhead::getActiveCount)
+            .description("실행 중인 작업 수")
+            .tag("name", name)
+            .register(registry);
+        Gauge.builder("bulkhead.queued", this, Bulkhead::getQueuedCount)
+            .description("자리를 기다리는 작업 수")
+            .tag("name", name)
+            .register(registry);
+        FunctionCounter.builder("bulkhead.rejected", rejected, AtomicLong::get)
+            .description("대기열이 가득 차거나 대기 시간을 넘겨 거절한 작업 수")
+            .tag("name", name)
+            .register(registry);
+    }
+
+    /**
+     * 얻은 실행 자리 (여러 번 닫아도 한 번만 반납)
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long enteredAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long enteredAt) {
+            this.enteredAt = enteredAt;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                double heldMillis = (System.nanoTime() - enteredAt) / 1_000_000.0;
+                averageHoldMillis += HOLD_TIME_WEIGHT * (heldMillis - averageHoldMillis);
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import java.util.Optional;
+import lombok.Getter;
+
+/**
+ * 벌크헤드 자리가 없어 작업을 거절 (HTTP 429 + Retry-After로 응답)
+ */
+@Getter
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkheadName;
+    private final long retryAfterSeconds;
+
+    public BulkheadFullException(String bulkheadName, long retryAfterSeconds) {
+        super("요청이 많아 처리할 수 없습니다. " + retryAfterSeconds + "초 후 다시 시도해주세요.");
+        this.bulkheadName = bulkheadName;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * 다른 예외로 감싸져 전달된 경우까지 원인 사슬에서 찾는다
+     */
+    public static Optional<BulkheadFullException> findIn(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BulkheadFullException full) {
+                return Optional.of(full);
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 원인 사슬에 벌크헤드 거절이 있으면 그대로 던져 429 응답이 되게 한다 (컨트롤러의 일반 예외 처리 앞에서 호출)
+     */
+    public static void rethrowIfPresent(Throwable error) {
+        Optional<BulkheadFullException> full = findIn(error);
+        if (full.isPresent()) {
+            throw full.get();
+        }
+    }
+}
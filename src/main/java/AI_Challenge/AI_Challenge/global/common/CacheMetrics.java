@@ -0,0 +1,33 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 캐시 서비스의 조회 카운터(AtomicLong)를 cache.gets 지표로 노출
+ * - 태그: cache(캐시 이름), result(hit | miss), tier(memory, store, exact, perceptual, none)
+ * 적중률은 Prometheus에서 sum by (cache) (rate(cache_gets_total{result="hit"}[5m])) / sum by (cache) (rate(cache_gets_total[5m]))
+ */
+public final class CacheMetrics {
+
+    private CacheMetrics() {
+    }
+
+    public static void bindHits(MeterRegistry registry, String cache, String tier, AtomicLong counter) {
+        bind(registry, cache, "hit", tier, counter);
+    }
+
+    public static void bindMisses(MeterRegistry registry, String cache, AtomicLong counter) {
+        bind(registry, cache, "miss", "none", counter);
+    }
+
+    private static void bind(MeterRegistry registry, String cache, String result, String tier, AtomicLong counter) {
+        FunctionCounter.builder("cache.gets", counter, AtomicLong::get)
+            .description("캐시 조회 횟수")
+            .tag("cache", cache)
+            .tag("result", result)
+            .tag("tier", tier)
+            .register(registry);
+    }
+}
@@ -0,0 +1,112 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 바이트 단위 메모리 예산 - 힙을 많이 쓰는 작업(POI 문서 열기)의 동시 사용량을 예상 크기로 제한
+ * - 요청 하나의 예상 크기가 maxRequestBytes를 넘으면 기다리지 않고 MemoryBudgetExceededException (HTTP 413)
+ * - 남은 예산이 부족하면 maxWait까지 기다리고, 그래도 부족하면 BulkheadFullException (HTTP 429 + Retry-After)
+ * 큰 문서 몇 건이 동시에 열려도 힙 전체를 쓰지 않으므로 다른 요청이 OOM으로 함께 실패하지 않는다.
+ * 세마포어는 KiB 단위로 센다.
+ */
+public class MemoryBudget implements MeterBinder {
+
+    private static final long UNIT_BYTES = 1024;
+
+    private final String name;
+    private final long budgetBytes;
+    private final long maxRequestBytes;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong tooLarge = new AtomicLong();
+
+    public MemoryBudget(String name, long budgetBytes, long maxRequestBytes, Duration maxWait) {
+        if (budgetBytes < UNIT_BYTES) {
+            throw new IllegalArgumentException("budgetBytes는 " + UNIT_BYTES + " 이상이어야 합니다: " + budgetBytes);
+        }
+        this.name = name;
+        this.budgetBytes = Math.min(budgetBytes, Integer.MAX_VALUE * UNIT_BYTES);
+        this.maxRequestBytes = maxRequestBytes > 0 ? Math.min(maxRequestBytes, this.budgetBytes) : this.budgetBytes;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(toUnits(this.budgetBytes), true);
+    }
+
+    /**
+     * 예상 크기만큼 예산을 얻는다 - 반환된 Reservation을 닫아야(try-with-resources) 반납된다
+     */
+    public Reservation reserve(long bytes) throws InterruptedException {
+        if (bytes > maxRequestBytes) {
+            tooLarge.incrementAndGet();
+            throw new MemoryBudgetExceededException(name, bytes, maxRequestBytes);
+        }
+        int units = toUnits(bytes);
+        if (!permits.tryAcquire(units) && !permits.tryAcquire(units, maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+            rejected.incrementAndGet();
+            throw new BulkheadFullException(name, Math.max(1, maxWait.toSeconds()));
+        }
+        return new Reservation(units);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getMaxRequestBytes() {
+        return maxRequestBytes;
+    }
+
+    public long getReservedBytes() {
+        return budgetBytes - permits.availablePermits() * UNIT_BYTES;
+    }
+
+    // 0바이트 요청도 1 단위로 센다 (열린 문서 수가 예산에 드러나도록)
+    private static int toUnits(long bytes) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (bytes + UNIT_BYTES - 1) / UNIT_BYTES));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("memory.budget.reserved", this, MemoryBudget::getReservedBytes)
+            .description("사용 중인 예상 메모리")
+            .baseUnit("bytes")
+            .tag("name", name)
+            .register(registry);
+        FunctionCounter.builder("memory.budget.rejected", rejected, AtomicLong::get)
+            .description("대기 시간 안에 예산을 얻지 못해 거절한 요청 수")
+            .tag("name", name)
+            .register(registry);
+        FunctionCounter.builder("memory.budget.too.large", tooLarge, AtomicLong::get)
+            .description("요청 하나의 한도를 넘어 거절한 요청 수")
+            .tag("name", name)
+            .register(registry);
+    }
+
+    /**
+     * 얻은 예산 (여러 번 닫아도 한 번만 반납)
+     */
+    public final class Reservation implements AutoCloseable {
+
+        private final int units;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(int units) {
+            this.units = units;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                permits.release(units);
+            }
+        }
+    }
+}
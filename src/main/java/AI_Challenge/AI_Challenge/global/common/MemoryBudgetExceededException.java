@@ -0,0 +1,41 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import java.util.Optional;
+import lombok.Getter;
+
+/**
+ * 요청 하나가 메모리 예산 한도보다 커서 기다려도 처리할 수 없음 (HTTP 413으로 응답)
+ */
+@Getter
+public class MemoryBudgetExceededException extends RuntimeException {
+
+    private final String budgetName;
+    private final long requestedBytes;
+    private final long maxRequestBytes;
+
+    public MemoryBudgetExceededException(String budgetName, long requestedBytes, long maxRequestBytes) {
+        super("문서가 너무 커서 처리할 수 없습니다. (예상 메모리 " + toMegabytes(requestedBytes)
+            + "MB, 한도 " + toMegabytes(maxRequestBytes) + "MB)");
+        this.budgetName = budgetName;
+        this.requestedBytes = requestedBytes;
+        this.maxRequestBytes = maxRequestBytes;
+    }
+
+    /**
+     * 원인 사슬에 예산 초과가 있으면 그대로 던져 413 응답이 되게 한다 (컨트롤러의 일반 예외 처리 앞에서 호출)
+     */
+    public static void rethrowIfPresent(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MemoryBudgetExceededException exceeded) {
+                throw exceeded;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+    }
+
+    private static long toMegabytes(long bytes) {
+        return (bytes + (1 << 20) - 1) >> 20;
+    }
+}
@@ -0,0 +1,46 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 같은 바이트를 두 스트림에 쓰는 출력 스트림 (응답으로 보내면서 결과 폴더에도 남길 때 사용)
+ * 닫으면 두 스트림을 모두 닫는다 - 호출자 스트림을 살려 두려면 StreamUtils.nonClosing으로 감싼다.
+ */
+public final class TeeOutputStream extends OutputStream {
+
+    private final OutputStream primary;
+    private final OutputStream branch;
+
+    public TeeOutputStream(OutputStream primary, OutputStream branch) {
+        this.primary = primary;
+        this.branch = branch;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        primary.write(b);
+        branch.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        primary.write(b, off, len);
+        branch.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        primary.flush();
+        branch.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            primary.close();
+        } finally {
+            branch.close();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * 1차 힙 LRU + 2차 DB 테이블로 이루어진 TTL 캐시 (템플릿 스키마, 채우기 결과 캐시가 함께 사용)
+ * - 조회: 힙 -> 테이블 순서, TTL이 지난 행은 미스로 처리하고 테이블 적중은 힙에 올린다
+ * - 정리: TTL 만료 행과 최대 개수 초과분(가장 오래 사용되지 않은 순)을 테이블에서 지운다
+ * 키 계산과 저장 전 검증은 캐시를 쓰는 서비스가, 테이블 접근은 Store 구현이 맡는다.
+ * 힙 캐시는 키 객체(K) 그대로, 테이블은 Store가 키에서 꺼낸 컬럼 값으로 찾는다.
+ */
+@Slf4j
+public class TwoTierCache<K> implements MeterBinder {
+
+    private final String name;
+    private final Store<K> store;
+    private final LruCache<K, String> memoryCache;
+    private final Duration ttl;
+    private final int storeMaxEntries;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong storeHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public TwoTierCache(String name, Store<K> store, int memoryMaxEntries, int storeMaxEntries, Duration ttl) {
+        this.name = name;
+        this.store = store;
+        this.ttl = ttl;
+        this.storeMaxEntries = storeMaxEntries;
+        this.memoryCache = new LruCache<>(memoryMaxEntries, ttl);
+    }
+
+    public Optional<String> find(K key) {
+        // 1. 힙 캐시 조회
+        Optional<String> cached = memoryCache.get(key);
+        if (cached.isPresent()) {
+            memoryHits.incrementAndGet();
+            return cached;
+        }
+
+        // 2. 영속 캐시 조회 (TTL이 지난 항목은 미스로 처리)
+        LocalDateTime now = LocalDateTime.now();
+        Optional<StoredValue> stored = store.find(key)
+            .filter(value -> !isExpired(value, now));
+        if (stored.isPresent()) {
+            storeHits.incrementAndGet();
+            String value = stored.get().value();
+            memoryCache.put(key, value);
+            store.touch(key, now);
+            return Optional.of(value);
+        }
+
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void put(K key, String value) {
+        memoryCache.put(key, value);
+        try {
+            store.save(key, value, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            // 같은 키를 동시에 처리한 다른 요청이 먼저 저장한 경우
+            log.debug("{} 캐시에 이미 저장되어 있습니다: {}", name, key);
+        }
+    }
+
+    /**
+     * 힙 캐시에서만 지운다 (테이블 행 삭제는 Store 쪽 저장소에서)
+     */
+    public void evict(K key) {
+        memoryCache.remove(key);
+    }
+
+    public void clear() {
+        memoryCache.clear();
+        store.deleteAll();
+    }
+
+    // TTL 만료 항목과 최대 개수 초과분을 영속 캐시에서 정리
+    public void purge() {
+        int expired = store.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+
+        long excess = store.count() - storeMaxEntries;
+        int evicted = excess > 0 ? store.deleteLeastRecentlyUsed((int) Math.min(excess, Integer.MAX_VALUE)) : 0;
+
+        if (expired > 0 || evicted > 0) {
+            log.info("{} 캐시 정리: 만료 {} 건, 용량 초과 {} 건", name, expired, evicted);
+        }
+    }
+
+    // Spring Boot가 MeterBinder 빈을 찾아 등록 - 조회할 때마다 기존 카운터 값을 읽는다
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CacheMetrics.bindHits(registry, name, "memory", memoryHits);
+        CacheMetrics.bindHits(registry, name, "store", storeHits);
+        CacheMetrics.bindMisses(registry, name, misses);
+        registry.gauge("cache.size", Tags.of("cache", name, "tier", "memory"),
+            memoryCache, LruCache::size);
+    }
+
+    public Map<String, Object> getStats() {
+        long memory = memoryHits.get();
+        long stored = storeHits.get();
+        long miss = misses.get();
+        long total = memory + stored + miss;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("memoryHits", memory);
+        stats.put("storeHits", stored);
+        stats.put("misses", miss);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) (memory + stored) / total);
+        stats.put("memoryEntries", memoryCache.size());
+        stats.put("memoryEvictions", memoryCache.evictionCount());
+        stats.put("storeEntries", store.count());
+        return stats;
+    }
+
+    private boolean isExpired(StoredValue value, LocalDateTime now) {
+        return value.createdAt() == null || value.createdAt().plus(ttl).isBefore(now);
+    }
+
+    /**
+     * 2차 캐시 테이블 접근 (캐시마다 엔티티와 키 컬럼이 다르다)
+     */
+    public interface Store<K> {
+
+        Optional<StoredValue> find(K key);
+
+        void touch(K key, LocalDateTime now);
+
+        /**
+         * 새 행을 만들거나 기존 행의 값과 생성 시각을 갱신해 저장
+         */
+        void save(K key, String value, LocalDateTime now);
+
+        int deleteCreatedBefore(LocalDateTime threshold);
+
+        int deleteLeastRecentlyUsed(int count);
+
+        long count();
+
+        void deleteAll();
+    }
+
+    public record StoredValue(String value, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,58 @@
+package AI_Challenge.AI_Challenge.global.config;
+
+import AI_Challenge.AI_Challenge.global.common.Bulkhead;
+import AI_Challenge.AI_Challenge.global.common.MemoryBudget;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 작업 종류별 벌크헤드 - Gemini 호출, OpenAI 호출, 문서 처리(pandoc/POI 변환과 렌더링)
+ * 요청 스레드는 가상 스레드(spring.threads.virtual.enabled)이므로 스레드 수가 아니라 이 값들이 동시 작업량을 제한한다.
+ * POI 문서 열기는 동시 실행 수와 별도로 예상 메모리(바이트) 예산으로도 제한한다.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    public static final String GEMINI = "geminiBulkhead";
+    public static final String OPENAI = "openAiBulkhead";
+    public static final String DOCUMENT = "documentBulkhead";
+    public static final String POI_MEMORY = "poiMemoryBudget";
+
+    @Bean(GEMINI)
+    public Bulkhead geminiBulkhead(
+        @Value("${bulkhead.gemini.max-concurrent:16}") int maxConcurrent,
+        @Value("${bulkhead.gemini.max-queued:32}") int maxQueued,
+        @Value("${bulkhead.gemini.max-wait-ms:2000}") long maxWaitMillis) {
+        return new Bulkhead("gemini", maxConcurrent, maxQueued, Duration.ofMillis(maxWaitMillis));
+    }
+
+    @Bean(OPENAI)
+    public Bulkhead openAiBulkhead(
+        @Value("${bulkhead.openai.max-concurrent:16}") int maxConcurrent,
+        @Value("${bulkhead.openai.max-queued:32}") int maxQueued,
+        @Value("${bulkhead.openai.max-wait-ms:2000}") long maxWaitMillis) {
+        return new Bulkhead("openai", maxConcurrent, maxQueued, Duration.ofMillis(maxWaitMillis));
+    }
+
+    @Bean(DOCUMENT)
+    public Bulkhead documentBulkhead(
+        @Value("${bulkhead.document.max-concurrent:0}") int maxConcurrent,
+        @Value("${bulkhead.document.max-queued:32}") int maxQueued,
+        @Value("${bulkhead.document.max-wait-ms:5000}") long maxWaitMillis) {
+        // CPU 위주 작업이므로 기본값은 코어 수
+        int concurrent = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+        return new Bulkhead("document", concurrent, maxQueued, Duration.ofMillis(maxWaitMillis));
+    }
+
+    @Bean(POI_MEMORY)
+    public MemoryBudget poiMemoryBudget(
+        @Value("${bulkhead.poi-memory.budget-bytes:0}") long budgetBytes,
+        @Value("${bulkhead.poi-memory.max-request-bytes:0}") long maxRequestBytes,
+        @Value("${bulkhead.poi-memory.max-wait-ms:5000}") long maxWaitMillis) {
+        // 기본값은 최대 힙의 1/4 (요청 하나의 한도는 0이면 전체 예산)
+        long budget = budgetBytes > 0 ? budgetBytes : Runtime.getRuntime().maxMemory() / 4;
+        return new MemoryBudget("poi-memory", budget, maxRequestBytes, Duration.ofMillis(maxWaitMillis));
+    }
+}
@@ -0,0 +1,40 @@
+package AI_Challenge.AI_Challenge.global.config;
+
+import AI_Challenge.AI_Challenge.global.common.BulkheadFullException;
+import AI_Challenge.AI_Challenge.global.common.MemoryBudgetExceededException;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * 컨트롤러 밖으로 전달된 예외 응답
+ */
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    // 벌크헤드 대기열이 가득 참 - 기다리지 않고 429로 바로 응답해 클라이언트가 Retry-After 뒤에 다시 보내게 한다
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, Object>> handleBulkheadFull(BulkheadFullException e) {
+        log.warn("{} 벌크헤드 가득 참 - 429 응답 (Retry-After {}초)", e.getBulkheadName(), e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("error", e.getMessage()));
+    }
+
+    // 문서 하나의 예상 메모리가 한도를 넘음 - 기다려도 처리할 수 없으므로 413
+    @ExceptionHandler(MemoryBudgetExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleMemoryBudgetExceeded(MemoryBudgetExceededException e) {
+        log.warn("{} 메모리 예산 초과 - 413 응답 (예상 {} bytes, 한도 {} bytes)",
+            e.getBudgetName(), e.getRequestedBytes(), e.getMaxRequestBytes());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(Map.of("error", e.getMessage()));
+    }
+}
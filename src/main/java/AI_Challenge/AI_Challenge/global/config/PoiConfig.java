@@ -0,0 +1,25 @@
+package AI_Challenge.AI_Challenge.global.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.util.ZipInputStreamZipEntrySource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * POI JVM 전역 설정 - 애플리케이션 시작 시 한 번만 적용한다
+ * InputStream으로 여는 패키지에서 temp-file-threshold보다 큰 zip 항목(이미지 등)은 힙 대신 임시 파일에 둔다.
+ */
+@Configuration
+@Slf4j
+public class PoiConfig {
+
+    @Value("${document.poi.temp-file-threshold-bytes:1048576}")
+    private int tempFileThresholdBytes;
+
+    @PostConstruct
+    public void applyGlobalSettings() {
+        ZipInputStreamZipEntrySource.setThresholdBytesForTempFiles(tempFileThresholdBytes);
+        log.info("POI zip 항목 임시 파일 기준: {} bytes", tempFileThresholdBytes);
+    }
+}
@@ -1,6 +1,7 @@
 package AI_Challenge.AI_Challenge.global.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -17,6 +18,7 @@ public class WebConfig implements WebMvcConfigurer {
             )
             .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
             .allowedHeaders("*")
+            .exposedHeaders(HttpHeaders.RETRY_AFTER)  // 429 응답의 재시도 시각을 프론트엔드에서 읽을 수 있도록
             .allowCredentials(true)
             .maxAge(3600);
     }
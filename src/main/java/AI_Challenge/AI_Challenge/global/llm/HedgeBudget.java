@@ -0,0 +1,30 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+/**
+ * 헤지 예산 - 주 호출마다 ratio만큼 적립하고, 헤지 호출 하나에 1을 쓴다
+ * 장기적으로 추가 호출 수가 주 호출 수의 ratio 비율을 넘지 않고, 한 번에 쓸 수 있는 양은 maxBalance로 제한된다.
+ */
+class HedgeBudget {
+
+    private final double ratio;
+    private final double maxBalance;
+
+    private double balance;
+
+    HedgeBudget(double ratio, double maxBalance) {
+        this.ratio = Math.max(0, ratio);
+        this.maxBalance = Math.max(1, maxBalance);
+    }
+
+    synchronized void deposit() {
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+}
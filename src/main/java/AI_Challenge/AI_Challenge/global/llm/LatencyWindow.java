@@ -0,0 +1,41 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * 최근 호출 소요 시간 창 (고정 크기 링 버퍼) - 헤징 지연 시간(백분위수) 계산용
+ */
+class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    LatencyWindow(int capacity) {
+        this.samples = new long[Math.max(1, capacity)];
+    }
+
+    synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    /**
+     * 표본이 minSamples개 이상일 때만 백분위수를 반환 (nearest-rank)
+     */
+    Optional<Duration> percentile(double percentile, int minSamples) {
+        long[] copy;
+        synchronized (this) {
+            if (size == 0 || size < minSamples) {
+                return Optional.empty();
+            }
+            copy = Arrays.copyOf(samples, size);
+        }
+        Arrays.sort(copy);
+        int rank = (int) Math.ceil(percentile * copy.length);
+        return Optional.of(Duration.ofNanos(copy[Math.min(copy.length, Math.max(1, rank)) - 1]));
+    }
+}
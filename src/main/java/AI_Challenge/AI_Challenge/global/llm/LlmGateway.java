@@ -0,0 +1,375 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+import AI_Challenge.AI_Challenge.global.common.Bulkhead;
+import AI_Challenge.AI_Challenge.global.common.BulkheadFullException;
+import AI_Challenge.AI_Challenge.global.config.BulkheadConfig;
+import AI_Challenge.AI_Challenge.global.llm.LlmGatewayException.Reason;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.genai.Client;
+import com.google.genai.errors.ApiException;
+import com.google.genai.types.HttpOptions;
+import com.theokanning.openai.OpenAiHttpException;
+import com.theokanning.openai.client.OpenAiApi;
+import com.theokanning.openai.service.OpenAiService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+
+/**
+ * Gemini / OpenAI 호출 공통 관문
+ * 제공자별로 하나의 클라이언트(커넥션 풀 재사용)를 두고, 모든 호출에 벌크헤드 -> 요청 한도 -> 서킷 브레이커 -> 지터 재시도를 적용한다.
+ * 스트리밍 호출은 벌크헤드 대상이 아니다 (응답은 SDK 스레드에서 비동기로 전달되어 요청 스레드를 잡고 있지 않음).
+ */
+@Component
+@Slf4j
+public class LlmGateway {
+
+    private final Client geminiClient;
+    private final OpenAiService openAiService;
+    private final OkHttpClient openAiHttpClient;
+
+    private final Map<LlmProvider, TokenBucketRateLimiter> rateLimiters = new EnumMap<>(LlmProvider.class);
+    private final Map<LlmProvider, CircuitBreaker> circuitBreakers = new EnumMap<>(LlmProvider.class);
+    private final Map<LlmProvider, Bulkhead> bulkheads = new EnumMap<>(LlmProvider.class);
+    private final MeterRegistry meterRegistry;
+
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration rateLimitMaxWait;
+
+    public LlmGateway(MeterRegistry meterRegistry,
+        @Qualifier(BulkheadConfig.GEMINI) Bulkhead geminiBulkhead,
+        @Qualifier(BulkheadConfig.OPENAI) Bulkhead openAiBulkhead,
+        @Value("${gemini.api.key:}") String geminiApiKey,
+        @Value("${gemini.api.base-url:}") String geminiBaseUrl,
+        @Value("${openai.api.key}") String openAiApiKey,
+        @Value("${openai.api.base-url:https://api.openai.com/}") String openAiBaseUrl,
+        @Value("${llm.timeout-seconds:60}") long timeoutSeconds,
+        @Value("${llm.pool.max-idle-connections:20}") int maxIdleConnections,
+        @Value("${llm.pool.keep-alive-minutes:5}") long keepAliveMinutes,
+        @Value("${llm.retry.max-attempts:3}") int maxAttempts,
+        @Value("${llm.retry.base-backoff-ms:500}") long baseBackoffMillis,
+        @Value("${llm.retry.max-backoff-ms:8000}") long maxBackoffMillis,
+        @Value("${llm.circuit-breaker.failure-threshold:5}") int failureThreshold,
+        @Value("${llm.circuit-breaker.open-seconds:30}") long openSeconds,
+        @Value("${llm.rate-limit.max-wait-ms:10000}") long rateLimitMaxWaitMillis,
+        @Value("${llm.rate-limit.gemini.requests-per-minute:60}") long geminiRequestsPerMinute,
+        @Value("${llm.rate-limit.gemini.burst:10}") long geminiBurst,
+        @Value("${llm.rate-limit.openai.requests-per-minute:500}") long openAiRequestsPerMinute,
+        @Value("${llm.rate-limit.openai.burst:20}") long openAiBurst) {
+
+        this.meterRegistry = meterRegistry;
+        bulkheads.put(LlmProvider.GEMINI, geminiBulkhead);
+        bulkheads.put(LlmProvider.OPENAI, openAiBulkhead);
+
+        // Gemini - API 키를 지정하지 않으면 GOOGLE_API_KEY 환경 변수를 사용
+        Client.Builder geminiBuilder = Client.builder();
+        if (!geminiApiKey.isBlank()) {
+            geminiBuilder.apiKey(geminiApiKey);
+        }
+        HttpOptions.Builder httpOptions = HttpOptions.builder()
+            .timeout((int) TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        if (!geminiBaseUrl.isBlank()) {
+            httpOptions.baseUrl(geminiBaseUrl);
+        }
+        this.geminiClient = geminiBuilder.httpOptions(httpOptions.build()).build();
+
+        // OpenAI - 기본 클라이언트(유휴 커넥션 1초 유지) 대신 오래 유지되는 커넥션 풀 사용
+        this.openAiHttpClient = OpenAiService.defaultClient(openAiApiKey, Duration.ofSeconds(timeoutSeconds))
+            .newBuilder()
+            .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMinutes, TimeUnit.MINUTES))
+            .build();
+        ObjectMapper openAiMapper = OpenAiService.defaultObjectMapper();
+        Retrofit retrofit = new Retrofit.Builder()
+            .baseUrl(openAiBaseUrl)
+            .client(openAiHttpClient)
+            .addConverterFactory(JacksonConverterFactory.create(openAiMapper))
+            .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+            .build();
+        this.openAiService = new OpenAiService(retrofit.create(OpenAiApi.class),
+            openAiHttpClient.dispatcher().executorService());
+
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoff = Duration.ofMillis(baseBackoffMillis);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMillis);
+        this.rateLimitMaxWait = Duration.ofMillis(rateLimitMaxWaitMillis);
+
+        rateLimiters.put(LlmProvider.GEMINI, new TokenBucketRateLimiter(geminiRequestsPerMinute, geminiBurst));
+        rateLimiters.put(LlmProvider.OPENAI, new TokenBucketRateLimiter(openAiRequestsPerMinute, openAiBurst));
+        for (LlmProvider provider : LlmProvider.values()) {
+            circuitBreakers.put(provider,
+                new CircuitBreaker(failureThreshold, Duration.ofSeconds(openSeconds), Clock.systemUTC()));
+        }
+    }
+
+    @FunctionalInterface
+    public interface LlmCall<C, T> {
+        T apply(C client) throws Exception;
+    }
+
+    public <T> T callGemini(String operation, LlmCall<Client, T> call) {
+        return execute(LlmProvider.GEMINI, operation, () -> call.apply(geminiClient));
+    }
+
+    public <T> T callOpenAi(String operation, LlmCall<OpenAiService, T> call) {
+        return execute(LlmProvider.OPENAI, operation, () -> call.apply(openAiService));
+    }
+
+    /**
+     * 스트리밍 호출 시작 - 이미 전송된 토큰이 있을 수 있으므로 재시도하지 않는다.
+     * 스트림이 끝나면 호출한 쪽에서 recordStreamResult로 결과를 알려야 서킷 브레이커에 반영된다.
+     */
+    public <T> T openGeminiStream(String operation, LlmCall<Client, T> call) {
+        return startStream(LlmProvider.GEMINI, operation, () -> call.apply(geminiClient));
+    }
+
+    public <T> T openOpenAiStream(String operation, LlmCall<OpenAiService, T> call) {
+        return startStream(LlmProvider.OPENAI, operation, () -> call.apply(openAiService));
+    }
+
+    /**
+     * 모델별 토큰 사용량 기록 (type: prompt | completion | cached, 0 이하 값은 무시)
+     */
+    public void recordTokens(LlmProvider provider, String model, String type, long tokens) {
+        if (tokens <= 0) {
+            return;
+        }
+        Counter.builder("llm.tokens")
+            .description("LLM 입력/출력 토큰 수")
+            .tag("provider", provider.name().toLowerCase())
+            .tag("model", model)
+            .tag("type", type)
+            .register(meterRegistry)
+            .increment(tokens);
+    }
+
+    public void recordStreamResult(LlmProvider provider, Throwable error) {
+        if (error == null) {
+            circuitBreakers.get(provider).onSuccess();
+        } else {
+            recordFailure(provider, classify(provider, error));
+        }
+    }
+
+    // 결과 없이 취소된 스트림 - 제공자 상태와 무관하므로 시험 호출 자리만 반납
+    public void releaseStream(LlmProvider provider) {
+        circuitBreakers.get(provider).onIgnored();
+    }
+
+    /**
+     * 다른 호출에서 분류된 오류를 그대로 전달하거나 제공자 오류를 분류해 반환
+     */
+    public LlmGatewayException translate(LlmProvider provider, Throwable error) {
+        return error instanceof LlmGatewayException gatewayException ? gatewayException : classify(provider, error);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        openAiHttpClient.dispatcher().executorService().shutdown();
+        openAiHttpClient.connectionPool().evictAll();
+    }
+
+    // ---------------------------------------------------------------- 내부 구현
+
+    // 재시도를 포함한 호출 전체 시간을 결과(success 또는 실패 원인)별로 기록
+    private <T> T execute(LlmProvider provider, String operation, ThrowingSupplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return executeWithRetry(provider, operation, call);
+        } catch (LlmGatewayException e) {
+            outcome = e.getReason().name().toLowerCase();
+            throw e;
+        } catch (BulkheadFullException e) {
+            outcome = "bulkhead_full";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("llm.call")
+                .description("LLM 호출 시간 (재시도 포함)")
+                .tag("provider", provider.name().toLowerCase())
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+    }
+
+    private <T> T executeWithRetry(LlmProvider provider, String operation, ThrowingSupplier<T> call) {
+        LlmGatewayException lastError = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (attempt > 1) {
+                sleepBeforeRetry(provider, operation, attempt, lastError);
+            }
+            // 요청 한도 토큰을 먼저 얻는다 - 한도 대기 중에 실행 자리를 붙잡고 있지 않도록
+            acquirePermits(provider, operation);
+            // 시도마다 자리를 얻고 반납한다 (재시도 대기 중에는 다른 호출이 자리를 쓸 수 있도록)
+            Bulkhead.Permit permit = enterBulkhead(provider);
+            try {
+                T result = call.get();
+                circuitBreakers.get(provider).onSuccess();
+                return result;
+            } catch (Exception e) {
+                lastError = classify(provider, e);
+                recordFailure(provider, lastError);
+                countError(provider, operation, lastError);
+                if (!lastError.isRetryable()) {
+                    throw lastError;
+                }
+                log.warn("{} {} 호출 실패 ({}/{}): {}", provider, operation, attempt, maxAttempts,
+                    lastError.getReason());
+            } finally {
+                permit.close();
+            }
+        }
+        throw lastError;
+    }
+
+    // 자리를 얻지 못하면 호출하지 않으므로 HALF_OPEN 시험 호출 자리를 반납한다
+    private Bulkhead.Permit enterBulkhead(LlmProvider provider) {
+        try {
+            return bulkheads.get(provider).enter();
+        } catch (BulkheadFullException e) {
+            circuitBreakers.get(provider).onIgnored();
+            throw e;
+        } catch (InterruptedException e) {
+            circuitBreakers.get(provider).onIgnored();
+            Thread.currentThread().interrupt();
+            throw new LlmGatewayException(provider, Reason.INTERRUPTED, "요청이 중단되었습니다.", e);
+        }
+    }
+
+    private <T> T startStream(LlmProvider provider, String operation, ThrowingSupplier<T> call) {
+        acquirePermits(provider, operation);
+        try {
+            return call.get();
+        } catch (Exception e) {
+            LlmGatewayException error = classify(provider, e);
+            recordFailure(provider, error);
+            countError(provider, operation, error);
+            throw error;
+        }
+    }
+
+    // 시도별 실패 횟수 (재시도된 실패 포함)
+    private void countError(LlmProvider provider, String operation, LlmGatewayException error) {
+        Counter.builder("llm.errors")
+            .description("LLM 호출 실패 횟수 (원인별)")
+            .tag("provider", provider.name().toLowerCase())
+            .tag("operation", operation)
+            .tag("reason", error.getReason().name().toLowerCase())
+            .register(meterRegistry)
+            .increment();
+    }
+
+    // 서킷을 먼저 확인한다 - 차단될 호출이 요청 한도 토큰을 쓰지 않도록
+    private void acquirePermits(LlmProvider provider, String operation) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(provider);
+        if (!circuitBreaker.tryAcquire()) {
+            log.warn("{} 서킷 OPEN - {} 호출 차단", provider, operation);
+            throw new LlmGatewayException(provider, Reason.CIRCUIT_OPEN,
+                "AI 서비스 응답이 불안정하여 잠시 호출을 중단했습니다. 잠시 후 다시 시도해주세요.", null);
+        }
+        try {
+            if (!rateLimiters.get(provider).acquire(rateLimitMaxWait)) {
+                // 호출하지 않았으므로 HALF_OPEN 시험 호출 자리만 반납
+                circuitBreaker.onIgnored();
+                throw new LlmGatewayException(provider, Reason.RATE_LIMITED,
+                    "요청이 많아 잠시 후 다시 시도해주세요.", null);
+            }
+        } catch (InterruptedException e) {
+            circuitBreaker.onIgnored();
+            Thread.currentThread().interrupt();
+            throw new LlmGatewayException(provider, Reason.INTERRUPTED, "요청이 중단되었습니다.", e);
+        }
+    }
+
+    private void recordFailure(LlmProvider provider, LlmGatewayException error) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(provider);
+        switch (error.getReason()) {
+            // 제공자 상태와 무관한 실패는 서킷 브레이커에 반영하지 않는다
+            // (429 / 로컬 한도 초과는 처리량 문제이므로 서킷을 열면 잠깐의 제한이 전체 장애가 된다)
+            case BAD_REQUEST, INTERRUPTED, RATE_LIMITED -> circuitBreaker.onIgnored();
+            default -> circuitBreaker.onFailure();
+        }
+    }
+
+    // full jitter: 0 ~ min(maxBackoff, baseBackoff * 2^(attempt-2)) 사이에서 무작위로 대기
+    private void sleepBeforeRetry(LlmProvider provider, String operation, int attempt, LlmGatewayException lastError) {
+        long ceiling = Math.min(maxBackoff.toMillis(), baseBackoff.toMillis() << Math.min(attempt - 2, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        log.info("{} {} 재시도 {}/{} - {}ms 후", provider, operation, attempt, maxAttempts, delay);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmGatewayException(provider, Reason.INTERRUPTED, "요청이 중단되었습니다.", lastError);
+        }
+    }
+
+    private LlmGatewayException classify(LlmProvider provider, Throwable error) {
+        if (error instanceof LlmGatewayException gatewayException) {
+            return gatewayException;
+        }
+        // SocketTimeoutException도 InterruptedIOException이지만 시간 초과는 재시도 대상
+        if (error instanceof InterruptedException
+            || (error instanceof InterruptedIOException && !(error instanceof SocketTimeoutException))) {
+            return new LlmGatewayException(provider, Reason.INTERRUPTED, "요청이 중단되었습니다.", error);
+        }
+
+        // 제공자 SDK가 감싼 예외에서 HTTP 상태 코드를 찾는다
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OpenAiHttpException openAiError) {
+                boolean quota = "insufficient_quota".equals(openAiError.code)
+                    || "insufficient_quota".equals(openAiError.type);
+                return classifyStatus(provider, openAiError.statusCode, quota, error);
+            }
+            if (cause instanceof ApiException apiError) {
+                return classifyStatus(provider, apiError.code(), false, error);
+            }
+            if (cause instanceof IOException) {
+                return new LlmGatewayException(provider, Reason.UPSTREAM_UNAVAILABLE,
+                    "AI 서비스에 연결할 수 없습니다.", error);
+            }
+        }
+        return new LlmGatewayException(provider, Reason.UPSTREAM_UNAVAILABLE, "AI 서비스 호출에 실패했습니다.", error);
+    }
+
+    private LlmGatewayException classifyStatus(LlmProvider provider, int status, boolean quota, Throwable error) {
+        if (quota) {
+            return new LlmGatewayException(provider, Reason.QUOTA_EXCEEDED,
+                "API 할당량 초과로 요청을 처리할 수 없습니다. 잠시 후 다시 시도해주세요.", error);
+        }
+        if (status == 429) {
+            return new LlmGatewayException(provider, Reason.RATE_LIMITED, "요청이 많아 잠시 후 다시 시도해주세요.", error);
+        }
+        if (status == 408 || status >= 500) {
+            return new LlmGatewayException(provider, Reason.UPSTREAM_UNAVAILABLE,
+                "AI 서비스가 일시적으로 응답하지 않습니다.", error);
+        }
+        return new LlmGatewayException(provider, Reason.BAD_REQUEST, "AI 서비스가 요청을 거부했습니다.", error);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier<T> {
+        T get() throws Exception;
+    }
+}
@@ -0,0 +1,32 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+import lombok.Getter;
+
+/**
+ * LlmGateway 호출 실패 (재시도 이후의 최종 실패 또는 로컬 보호 장치에 의한 거절)
+ */
+@Getter
+public class LlmGatewayException extends RuntimeException {
+
+    public enum Reason {
+        RATE_LIMITED,          // 로컬 요청 한도 또는 제공자의 429
+        QUOTA_EXCEEDED,        // 계정 할당량 소진 - 재시도해도 성공하지 않음
+        CIRCUIT_OPEN,          // 연속 실패로 제공자 호출 차단 중
+        UPSTREAM_UNAVAILABLE,  // 5xx / 네트워크 오류 / 시간 초과
+        BAD_REQUEST,           // 재시도 대상이 아닌 4xx
+        INTERRUPTED
+    }
+
+    private final LlmProvider provider;
+    private final Reason reason;
+
+    public LlmGatewayException(LlmProvider provider, Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.provider = provider;
+        this.reason = reason;
+    }
+
+    public boolean isRetryable() {
+        return reason == Reason.RATE_LIMITED || reason == Reason.UPSTREAM_UNAVAILABLE;
+    }
+}
@@ -0,0 +1,220 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+import AI_Challenge.AI_Challenge.global.llm.LlmGatewayException.Reason;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 제공자 간 헤징 / 장애 전환
+ * - 주 제공자가 최근 응답 시간의 백분위수(기본 p95) 안에 답하지 않으면 같은 작업을 다른 제공자에 보내고 먼저 성공한 결과를 쓴다 (진 쪽은 취소)
+ * - 헤지 호출은 작업별 예산(주 호출 수 대비 비율) 안에서만 보낸다
+ * - 주 제공자가 실패하면 예산과 무관하게 다른 제공자로 전환한다 (중단된 호출 제외)
+ * 백분위수를 계산할 표본이 모이기 전에는 헤지하지 않는다.
+ */
+@Component
+@Slf4j
+public class LlmHedger {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean hedgeEnabled;
+    private final boolean failoverEnabled;
+    private final double percentile;
+    private final int minSamples;
+    private final int windowSize;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final double budgetRatio;
+    private final double budgetMaxBalance;
+
+    private final Map<String, LatencyWindow> latencyWindows = new ConcurrentHashMap<>();
+    private final Map<String, HedgeBudget> budgets = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LlmHedger(MeterRegistry meterRegistry,
+        @Value("${llm.hedge.enabled:true}") boolean hedgeEnabled,
+        @Value("${llm.hedge.failover-enabled:true}") boolean failoverEnabled,
+        @Value("${llm.hedge.percentile:0.95}") double percentile,
+        @Value("${llm.hedge.min-samples:20}") int minSamples,
+        @Value("${llm.hedge.window-size:200}") int windowSize,
+        @Value("${llm.hedge.min-delay-ms:1000}") long minDelayMillis,
+        @Value("${llm.hedge.max-delay-ms:30000}") long maxDelayMillis,
+        @Value("${llm.hedge.budget.ratio:0.05}") double budgetRatio,
+        @Value("${llm.hedge.budget.max-balance:5}") double budgetMaxBalance) {
+        this.meterRegistry = meterRegistry;
+        this.hedgeEnabled = hedgeEnabled;
+        this.failoverEnabled = failoverEnabled;
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.windowSize = windowSize;
+        this.minDelay = Duration.ofMillis(minDelayMillis);
+        this.maxDelay = Duration.ofMillis(maxDelayMillis);
+        this.budgetRatio = budgetRatio;
+        this.budgetMaxBalance = budgetMaxBalance;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 결과와 그 결과를 낸 제공자
+     */
+    public record Hedged<T>(T value, LlmProvider provider, boolean fromPrimary) {
+    }
+
+    /**
+     * 주 작업을 실행하고, 느리면 헤지 / 실패하면 장애 전환
+     * 두 작업이 모두 실패하면 주 작업의 예외를 던진다.
+     */
+    public <T> Hedged<T> execute(String operation, LlmProvider primaryProvider, Callable<T> primary,
+        LlmProvider secondaryProvider, Callable<T> secondary) {
+        if (!hedgeEnabled && !failoverEnabled) {
+            return new Hedged<>(callDirectly(primary), primaryProvider, true);
+        }
+
+        String key = operation + ":" + primaryProvider.name().toLowerCase();
+        LatencyWindow window = latencyWindows.computeIfAbsent(key, k -> new LatencyWindow(windowSize));
+        HedgeBudget budget = budgets.computeIfAbsent(key, k -> new HedgeBudget(budgetRatio, budgetMaxBalance));
+        budget.deposit();
+
+        ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        long startedAt = System.nanoTime();
+        Future<T> primaryFuture = completion.submit(primary);
+        Future<T> secondaryFuture = null;
+        int pending = 1;
+        Throwable primaryError = null;
+        try {
+            Optional<Duration> hedgeDelay = hedgeEnabled ? hedgeDelay(window) : Optional.empty();
+            Future<T> done = hedgeDelay.isPresent()
+                ? completion.poll(hedgeDelay.get().toNanos(), TimeUnit.NANOSECONDS)
+                : completion.take();
+            if (done == null) {
+                // 주 제공자가 백분위수 시간 안에 답하지 않음
+                if (budget.tryWithdraw()) {
+                    log.info("{} {} 응답 지연 ({} ms) - {}에 헤지 호출", primaryProvider, operation,
+                        hedgeDelay.get().toMillis(), secondaryProvider);
+                    count(operation, "hedged");
+                    secondaryFuture = completion.submit(secondary);
+                    pending++;
+                } else {
+                    count(operation, "budget_exhausted");
+                }
+                done = completion.take();
+            }
+
+            while (true) {
+                pending--;
+                boolean fromPrimary = done == primaryFuture;
+                try {
+                    T value = done.get();
+                    if (fromPrimary) {
+                        window.record(Duration.ofNanos(System.nanoTime() - startedAt));
+                    } else {
+                        count(operation, "secondary_won");
+                    }
+                    return new Hedged<>(value, fromPrimary ? primaryProvider : secondaryProvider, fromPrimary);
+                } catch (ExecutionException e) {
+                    if (fromPrimary) {
+                        primaryError = e.getCause();
+                        if (secondaryFuture == null && failoverEnabled && !isInterrupted(primaryError)) {
+                            log.warn("{} {} 실패 - {}로 전환합니다: {}", primaryProvider, operation, secondaryProvider,
+                                primaryError.getMessage());
+                            count(operation, "failover");
+                            secondaryFuture = completion.submit(secondary);
+                            pending++;
+                        }
+                    } else {
+                        // 헤지 호출 실패 - 주 호출이 남아 있으면 그 결과를 기다린다
+                        log.warn("{} {} 헤지/전환 호출 실패: {}", secondaryProvider, operation, e.getCause().getMessage());
+                    }
+                    if (pending == 0) {
+                        throw rethrow(primaryError != null ? primaryError : e.getCause());
+                    }
+                    done = completion.take();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmGatewayException(primaryProvider, Reason.INTERRUPTED, "요청이 중단되었습니다.", e);
+        } finally {
+            // 진 쪽(또는 남은 쪽) 호출 취소 - 게이트웨이는 중단된 호출을 서킷 브레이커에 반영하지 않는다
+            cancelIfRunning(primaryFuture, window, startedAt);
+            if (secondaryFuture != null) {
+                secondaryFuture.cancel(true);
+            }
+        }
+    }
+
+    // 관측된 백분위수를 [minDelay, maxDelay]로 제한 (표본이 부족하면 헤지하지 않음)
+    private Optional<Duration> hedgeDelay(LatencyWindow window) {
+        return window.percentile(percentile, minSamples)
+            .map(delay -> delay.compareTo(minDelay) < 0 ? minDelay : delay)
+            .map(delay -> delay.compareTo(maxDelay) > 0 ? maxDelay : delay);
+    }
+
+    // 헤지에 져서 취소되는 주 호출은 지금까지의 시간을 표본으로 남긴다 (느린 호출이 창에서 빠지지 않도록)
+    private static void cancelIfRunning(Future<?> future, LatencyWindow window, long startedAt) {
+        if (!future.isDone()) {
+            future.cancel(true);
+            window.record(Duration.ofNanos(System.nanoTime() - startedAt));
+        }
+    }
+
+    private static boolean isInterrupted(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException
+                || (cause instanceof LlmGatewayException gatewayException
+                    && gatewayException.getReason() == Reason.INTERRUPTED)) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static <T> T callDirectly(Callable<T> call) {
+        try {
+            return call.call();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable error) {
+        if (error instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new RuntimeException("AI 서비스 호출에 실패했습니다.", error);
+    }
+
+    // event: hedged | budget_exhausted | secondary_won | failover
+    private void count(String operation, String event) {
+        Counter.builder("llm.hedge")
+            .description("제공자 간 헤지 / 장애 전환 횟수")
+            .tag("operation", operation)
+            .tag("event", event)
+            .register(meterRegistry)
+            .increment();
+    }
+}
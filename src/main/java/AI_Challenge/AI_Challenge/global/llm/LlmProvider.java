@@ -0,0 +1,6 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+public enum LlmProvider {
+    GEMINI,
+    OPENAI
+}
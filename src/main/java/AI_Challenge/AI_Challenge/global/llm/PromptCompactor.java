@@ -0,0 +1,170 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * LLM 프롬프트 전처리 (토큰 절감)
+ * - 레이아웃 전용 HTML(colgroup, style/width 등 속성, 강조 태그) 제거
+ * - HTML 표를 "| 셀 | 셀 |" 한 줄짜리 행으로 바꿔 반복되는 <tr>/<td> 골격 제거, 빈 셀/빈 행 제거
+ * - 공백/빈 줄 정리, 연속으로 같은 줄 제거 (고정 텍스트만 - 입력 데이터는 공백만 정리)
+ * 자리 표시자({{키}})와 셀 텍스트, rowspan(묶음 표시)은 유지한다.
+ */
+public final class PromptCompactor {
+
+    private static final Pattern COLGROUP = Pattern.compile("(?is)<colgroup>.*?</colgroup>");
+    private static final Pattern LAYOUT_ATTRIBUTE = Pattern.compile(
+        "(?i)\\s+(style|width|height|class|align|valign|border|cellpadding|cellspacing)=\"[^\"]*\"");
+    private static final Pattern INLINE_TAG = Pattern.compile("(?i)</?(strong|em|b|i|u|span)\\s*>");
+    private static final Pattern BLOCK_TAG = Pattern.compile("(?i)</?(p|br|div)\\s*/?>");
+    private static final Pattern TABLE = Pattern.compile("(?is)<table[^>]*>(.*?)</table>");
+    private static final Pattern ROW = Pattern.compile("(?is)<tr[^>]*>(.*?)</tr>");
+    private static final Pattern CELL = Pattern.compile("(?is)<t([dh])([^>]*)>(.*?)</t\\1>");
+    private static final Pattern ROWSPAN = Pattern.compile("(?i)rowspan=\"(\\d+)\"");
+    private static final Pattern SPACES = Pattern.compile("[ \\t\\u00a0]+");
+    private static final Pattern TABLE_RULE = Pattern.compile("-{3,}");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n{3,}");
+
+    // 정적 프롬프트 상수(클래스 초기화 시점)에서도 쓰므로 Spring ObjectMapper 대신 스트리밍 API로 토큰만 복사한다
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private PromptCompactor() {
+    }
+
+    /**
+     * pandoc/POI가 만든 GFM(HTML 표 포함)을 압축
+     */
+    public static String compactMarkdown(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        String text = COLGROUP.matcher(markdown).replaceAll("");
+        text = LAYOUT_ATTRIBUTE.matcher(text).replaceAll("");
+        text = INLINE_TAG.matcher(text).replaceAll("");
+
+        Matcher tables = TABLE.matcher(text);
+        StringBuilder out = new StringBuilder();
+        while (tables.find()) {
+            tables.appendReplacement(out, Matcher.quoteReplacement("\n" + compactTable(tables.group(1)) + "\n"));
+        }
+        tables.appendTail(out);
+        return collapseWhitespace(out.toString());
+    }
+
+    /**
+     * 줄 끝 공백, 연속 공백, 3줄 이상 빈 줄, 긴 표 구분선(---), 바로 위와 같은 줄 제거
+     * 같은 줄 제거는 고정 프롬프트/양식처럼 반복이 의미 없는 텍스트에만 쓴다
+     */
+    public static String collapseWhitespace(String text) {
+        return compactLines(text, true);
+    }
+
+    /**
+     * 공백만 정리 (줄 끝 공백, 연속 공백, 3줄 이상 빈 줄) - 줄 내용은 바꾸지 않는다
+     * 영수증 텍스트처럼 같은 품목이 연속으로 나올 수 있는 입력 데이터에 쓴다
+     */
+    public static String normalizeWhitespace(String text) {
+        return compactLines(text, false);
+    }
+
+    /**
+     * JSON을 한 줄로 (키 순서 유지), JSON이 아니면 공백만 정리
+     */
+    public static String compactJson(String json) {
+        if (json == null || json.isBlank()) {
+            return "";
+        }
+        StringWriter out = new StringWriter(json.length());
+        try (JsonParser parser = JSON.createParser(json);
+             JsonGenerator generator = JSON.createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            return normalizeWhitespace(json);
+        }
+        return out.toString();
+    }
+
+    /**
+     * 토큰 수 추정 (한글 등 비 ASCII 문자는 1자 ≈ 1토큰, ASCII는 4자 ≈ 1토큰)
+     * 공급자별 토크나이저와 정확히 같지는 않지만 압축 전후 비교에는 충분하다.
+     */
+    public static int estimateTokens(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                ascii++;
+            } else if (!Character.isLowSurrogate(c)) {
+                other++;
+            }
+        }
+        return other + (ascii + 3) / 4;
+    }
+
+    private static String compactLines(String text, boolean dropRepeatedLines) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String normalized = text.replace("\r\n", "\n");
+        if (dropRepeatedLines) {
+            normalized = TABLE_RULE.matcher(normalized).replaceAll("---");
+        }
+
+        StringBuilder out = new StringBuilder(normalized.length());
+        String previous = null;
+        for (String line : normalized.split("\n", -1)) {
+            String compact = SPACES.matcher(line).replaceAll(" ").strip();
+            if (dropRepeatedLines && !compact.isEmpty() && compact.equals(previous)) {
+                continue;
+            }
+            out.append(compact).append('\n');
+            previous = compact;
+        }
+        return BLANK_LINES.matcher(out.toString()).replaceAll("\n\n").strip();
+    }
+
+    private static String compactTable(String tableHtml) {
+        List<String> rows = new ArrayList<>();
+        Matcher rowMatcher = ROW.matcher(tableHtml);
+        while (rowMatcher.find()) {
+            List<String> cells = new ArrayList<>();
+            Matcher cellMatcher = CELL.matcher(rowMatcher.group(1));
+            while (cellMatcher.find()) {
+                String cellText = cellText(cellMatcher.group(3));
+                if (cellText.isEmpty()) {
+                    continue;
+                }
+                Matcher rowspan = ROWSPAN.matcher(cellMatcher.group(2));
+                if (rowspan.find() && !"1".equals(rowspan.group(1))) {
+                    cellText += " (" + rowspan.group(1) + "행)";
+                }
+                cells.add(cellText);
+            }
+            if (!cells.isEmpty()) {
+                rows.add("| " + String.join(" | ", cells) + " |");
+            }
+        }
+        return String.join("\n", rows);
+    }
+
+    private static String cellText(String cellHtml) {
+        String text = BLOCK_TAG.matcher(cellHtml).replaceAll(" ");
+        // 중첩 표는 안쪽 행을 " / "로 이어 한 셀에 담는다
+        text = TABLE.matcher(text).replaceAll(match -> Matcher.quoteReplacement(
+            compactTable(match.group(1)).replace("\n", " / ")));
+        text = text.replaceAll("<[^>]+>", " ");
+        return SPACES.matcher(text.replace('\n', ' ')).replaceAll(" ").strip();
+    }
+}
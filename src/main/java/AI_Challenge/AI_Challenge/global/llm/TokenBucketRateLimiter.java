@@ -0,0 +1,52 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 토큰 버킷 방식 요청 한도 (분당 요청 수 + 순간 허용량)
+ */
+class TokenBucketRateLimiter {
+
+    private final long capacity;
+    private final double refillPerNanos;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucketRateLimiter(long requestsPerMinute, long burst) {
+        this.capacity = Math.max(1, burst);
+        this.refillPerNanos = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 토큰 하나를 얻을 때까지 최대 maxWait만큼 기다린다
+     * 대기 시간 안에 얻을 수 없는 경우 기다리지 않고 바로 false를 반환
+     */
+    boolean acquire(Duration maxWait) throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            waitNanos = (long) Math.ceil((1 - tokens) / refillPerNanos);
+            if (waitNanos > maxWait.toNanos()) {
+                return false;
+            }
+            // 미리 토큰을 예약해 동시에 기다리는 호출끼리 같은 토큰을 나눠 갖지 않도록 한다
+            tokens -= 1;
+        }
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+        return true;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNanos);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,41 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * pandoc(-f docx -t gfm)으로 기록한 출력과 POI 변환기 출력을 비교하는 골든 파일 테스트
+ * pandoc의 72열 줄바꿈 차이는 의미가 없으므로 공백을 정규화해서 비교한다.
+ */
+class DocxMarkdownConverterTest {
+
+    private final DocxMarkdownConverter converter = new DocxMarkdownConverter(PoiPackageLoaderFixtures.poiPackageLoader());
+
+    @ParameterizedTest
+    @ValueSource(strings = {"travel-expense"})
+    void convertMatchesRecordedPandocOutput(String name) throws IOException {
+        byte[] docx = readResource("/docx-golden/" + name + ".docx");
+        String expected = new String(readResource("/docx-golden/" + name + ".gfm.md"), StandardCharsets.UTF_8);
+
+        String actual = converter.convert(docx);
+
+        assertEquals(normalize(expected), normalize(actual));
+    }
+
+    private byte[] readResource(String path) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream(path)) {
+            assertNotNull(in, "테스트 리소스가 없습니다: " + path);
+            return in.readAllBytes();
+        }
+    }
+
+    private String normalize(String markdown) {
+        return markdown.replaceAll("\\s+", " ").trim();
+    }
+}
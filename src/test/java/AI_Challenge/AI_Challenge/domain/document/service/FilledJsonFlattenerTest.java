@@ -0,0 +1,30 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 평탄한 키와 label/value 객체를 모두 자리 표시자 키로 펼치고, JSON이 아니면 실패하는지 확인
+ */
+class FilledJsonFlattenerTest {
+
+    private final FilledJsonFlattener flattener = new FilledJsonFlattener(new ObjectMapper());
+
+    @Test
+    void flattensPlainKeysAndLabelValueObjects() {
+        String json = """
+            {"일시": "2025-07-01", "교통": [{"label": "금액1", "value": "16,900원"}, {"label": "금액2", "value": ""}]}
+            """;
+
+        assertEquals(Map.of("일시", "2025-07-01", "금액1", "16,900원", "금액2", ""), flattener.flatten(json));
+    }
+
+    @Test
+    void rejectsNonJson() {
+        assertThrows(RuntimeException.class, () -> flattener.flatten("{\"일시\": "));
+    }
+}
@@ -0,0 +1,81 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 로컬 스키마 추출기가 Gemini 분석과 같은 키를 문서 순서대로 만드는지, 불규칙한 양식의 신뢰도를 낮추는지 확인
+ */
+class LocalSchemaExtractorTest {
+
+    private final LocalSchemaExtractor extractor = new LocalSchemaExtractor(new ObjectMapper(),
+        PoiPackageLoaderFixtures.poiPackageLoader());
+
+    @Test
+    void extractsPlaceholdersOfTravelExpenseTemplate() throws IOException {
+        LocalSchemaExtractor.Extraction extraction = extractor.extract(readResource("/docx-golden/travel-expense.docx"));
+
+        assertEquals(List.of("일시", "출장지", "식비기간", "식사제공횟수", "식비정산금", "숙박시작일자", "숙박종료일자", "숙박비금액",
+            "일자1", "교통편1", "출발지1", "도착지1", "구분1", "금액1",
+            "일자2", "교통편2", "출발지2", "도착지2", "구분2", "금액2",
+            "일자3", "교통편3", "출발지3", "도착지3", "구분3", "금액3",
+            "일자4", "교통편4", "출발지4", "도착지4", "구분4", "금액4", "출장금액"), extraction.keys());
+        // 양식의 "{숙박비금액}}" 하나가 깨져 있어 감점
+        assertEquals(0.7, extraction.confidence());
+        assertEquals(1, extraction.issues().size());
+    }
+
+    @Test
+    void buildsSchemaJsonFromTableCells() throws IOException {
+        byte[] docx = createDocument(document -> {
+            document.createParagraph().createRun().setText("신청자 {{성명}}");
+            XWPFTable table = document.createTable(2, 2);
+            table.getRow(0).getCell(0).setText("일 시");
+            table.getRow(0).getCell(1).setText("{{ 일시 }}");
+            table.getRow(1).getCell(0).setText("출장지");
+            table.getRow(1).getCell(1).setText("{{출장지}} / {{성명}}");
+        });
+
+        LocalSchemaExtractor.Extraction extraction = extractor.extract(docx);
+
+        assertEquals("{\"성명\":\"\",\"일시\":\"\",\"출장지\":\"\"}", extraction.schemaJson());
+        assertEquals(1.0, extraction.confidence());
+    }
+
+    @Test
+    void documentWithoutPlaceholdersHasZeroConfidence() throws IOException {
+        byte[] docx = createDocument(document -> document.createParagraph().createRun().setText("자리 표시자가 없는 양식"));
+
+        assertEquals(0.0, extractor.extract(docx).confidence());
+    }
+
+    private byte[] createDocument(DocumentBuilder builder) throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            builder.build(document);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private byte[] readResource(String path) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream(path)) {
+            assertNotNull(in, "테스트 리소스가 없습니다: " + path);
+            return in.readAllBytes();
+        }
+    }
+
+    @FunctionalInterface
+    private interface DocumentBuilder {
+        void build(XWPFDocument document);
+    }
+}
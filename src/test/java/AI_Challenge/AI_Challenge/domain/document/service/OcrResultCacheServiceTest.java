@@ -0,0 +1,92 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import AI_Challenge.AI_Challenge.domain.document.service.OcrResultCacheService.ImageFingerprint;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 같은 이미지는 디스크 캐시에서 찾고, 용량을 넘으면 오래 쓰지 않은 항목부터 지우며, 꺼져 있으면 아무것도 남기지 않는지 확인
+ */
+class OcrResultCacheServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findsSameImageAndCountsHitsAndMisses() throws Exception {
+        OcrResultCacheService cache = cache(true, 1024);
+        ImageFingerprint receipt = cache.fingerprint(image("receipt-1"));
+        cache.put(receipt, "KTX 서울-부산 59,800원");
+
+        assertEquals(Optional.of("KTX 서울-부산 59,800원"), cache.find(cache.fingerprint(image("receipt-1"))));
+        assertEquals(Optional.empty(), cache.find(cache.fingerprint(image("receipt-2"))));
+
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(1L, stats.get("exactHits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(1, stats.get("entries"));
+    }
+
+    @Test
+    void restoresIndexFromFilesAfterRestart() throws Exception {
+        OcrResultCacheService first = cache(true, 1024);
+        first.put(first.fingerprint(image("receipt-1")), "택시 12,300원");
+
+        OcrResultCacheService restarted = cache(true, 1024);
+
+        assertEquals(Optional.of("택시 12,300원"), restarted.find(restarted.fingerprint(image("receipt-1"))));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedOverMaxBytes() throws Exception {
+        // 항목 하나 4바이트, 최대 10바이트 - 세 번째 저장에서 하나가 밀려난다
+        OcrResultCacheService cache = cache(true, 10);
+        ImageFingerprint a = cache.fingerprint(image("a"));
+        ImageFingerprint b = cache.fingerprint(image("b"));
+        ImageFingerprint c = cache.fingerprint(image("c"));
+        cache.put(a, "aaaa");
+        cache.put(b, "bbbb");
+        cache.find(a);
+        cache.put(c, "cccc");
+
+        assertTrue(cache.find(a).isPresent());
+        assertTrue(cache.find(b).isEmpty());
+        assertTrue(cache.find(c).isPresent());
+        assertEquals(1L, cache.getStats().get("evictions"));
+        assertFalse(Files.exists(tempDir.resolve("ocr").resolve(b.sha256() + ".txt")));
+    }
+
+    @Test
+    void doesNothingWhenDisabled() throws Exception {
+        OcrResultCacheService cache = cache(false, 1024);
+        ImageFingerprint receipt = cache.fingerprint(image("receipt-1"));
+
+        cache.put(receipt, "버스 1,500원");
+
+        assertEquals(Optional.empty(), cache.find(receipt));
+        assertFalse(Files.exists(tempDir.resolve("ocr")));
+        assertEquals(0L, cache.getStats().get("misses"));
+    }
+
+    // 지각 해시는 끄고 완전 일치 키만 사용
+    private OcrResultCacheService cache(boolean enabled, long maxBytes) throws Exception {
+        OcrResultCacheService cache = new OcrResultCacheService(enabled, tempDir.resolve("ocr").toString(),
+            maxBytes, false, 6);
+        cache.loadIndex();
+        return cache;
+    }
+
+    // 디코딩할 수 없는 바이트도 SHA-256 키로는 캐시된다
+    private static byte[] image(String name) {
+        return name.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import AI_Challenge.AI_Challenge.global.common.HashUtils;
+import AI_Challenge.AI_Challenge.global.common.MemoryBudget;
+import AI_Challenge.AI_Challenge.global.common.MemoryBudgetExceededException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 문서 크기에 따라 메모리/임시 파일로 열고, 예산을 얻고 반납하며, 한도를 넘는 문서는 거절하는지 확인
+ */
+class PoiPackageLoaderTest {
+
+    private static final long MB = 1L << 20;
+
+    private final MemoryBudget budget = new MemoryBudget("poi-memory", 64 * MB, 0, Duration.ofSeconds(1));
+
+    @Test
+    void holdsBudgetWhileOpenAndReleasesOnClose() throws Exception {
+        PoiPackageLoader loader = PoiPackageLoaderFixtures.poiPackageLoader(budget);
+
+        try (PoiPackageLoader.LoadedDocument loaded = loader.open(createTemplate())) {
+            assertEquals("성명: {{이름}}", loaded.document().getParagraphs().get(0).getText());
+            assertTrue(budget.getReservedBytes() > 0);
+        }
+        assertEquals(0, budget.getReservedBytes());
+    }
+
+    @Test
+    void rendersLargeTemplateFromTempFile() throws Exception {
+        // 압축 해제 크기 기준을 0으로 두어 모든 문서를 임시 파일로 연다
+        PoiDocxTemplateRenderer renderer = new PoiDocxTemplateRenderer(new PoiPackageLoader(budget, 0, (int) MB, 6));
+        byte[] template = createTemplate();
+        String contentHash = HashUtils.sha256Hex(template);
+
+        byte[] first = renderer.render(template, contentHash, Map.of("이름", "홍길동"));
+        byte[] second = renderer.render(template, contentHash, Map.of("이름", "김철수"));
+
+        try (XWPFDocument firstResult = new XWPFDocument(new ByteArrayInputStream(first));
+             XWPFDocument secondResult = new XWPFDocument(new ByteArrayInputStream(second))) {
+            assertEquals("성명: 홍길동", firstResult.getParagraphs().get(0).getText());
+            assertEquals("성명: 김철수", secondResult.getParagraphs().get(0).getText());
+            // 임시 파일로 열어도 이미지 파트는 그대로 복사된다
+            assertEquals(1, secondResult.getAllPictures().size());
+        }
+        assertEquals(0, budget.getReservedBytes());
+    }
+
+    @Test
+    void rejectsTemplateOverRequestLimit() throws Exception {
+        MemoryBudget small = new MemoryBudget("poi-memory", 64 * MB, 1024, Duration.ofSeconds(1));
+        PoiPackageLoader loader = PoiPackageLoaderFixtures.poiPackageLoader(small);
+
+        assertThrows(MemoryBudgetExceededException.class, () -> loader.open(createTemplate()));
+        assertEquals(0, small.getReservedBytes());
+    }
+
+    private byte[] createTemplate() throws IOException, InvalidFormatException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            document.createParagraph().createRun().setText("성명: {{이름}}");
+
+            byte[] picture = new byte[64 * 1024];
+            new Random(7).nextBytes(picture);
+            XWPFRun pictureRun = document.createParagraph().createRun();
+            pictureRun.addPicture(new ByteArrayInputStream(picture), Document.PICTURE_TYPE_PNG, "logo.png", 100, 100);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 접두사와 보관 기간으로 오래된 결과 파일만 지우고 색인에서도 빠지는지 확인
+ */
+class ProcessedDocumentCatalogTest {
+
+    @TempDir
+    Path resultDir;
+
+    @Test
+    void deletesOnlyExpiredFilesWithPrefix() throws Exception {
+        ProcessedDocumentCatalog catalog = new ProcessedDocumentCatalog(resultDir.toString(), "");
+        Path oldCopy = write("stream-1-a.docx", Duration.ofHours(48));
+        Path newCopy = write("stream-1-b.docx", Duration.ZERO);
+        Path oldResult = write("result_20250701_120000.docx", Duration.ofHours(48));
+        catalog.reconcile();
+
+        int deleted = catalog.deleteOlderThan("stream-", Duration.ofHours(24));
+
+        assertEquals(1, deleted);
+        assertFalse(Files.exists(oldCopy));
+        assertTrue(Files.exists(newCopy));
+        assertTrue(Files.exists(oldResult));
+        List<String> names = catalog.query("name", false, "", 0, 10).items().stream()
+            .map(ProcessedDocumentCatalog.CatalogEntry::fileName)
+            .toList();
+        assertEquals(List.of("result_20250701_120000.docx", "stream-1-b.docx"), names);
+    }
+
+    // age만큼 전에 수정된 파일을 만든다
+    private Path write(String fileName, Duration age) throws Exception {
+        Path file = Files.write(resultDir.resolve(fileName), new byte[] {1, 2, 3});
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+        return file;
+    }
+}
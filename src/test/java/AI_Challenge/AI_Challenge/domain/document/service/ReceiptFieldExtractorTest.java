@@ -0,0 +1,95 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 규칙 기반 영수증 필드 추출 - 확정된 값만 채우고 나머지는 GPT 입력 스키마로 남기는지 확인
+ */
+class ReceiptFieldExtractorTest {
+
+    private static final String BUS = """
+        ## 고속버스 영수증 (네이버페이)
+
+        **상호:** 금호익스프레스(주)
+        **사업자 번호:** 899-87-02113
+
+        ---
+
+        **승인번호:** 14605907
+        **승인일자:** 2025.04.17
+        **승인금액:** 16,900원
+        **환불금액:** 0원
+        **결제금액:** 16,900원 (부가세포함)
+
+        ---
+
+        **출발일:** 2025.04.25
+        **출발지:** 유성
+        **도착지:** 센트럴시티(서울)
+        """;
+
+    private static final String TRAIN = """
+        ## 승차권 정보
+
+        **2025년 1월 22일(수)**
+
+        *   **열차:** KTX 105 | 일반실 | 6호차 8D
+        *   **경로:** 서울 17:13 〉 대전 18:12
+
+        **결제 금액:** 22,500원
+        **총 영수 금액:** 22,500원
+        **사업자:** 한국철도공사 314-82-10024
+        """;
+
+    private final ReceiptFieldExtractor extractor = new ReceiptFieldExtractor(new ObjectMapper());
+
+    @Test
+    void resolvesAllFieldsOfSingleReceipt() {
+        ReceiptFieldExtractor.Resolution resolution = extractor.resolve(
+            "{\"가맹점명\":\"\",\"사업자번호\":\"\",\"승인번호\":\"\",\"합계\":\"\",\"일시\":\"\"}", BUS);
+
+        assertTrue(resolution.isComplete());
+        assertEquals("{\"가맹점명\":\"금호익스프레스(주)\",\"사업자번호\":\"899-87-02113\",\"승인번호\":\"14605907\","
+            + "\"합계\":\"16,900원\",\"일시\":\"2025년 4월 25일\"}", resolution.merge(null));
+    }
+
+    @Test
+    void mapsTransportReceiptsToNumberedFieldsAndLeavesTheRestToGpt() {
+        String schema = "{\"출장지\":\"\",\"숙박비금액\":\"\",\"일자1\":\"\",\"교통편1\":\"\",\"출발지1\":\"\",\"금액1\":\"\","
+            + "\"일자2\":\"\",\"교통편2\":\"\",\"도착지2\":\"\",\"금액2\":\"\",\"금액3\":\"\",\"출장금액\":\"\"}";
+
+        ReceiptFieldExtractor.Resolution resolution = extractor.resolve(schema, BUS + "\n\n" + TRAIN);
+
+        assertFalse(resolution.isComplete());
+        assertEquals("{\"출장지\":\"\"}", resolution.unresolvedSchemaJson());
+        assertEquals("{\"출장지\":\"대전\",\"숙박비금액\":\"\",\"일자1\":\"2025-04-25\",\"교통편1\":\"버스\","
+            + "\"출발지1\":\"유성\",\"금액1\":\"16,900원\",\"일자2\":\"2025-01-22\",\"교통편2\":\"기차\","
+            + "\"도착지2\":\"대전\",\"금액2\":\"22,500원\",\"금액3\":\"\",\"출장금액\":\"39,400원\"}",
+            resolution.merge("{\"출장지\":\"대전\",\"금액1\":\"잘못된 값\"}"));
+    }
+
+    @Test
+    void leavesOddNumberedKeysToGpt() {
+        // 0번, 정수 범위를 넘는 번호, 교통 필드가 아닌 번호 키는 예외 없이 GPT에 넘긴다
+        String schema = "{\"금액0\":\"\",\"금액123456789012345\":\"\",\"항목12\":\"\",\"금액1\":\"\"}";
+
+        ReceiptFieldExtractor.Resolution resolution = extractor.resolve(schema, BUS + "\n\n" + TRAIN);
+
+        assertEquals("{\"금액0\":\"\",\"금액123456789012345\":\"\",\"항목12\":\"\"}", resolution.unresolvedSchemaJson());
+        assertEquals(1, resolution.resolvedCount());
+    }
+
+    @Test
+    void leavesAmbiguousValuesUnresolved() {
+        String twoAmounts = "## 영수증\n합계: 12,000원\n결제금액: 13,000원\n";
+
+        ReceiptFieldExtractor.Resolution resolution = extractor.resolve("{\"합계\":\"\"}", twoAmounts);
+
+        assertEquals(0, resolution.resolvedCount());
+    }
+}
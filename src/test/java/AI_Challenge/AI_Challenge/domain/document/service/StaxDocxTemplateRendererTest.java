@@ -0,0 +1,141 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import AI_Challenge.AI_Challenge.global.common.HashUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xwpf.model.XWPFHeaderFooterPolicy;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFPictureData;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * StAX 렌더러가 기존 POI 렌더러와 같은 텍스트를 만들고, 첫 Run 서식과 나머지 파트를 보존하는지 확인
+ */
+class StaxDocxTemplateRendererTest {
+
+    private static final Map<String, String> DATA = Map.of(
+        "이름", "홍길동",
+        "직급", "석사과정",
+        "작성일", "2025년 07월 01일",
+        "금액", "12,300원 & <부가세 포함>");
+
+    private final PoiDocxTemplateRenderer poiRenderer = new PoiDocxTemplateRenderer(
+        PoiPackageLoaderFixtures.poiPackageLoader());
+    private final StaxDocxTemplateRenderer staxRenderer = new StaxDocxTemplateRenderer(poiRenderer, 8);
+
+    @Test
+    void rendersSameTextAsPoiRenderer() throws Exception {
+        byte[] template = createTemplate();
+        String contentHash = HashUtils.sha256Hex(template);
+
+        try (XWPFDocument expected = open(poiRenderer.render(template, contentHash, DATA));
+             XWPFDocument actual = open(staxRenderer.render(template, contentHash, DATA))) {
+            assertEquals(bodyText(expected), bodyText(actual));
+            assertEquals("성명: 홍길동 (석사과정)", actual.getParagraphs().get(0).getText());
+            assertEquals("12,300원 & <부가세 포함>", actual.getTables().get(0).getRow(0).getCell(1).getText());
+            assertEquals("미정의 값: ", actual.getParagraphs().get(2).getText());
+        }
+    }
+
+    @Test
+    void keepsFirstRunFormattingAndUntouchedParts() throws Exception {
+        byte[] template = createTemplate();
+
+        try (XWPFDocument source = open(template);
+             XWPFDocument actual = open(staxRenderer.render(template, HashUtils.sha256Hex(template), DATA))) {
+            XWPFRun run = actual.getParagraphs().get(0).getRuns().get(0);
+            assertTrue(run.isBold());
+            assertEquals(14, run.getFontSizeAsDouble().intValue());
+
+            // 머리글의 자리 표시자도 교체된다
+            XWPFHeader header = actual.getHeaderFooterPolicy().getDefaultHeader();
+            assertEquals("작성일 2025년 07월 01일", header.getText().trim());
+
+            // 자리 표시자가 없는 파트(이미지)는 그대로 복사된다
+            XWPFPictureData expectedPicture = source.getAllPictures().get(0);
+            XWPFPictureData actualPicture = actual.getAllPictures().get(0);
+            assertArrayEquals(expectedPicture.getData(), actualPicture.getData());
+        }
+    }
+
+    @Test
+    void writesToCallerStreamWithoutClosingIt() throws Exception {
+        byte[] template = createTemplate();
+        CloseTrackingOutputStream out = new CloseTrackingOutputStream();
+
+        staxRenderer.render(template, HashUtils.sha256Hex(template), DATA, out);
+
+        assertFalse(out.closed);
+        try (XWPFDocument actual = open(out.toByteArray())) {
+            assertEquals("성명: 홍길동 (석사과정)", actual.getParagraphs().get(0).getText());
+        }
+    }
+
+    private byte[] createTemplate() throws IOException, InvalidFormatException {
+        try (XWPFDocument document = new XWPFDocument()) {
+            // 자리 표시자가 여러 Run에 나뉘어 있는 문단 (Word에서 흔히 생기는 형태)
+            XWPFParagraph split = document.createParagraph();
+            XWPFRun first = split.createRun();
+            first.setBold(true);
+            first.setFontSize(14);
+            first.setText("성명: {{이");
+            split.createRun().setText("름}} ({{ 직급 }})");
+
+            document.createParagraph().createRun().setText("자리 표시자가 없는 문단");
+            document.createParagraph().createRun().setText("미정의 값: {{없는키}}");
+
+            XWPFTable table = document.createTable(1, 2);
+            table.getRow(0).getCell(0).setText("금액");
+            table.getRow(0).getCell(1).setText("{{금액}}");
+
+            XWPFParagraph pictureParagraph = document.createParagraph();
+            byte[] picture = new byte[4096];
+            new Random(7).nextBytes(picture);
+            pictureParagraph.createRun().addPicture(new ByteArrayInputStream(picture), Document.PICTURE_TYPE_PNG,
+                "image.png", 100_000, 100_000);
+
+            XWPFHeaderFooterPolicy policy = document.createHeaderFooterPolicy();
+            XWPFHeader header = policy.createHeader(XWPFHeaderFooterPolicy.DEFAULT);
+            header.createParagraph().createRun().setText("작성일 {{작성일}}");
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private XWPFDocument open(byte[] docx) throws IOException {
+        return new XWPFDocument(new ByteArrayInputStream(docx));
+    }
+
+    private String bodyText(XWPFDocument document) {
+        StringBuilder text = new StringBuilder();
+        document.getParagraphs().forEach(paragraph -> text.append(paragraph.getText()).append('\n'));
+        document.getTables().forEach(table -> text.append(table.getText()).append('\n'));
+        return text.toString();
+    }
+
+    private static final class CloseTrackingOutputStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
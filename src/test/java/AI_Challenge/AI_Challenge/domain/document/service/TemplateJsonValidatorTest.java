@@ -0,0 +1,80 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * LLM JSON 출력을 스키마 기준으로 정규화하고, 맞지 않는 키만 복구 대상으로 남기는지 확인
+ */
+class TemplateJsonValidatorTest {
+
+    private final TemplateJsonValidator validator = new TemplateJsonValidator(new ObjectMapper());
+
+    private final ObjectNode schema = validator.parseSchema(
+        "{\"일시\":\"\",\"출장지\":\"\",\"운임\":[{\"label\":\"금액1\",\"value\":\"\"}],\"출장금액\":\"\"}");
+
+    @Test
+    void normalizesFencedOutputInSchemaOrder() {
+        TemplateJsonValidator.Validation validation = validator.validate(schema, """
+            ```json
+            {"출장금액": 16900, "일시": "2025년 4월 25일", "운임": [{"label": "금액1", "value": "16,900원"}],
+             "설명": "스키마에 없는 키",}
+            ```""");
+
+        assertTrue(validation.isValid());
+        assertEquals("{\"일시\":\"2025년 4월 25일\",\"출장지\":\"\","
+            + "\"운임\":[{\"label\":\"금액1\",\"value\":\"16,900원\"}],\"출장금액\":\"16900\"}",
+            validator.write(validation.json()));
+    }
+
+    @Test
+    void marksOnlyMismatchedKeysForRepair() {
+        TemplateJsonValidator.Validation validation = validator.validate(schema,
+            "{\"일시\":{\"시작\":\"2025-04-25\"},\"출장지\":\"서울\",\"운임\":\"16,900원\",\"출장금액\":\"16,900원\"}");
+
+        assertFalse(validation.isValid());
+        assertEquals(List.of("일시", "운임"), validation.invalidKeys());
+        assertEquals("{\"일시\":\"\",\"출장지\":\"서울\",\"운임\":[{\"label\":\"금액1\",\"value\":\"\"}],"
+            + "\"출장금액\":\"16,900원\"}", validator.write(validation.json()));
+        assertEquals("{\"일시\":{\"시작\":\"2025-04-25\"},\"운임\":\"16,900원\"}", validation.invalidFragment());
+        assertEquals("{\"일시\":\"\",\"운임\":[{\"label\":\"금액1\",\"value\":\"\"}]}",
+            validator.write(validator.subSchema(schema, validation.invalidKeys())));
+    }
+
+    @Test
+    void salvagesStringFieldsOfTruncatedOutput() {
+        TemplateJsonValidator.Validation validation = validator.validate(schema,
+            "{\"일시\": \"2025년 4월 25일\", \"출장지\": \"대전 \\\"유성\\\"\", \"운임\": [{\"label\": \"금액1\", \"val");
+
+        assertEquals(List.of("운임", "출장금액"), validation.invalidKeys());
+        assertEquals("2025년 4월 25일", validation.json().get("일시").asText());
+        assertEquals("대전 \"유성\"", validation.json().get("출장지").asText());
+    }
+
+    @Test
+    void mergesRepairedKeysAndKeepsFailedOnes() {
+        TemplateJsonValidator.Validation validation = validator.validate(schema,
+            "{\"일시\":[\"2025-04-25\"],\"출장지\":\"서울\",\"운임\":\"16,900원\",\"출장금액\":\"\"}");
+        ObjectNode repairSchema = validator.subSchema(schema, validation.invalidKeys());
+
+        TemplateJsonValidator.Validation merged = validation.merge(validator.validate(repairSchema,
+            "{\"일시\":\"2025년 4월 25일\",\"운임\":{\"label\":\"금액1\"}}"));
+
+        assertEquals(List.of("운임"), merged.invalidKeys());
+        assertEquals("2025년 4월 25일", merged.json().get("일시").asText());
+        assertEquals("서울", merged.json().get("출장지").asText());
+    }
+
+    @Test
+    void rejectsSchemaThatIsNotAnObject() {
+        assertThrows(RuntimeException.class, () -> validator.parseSchema("양식에서 키를 찾지 못했습니다."));
+        assertThrows(RuntimeException.class, () -> validator.parseSchema("[\"일시\"]"));
+    }
+}
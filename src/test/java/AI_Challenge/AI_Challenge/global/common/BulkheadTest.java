@@ -0,0 +1,95 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 벌크헤드의 동시 실행 제한, 대기열 거절, 자리 반납 확인
+ */
+class BulkheadTest {
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 0, Duration.ofSeconds(5));
+
+        Bulkhead.Permit permit = bulkhead.enter();
+        long startedAt = System.nanoTime();
+        BulkheadFullException e = assertThrows(BulkheadFullException.class, bulkhead::enter);
+
+        // 대기열이 0이므로 maxWait(5초)를 기다리지 않는다
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(1));
+        assertEquals("test", e.getBulkheadName());
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+
+        permit.close();
+        assertEquals(0, bulkhead.getActiveCount());
+    }
+
+    @Test
+    void queuedCallGetsSlotWhenPermitIsReleased() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 1, Duration.ofSeconds(5));
+        CountDownLatch queued = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Bulkhead.Permit permit = bulkhead.enter();
+            Future<Boolean> waiter = executor.submit(() -> {
+                queued.countDown();
+                bulkhead.enter().close();
+                return true;
+            });
+            queued.await();
+            // 대기 중인 호출이 대기열 자리를 차지하면 세 번째 호출은 바로 거절
+            while (bulkhead.getQueuedCount() == 0) {
+                Thread.onSpinWait();
+            }
+            assertThrows(BulkheadFullException.class, bulkhead::enter);
+
+            permit.close();
+            assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, bulkhead.getActiveCount());
+        assertEquals(0, bulkhead.getQueuedCount());
+    }
+
+    @Test
+    void rejectsAfterMaxWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 1, Duration.ofMillis(50));
+
+        Bulkhead.Permit permit = bulkhead.enter();
+        assertThrows(BulkheadFullException.class, bulkhead::enter);
+        permit.close();
+    }
+
+    @Test
+    void closingPermitTwiceReleasesOnce() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, 0, Duration.ZERO);
+
+        Bulkhead.Permit permit = bulkhead.enter();
+        permit.close();
+        permit.close();
+
+        // 두 번 닫았어도 자리는 하나뿐이다
+        Bulkhead.Permit first = bulkhead.enter();
+        assertThrows(BulkheadFullException.class, bulkhead::enter);
+        first.close();
+    }
+
+    @Test
+    void findsRejectionWrappedInOtherExceptions() {
+        BulkheadFullException full = new BulkheadFullException("gemini", 3);
+        RuntimeException wrapped = new RuntimeException("이미지 처리 중 오류가 발생했습니다.", new IllegalStateException(full));
+
+        assertEquals(full, BulkheadFullException.findIn(wrapped).orElseThrow());
+        assertThrows(BulkheadFullException.class, () -> BulkheadFullException.rethrowIfPresent(wrapped));
+        assertTrue(BulkheadFullException.findIn(new RuntimeException()).isEmpty());
+    }
+}
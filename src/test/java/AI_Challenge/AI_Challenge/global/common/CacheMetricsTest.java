@@ -0,0 +1,30 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 캐시 조회 카운터가 cache.gets 지표로 노출되는지 확인
+ */
+class CacheMetricsTest {
+
+    @Test
+    void exposesCountersWithResultAndTierTags() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicLong memoryHits = new AtomicLong();
+        AtomicLong misses = new AtomicLong();
+        CacheMetrics.bindHits(registry, "template-schema", "memory", memoryHits);
+        CacheMetrics.bindMisses(registry, "template-schema", misses);
+
+        memoryHits.addAndGet(3);
+        misses.incrementAndGet();
+
+        assertEquals(3.0, registry.get("cache.gets").tags("cache", "template-schema", "result", "hit")
+            .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("result", "miss", "tier", "none")
+            .functionCounter().count());
+    }
+}
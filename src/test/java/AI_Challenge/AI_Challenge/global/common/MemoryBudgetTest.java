@@ -0,0 +1,68 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 메모리 예산의 요청별 한도(413), 예산 부족 시 대기와 거절(429), 반납 확인
+ */
+class MemoryBudgetTest {
+
+    private static final long MB = 1L << 20;
+
+    @Test
+    void rejectsRequestOverLimitWithoutWaiting() {
+        MemoryBudget budget = new MemoryBudget("test", 10 * MB, 4 * MB, Duration.ofSeconds(5));
+
+        MemoryBudgetExceededException e = assertThrows(MemoryBudgetExceededException.class,
+            () -> budget.reserve(5 * MB));
+
+        assertEquals(5 * MB, e.getRequestedBytes());
+        assertEquals(4 * MB, e.getMaxRequestBytes());
+        assertEquals(0, budget.getReservedBytes());
+    }
+
+    @Test
+    void waitsForReleasedBytesAndRejectsAfterMaxWait() throws Exception {
+        MemoryBudget budget = new MemoryBudget("test", 10 * MB, 0, Duration.ofMillis(200));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            MemoryBudget.Reservation large = budget.reserve(8 * MB);
+            assertEquals(8 * MB, budget.getReservedBytes());
+            // 남은 2MB로는 부족 - maxWait 뒤 429
+            assertThrows(BulkheadFullException.class, () -> budget.reserve(3 * MB));
+
+            Future<Boolean> waiter = executor.submit(() -> {
+                budget.reserve(3 * MB).close();
+                return true;
+            });
+            Thread.sleep(50);
+            large.close();
+            // 반납된 예산으로 대기 중인 요청이 진행된다
+            assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, budget.getReservedBytes());
+    }
+
+    @Test
+    void releasesOnlyOnceWhenClosedTwice() throws Exception {
+        MemoryBudget budget = new MemoryBudget("test", 10 * MB, 0, Duration.ofMillis(100));
+
+        MemoryBudget.Reservation first = budget.reserve(6 * MB);
+        MemoryBudget.Reservation second = budget.reserve(4 * MB);
+        first.close();
+        first.close();
+
+        assertEquals(4 * MB, budget.getReservedBytes());
+        second.close();
+        assertEquals(0, budget.getReservedBytes());
+    }
+}
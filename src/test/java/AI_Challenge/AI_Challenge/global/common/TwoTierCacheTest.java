@@ -0,0 +1,99 @@
+package AI_Challenge.AI_Challenge.global.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import AI_Challenge.AI_Challenge.global.common.TwoTierCache.StoredValue;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 힙에서 빠진 항목은 테이블에서 찾아 다시 올리고, TTL이 지난 행은 미스로 보고 정리하는지 확인
+ */
+class TwoTierCacheTest {
+
+    private final MapStore store = new MapStore();
+
+    @Test
+    void fallsBackToStoreAndCountsEachTier() {
+        TwoTierCache<String> cache = new TwoTierCache<>("test", store, 10, 100, Duration.ofHours(1));
+        cache.put("a", "{\"x\":1}");
+
+        assertEquals(Optional.of("{\"x\":1}"), cache.find("a"));
+        cache.evict("a");
+        assertEquals(Optional.of("{\"x\":1}"), cache.find("a"));
+        assertEquals(Optional.empty(), cache.find("b"));
+
+        Map<String, Object> stats = cache.getStats();
+        assertEquals(1L, stats.get("memoryHits"));
+        assertEquals(1L, stats.get("storeHits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(List.of("a"), store.touched);
+    }
+
+    @Test
+    void treatsExpiredRowsAsMissAndPurgesThem() {
+        TwoTierCache<String> cache = new TwoTierCache<>("test", store, 10, 1, Duration.ofHours(1));
+        store.rows.put("old", new StoredValue("{}", LocalDateTime.now().minusHours(2)));
+        store.rows.put("new1", new StoredValue("{}", LocalDateTime.now()));
+        store.rows.put("new2", new StoredValue("{}", LocalDateTime.now()));
+
+        assertTrue(cache.find("old").isEmpty());
+
+        cache.purge();
+        // 만료 1건 삭제 후 최대 1건을 넘는 1건을 오래된 순으로 삭제
+        assertEquals(List.of("new2"), List.copyOf(store.rows.keySet()));
+    }
+
+    // 삽입 순서를 마지막 사용 순서로 쓰는 테스트용 저장소
+    private static final class MapStore implements TwoTierCache.Store<String> {
+
+        private final Map<String, StoredValue> rows = new LinkedHashMap<>();
+        private final List<String> touched = new ArrayList<>();
+
+        @Override
+        public Optional<StoredValue> find(String key) {
+            return Optional.ofNullable(rows.get(key));
+        }
+
+        @Override
+        public void touch(String key, LocalDateTime now) {
+            touched.add(key);
+        }
+
+        @Override
+        public void save(String key, String value, LocalDateTime now) {
+            rows.put(key, new StoredValue(value, now));
+        }
+
+        @Override
+        public int deleteCreatedBefore(LocalDateTime threshold) {
+            int before = rows.size();
+            rows.values().removeIf(row -> row.createdAt().isBefore(threshold));
+            return before - rows.size();
+        }
+
+        @Override
+        public int deleteLeastRecentlyUsed(int count) {
+            List<String> keys = rows.keySet().stream().limit(count).toList();
+            keys.forEach(rows::remove);
+            return keys.size();
+        }
+
+        @Override
+        public long count() {
+            return rows.size();
+        }
+
+        @Override
+        public void deleteAll() {
+            rows.clear();
+        }
+    }
+}
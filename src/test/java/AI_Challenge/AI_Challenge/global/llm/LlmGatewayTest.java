@@ -0,0 +1,64 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import AI_Challenge.AI_Challenge.global.common.Bulkhead;
+import AI_Challenge.AI_Challenge.global.llm.LlmGatewayException.Reason;
+import com.google.genai.errors.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 요청 한도 초과(429)는 서킷을 열지 않고, 열린 서킷은 요청 한도 토큰보다 먼저 확인하는지 확인
+ */
+class LlmGatewayTest {
+
+    private LlmGateway gateway;
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+    }
+
+    @Test
+    void rateLimitedCallsDoNotOpenCircuit() {
+        gateway = gateway(1_000, 100);
+
+        for (int i = 0; i < 3; i++) {
+            LlmGatewayException e = assertThrows(LlmGatewayException.class, () -> gateway.callGemini("schema",
+                client -> {
+                    throw new ApiException(429, "RESOURCE_EXHAUSTED", "quota");
+                }));
+            assertEquals(Reason.RATE_LIMITED, e.getReason());
+        }
+
+        assertEquals("ok", gateway.callGemini("schema", client -> "ok"));
+    }
+
+    @Test
+    void openCircuitRejectsWithoutSpendingRateLimitTokens() {
+        // 토큰 1개 - 서킷을 여는 실패 호출이 쓰고 나면 더 이상 없다
+        gateway = gateway(1, 1);
+        assertThrows(LlmGatewayException.class, () -> gateway.callGemini("schema", client -> {
+            throw new ApiException(503, "UNAVAILABLE", "down");
+        }));
+
+        LlmGatewayException e = assertThrows(LlmGatewayException.class,
+            () -> gateway.callGemini("schema", client -> "ok"));
+
+        assertEquals(Reason.CIRCUIT_OPEN, e.getReason());
+    }
+
+    // 재시도 없음, 실패 1번에 서킷 OPEN, 요청 한도 대기 없음
+    private static LlmGateway gateway(long requestsPerMinute, long burst) {
+        Bulkhead gemini = new Bulkhead("gemini", 4, 4, Duration.ofSeconds(1));
+        Bulkhead openAi = new Bulkhead("openai", 4, 4, Duration.ofSeconds(1));
+        return new LlmGateway(new SimpleMeterRegistry(), gemini, openAi, "test-key", "", "test-key",
+            "http://localhost/", 1, 1, 1, 1, 1, 1, 1, 30, 0, requestsPerMinute, burst, requestsPerMinute, burst);
+    }
+}
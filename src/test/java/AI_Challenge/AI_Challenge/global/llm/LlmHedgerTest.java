@@ -0,0 +1,126 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 헤지 지연 시간(백분위수) 이후에만 다른 제공자를 호출하고, 예산이 없으면 헤지하지 않으며, 실패 시 전환하는지 확인
+ */
+class LlmHedgerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LlmHedger hedger;
+
+    @AfterEach
+    void tearDown() {
+        if (hedger != null) {
+            hedger.shutdown();
+        }
+    }
+
+    @Test
+    void returnsPrimaryWithoutCallingSecondaryWhenFast() {
+        hedger = hedger(1.0);
+        AtomicBoolean secondaryCalled = new AtomicBoolean();
+
+        LlmHedger.Hedged<String> result = hedger.execute("fill", LlmProvider.OPENAI, () -> "gpt",
+            LlmProvider.GEMINI, () -> {
+                secondaryCalled.set(true);
+                return "gemini";
+            });
+
+        assertEquals("gpt", result.value());
+        assertTrue(result.fromPrimary());
+        assertFalse(secondaryCalled.get());
+    }
+
+    @Test
+    void hedgesSlowPrimaryAfterObservedPercentileAndCancelsIt() throws Exception {
+        hedger = hedger(1.0);
+        warmUp();
+        CountDownLatch primaryCancelled = new CountDownLatch(1);
+
+        LlmHedger.Hedged<String> result = hedger.execute("fill", LlmProvider.OPENAI, () -> {
+            try {
+                Thread.sleep(5_000);
+                return "gpt";
+            } catch (InterruptedException e) {
+                primaryCancelled.countDown();
+                throw e;
+            }
+        }, LlmProvider.GEMINI, () -> "gemini");
+
+        assertEquals("gemini", result.value());
+        assertEquals(LlmProvider.GEMINI, result.provider());
+        assertFalse(result.fromPrimary());
+        assertTrue(primaryCancelled.await(1, TimeUnit.SECONDS));
+        assertEquals(1.0, registry.get("llm.hedge").tag("event", "hedged").counter().count());
+    }
+
+    @Test
+    void waitsForPrimaryWhenBudgetIsExhausted() {
+        hedger = hedger(0.0);
+        warmUp();
+        AtomicBoolean secondaryCalled = new AtomicBoolean();
+
+        LlmHedger.Hedged<String> result = hedger.execute("fill", LlmProvider.OPENAI, () -> {
+            Thread.sleep(200);
+            return "gpt";
+        }, LlmProvider.GEMINI, () -> {
+            secondaryCalled.set(true);
+            return "gemini";
+        });
+
+        assertEquals("gpt", result.value());
+        assertFalse(secondaryCalled.get());
+        assertEquals(1.0, registry.get("llm.hedge").tag("event", "budget_exhausted").counter().count());
+    }
+
+    @Test
+    void failsOverWhenPrimaryFails() {
+        hedger = hedger(0.0);
+
+        LlmHedger.Hedged<String> result = hedger.execute("schema", LlmProvider.GEMINI, () -> {
+            throw new LlmGatewayException(LlmProvider.GEMINI, LlmGatewayException.Reason.CIRCUIT_OPEN, "open", null);
+        }, LlmProvider.OPENAI, () -> "gpt");
+
+        assertEquals("gpt", result.value());
+        assertEquals(LlmProvider.OPENAI, result.provider());
+    }
+
+    @Test
+    void throwsPrimaryErrorWhenBothFail() {
+        hedger = hedger(0.0);
+        RuntimeException primaryError = new RuntimeException("gemini down");
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> hedger.execute("schema",
+            LlmProvider.GEMINI, () -> {
+                throw primaryError;
+            }, LlmProvider.OPENAI, () -> {
+                throw new RuntimeException("openai down");
+            }));
+
+        assertSame(primaryError, thrown);
+    }
+
+    // 빠른 주 호출 3번으로 백분위수 표본을 채운다 (헤지 지연 시간은 최소값 20ms)
+    private void warmUp() {
+        for (int i = 0; i < 3; i++) {
+            hedger.execute("fill", LlmProvider.OPENAI, () -> "gpt", LlmProvider.GEMINI, () -> "gemini");
+        }
+    }
+
+    private LlmHedger hedger(double budgetRatio) {
+        return new LlmHedger(registry, true, true, 0.95, 3, 10, 20, 1_000, budgetRatio, 5);
+    }
+}
@@ -0,0 +1,81 @@
+package AI_Challenge.AI_Challenge.global.llm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 프롬프트 압축 시 자리 표시자와 셀 텍스트는 남고 레이아웃 정보만 빠지는지 확인
+ */
+class PromptCompactorTest {
+
+    @Test
+    void flattensHtmlTableIntoRowsWithoutLayoutNoise() {
+        String markdown = """
+            **여 비 정 산 신 청 서**
+
+            <table>
+            <colgroup>
+            <col style="width: 12%" />
+            <col style="width: 88%" />
+            </colgroup>
+            <tbody>
+            <tr>
+            <td rowspan="2" style="text-align: center;"><strong>출장일정</strong></td>
+            <td style="text-align: center;">일 시</td>
+            <td colspan="3"></td>
+            <td>{{일시}}</td>
+            </tr>
+            <tr>
+            <td></td>
+            <td></td>
+            </tr>
+            <tr>
+            <td colspan="12"><p>관계서류를
+            첨부합니다.</p>
+            <p>2024년 월 일</p></td>
+            </tr>
+            </tbody>
+            </table>
+            """;
+
+        String compacted = PromptCompactor.compactMarkdown(markdown);
+
+        assertEquals("""
+            **여 비 정 산 신 청 서**
+
+            | 출장일정 (2행) | 일 시 | {{일시}} |
+            | 관계서류를 첨부합니다. 2024년 월 일 |""", compacted);
+        assertTrue(PromptCompactor.estimateTokens(compacted) < PromptCompactor.estimateTokens(markdown));
+    }
+
+    @Test
+    void collapsesWhitespaceAndRepeatedLines() {
+        String text = "  첫 줄   공백\t\n\n\n\n반복\n반복\n----------\n끝  ";
+
+        assertEquals("첫 줄 공백\n\n반복\n---\n끝", PromptCompactor.collapseWhitespace(text));
+    }
+
+    @Test
+    void keepsRepeatedReceiptLines() {
+        // 같은 품목을 두 번 산 영수증 - 두 줄 모두 남아야 금액 합계가 맞는다
+        String receipt = "아메리카노   4,500\n아메리카노   4,500\n-----\n합계  9,000  ";
+
+        assertEquals("아메리카노 4,500\n아메리카노 4,500\n-----\n합계 9,000", PromptCompactor.normalizeWhitespace(receipt));
+    }
+
+    @Test
+    void minifiesJsonKeepingKeyOrder() {
+        String json = """
+            {
+              "일시": "",
+              "출장지": "",
+              "금액1": "16,900원"
+            }
+            """;
+
+        assertEquals("{\"일시\":\"\",\"출장지\":\"\",\"금액1\":\"16,900원\"}", PromptCompactor.compactJson(json));
+        assertEquals("설명 문장", PromptCompactor.compactJson("  설명   문장 "));
+    }
+}
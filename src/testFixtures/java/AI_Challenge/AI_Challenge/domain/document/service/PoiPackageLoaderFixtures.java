@@ -0,0 +1,30 @@
+package AI_Challenge.AI_Challenge.domain.document.service;
+
+import AI_Challenge.AI_Challenge.global.common.MemoryBudget;
+import java.time.Duration;
+import org.apache.poi.openxml4j.util.ZipInputStreamZipEntrySource;
+
+/**
+ * 테스트/벤치마크용 PoiPackageLoader - 애플리케이션 기본값과 같은 설정 (application.yml document.poi.*)
+ * 스프링 컨텍스트 없이 쓰므로 PoiConfig가 시작 시 적용하는 POI 전역 설정(temp-file-threshold)도 여기서 적용한다.
+ */
+public final class PoiPackageLoaderFixtures {
+
+    private static final long MB = 1L << 20;
+
+    static {
+        ZipInputStreamZipEntrySource.setThresholdBytesForTempFiles((int) MB);
+    }
+
+    private PoiPackageLoaderFixtures() {
+    }
+
+    // 예산 64MB - 테스트 양식 여러 개를 동시에 열어도 충분하다
+    public static PoiPackageLoader poiPackageLoader() {
+        return poiPackageLoader(new MemoryBudget("poi-memory", 64 * MB, 0, Duration.ofSeconds(1)));
+    }
+
+    public static PoiPackageLoader poiPackageLoader(MemoryBudget memoryBudget) {
+        return new PoiPackageLoader(memoryBudget, 16 * MB, (int) MB, 6);
+    }
+}